@@ -0,0 +1,22 @@
+package com.libraryportal.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class LibraryportalReactiveApplication {
+    private static final Logger logger = LoggerFactory.getLogger(LibraryportalReactiveApplication.class);
+
+    /**
+     * Entry point of the reactive Library Portal Application.
+     * 
+     * @param args Command-line arguments.
+     */
+    public static void main(String[] args) {
+        logger.info("Starting reactive Library Portal Application...");
+        SpringApplication.run(LibraryportalReactiveApplication.class, args);
+        logger.info("Reactive Library Portal Application started successfully.");
+    }
+}
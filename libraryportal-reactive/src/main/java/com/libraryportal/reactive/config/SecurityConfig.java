@@ -0,0 +1,64 @@
+package com.libraryportal.reactive.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Configuration class for defining security-related beans, with the same user
+ * and the same stateless basic authentication as the servlet build.
+ */
+@EnableWebFluxSecurity
+@Configuration
+public class SecurityConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
+
+	/**
+	 * Configures the security filter chain for the application.
+	 *
+	 * @param http the ServerHttpSecurity object to configure
+	 * @return the configured SecurityWebFilterChain
+	 */
+	@Bean
+	SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+		logger.info("Configuring security filter chain...");
+		return http.csrf(ServerHttpSecurity.CsrfSpec::disable)
+				.authorizeExchange(exchange -> exchange.anyExchange().authenticated())
+				.securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+				.httpBasic(Customizer.withDefaults()).build();
+	}
+
+	/**
+	 * Configures an in-memory user details service with a single user.
+	 *
+	 * @return the configured MapReactiveUserDetailsService
+	 */
+	@Bean
+	MapReactiveUserDetailsService userDetailsService() {
+		logger.info("Configuring user details service...");
+		UserDetails user = User.withUsername("user").password(passwordEncoder().encode("password")).build();
+		return new MapReactiveUserDetailsService(user);
+	}
+
+	/**
+	 * Configures a BCrypt password encoder for encoding passwords.
+	 *
+	 * @return the configured BCryptPasswordEncoder
+	 */
+	@Bean
+	BCryptPasswordEncoder passwordEncoder() {
+		logger.info("Configuring password encoder...");
+		return new BCryptPasswordEncoder();
+	}
+}
@@ -0,0 +1,126 @@
+package com.libraryportal.reactive.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.libraryportal.reactive.entity.Book;
+import com.libraryportal.reactive.entity.BookSummary;
+import com.libraryportal.reactive.exception.BookNotFoundException;
+import com.libraryportal.reactive.exception.BorrowerNotFoundException;
+import com.libraryportal.reactive.exception.DuplicateRegistrationException;
+import com.libraryportal.reactive.exception.ErrorResponse;
+import com.libraryportal.reactive.service.BookService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookController {
+	private static final Logger logger = LoggerFactory.getLogger(BookController.class);
+
+	private final BookService bookService;
+
+	/**
+	 * Constructor for BookController.
+	 *
+	 * @param bookService Service for managing books.
+	 */
+	public BookController(BookService bookService) {
+		this.bookService = bookService;
+	}
+
+	/**
+	 * Endpoint to register a new book.
+	 *
+	 * @param book The book object to register.
+	 * @return ResponseEntity containing the registered book if successful, or an
+	 *         error response if a duplicate registration occurs or an exception
+	 *         occurs.
+	 */
+	@PostMapping("/registerbook")
+	public Mono<ResponseEntity<?>> registerBook(@RequestBody Book book) {
+		return bookService.registerBook(book)
+				.<ResponseEntity<?>>map(registeredBook -> ResponseEntity.status(HttpStatus.CREATED).body(registeredBook))
+				.onErrorResume(DuplicateRegistrationException.class, e -> {
+					ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage());
+					return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+				}).onErrorResume(e -> {
+					logger.error("Error registering book", e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null));
+				});
+	}
+
+	/**
+	 * Endpoint to get all books. The books are written to the response as they
+	 * are read from the database.
+	 *
+	 * @return All books.
+	 */
+	@GetMapping("/getBooks")
+	public Flux<Book> getAllBooks() {
+		return bookService.getAllBooks().doOnError(e -> logger.error("Error fetching all books", e));
+	}
+
+	/**
+	 * Endpoint to get the id, title and availability of all books.
+	 *
+	 * @return The summaries of all books.
+	 */
+	@GetMapping("/getBookSummaries")
+	public Flux<BookSummary> getBookSummaries() {
+		return bookService.getBookSummaries().doOnError(e -> logger.error("Error fetching book summaries", e));
+	}
+
+	/**
+	 * Endpoint to borrow a book.
+	 *
+	 * @param borrowerId The ID of the borrower.
+	 * @param bookId     The ID of the book to borrow.
+	 * @return ResponseEntity indicating success if successful, or an error response
+	 *         if the borrower or book is not found or an exception occurs.
+	 */
+	@PutMapping("/{bookId}/{borrowerId}/borrow")
+	public Mono<ResponseEntity<?>> borrowBook(@PathVariable Long bookId, @PathVariable Long borrowerId) {
+		return bookService.borrowBook(borrowerId, bookId).<ResponseEntity<?>>map(ResponseEntity::ok)
+				.onErrorResume(BorrowerNotFoundException.class, e -> {
+					ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+					return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+				}).onErrorResume(e -> {
+					logger.error("Error borrowing book with ID: {}", bookId, e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+							.body("An error occurred while processing the request."));
+				});
+	}
+
+	/**
+	 * Endpoint to return a book.
+	 *
+	 * @param bookId The ID of the book to return.
+	 * @return ResponseEntity indicating success if successful, or an error response
+	 *         if the book is not found or an exception occurs.
+	 */
+	@PutMapping("/{bookId}/return")
+	public Mono<ResponseEntity<?>> returnBook(@PathVariable Long bookId) {
+		return bookService.returnBook(bookId)
+				.<ResponseEntity<?>>map(returnedBook -> ResponseEntity.status(HttpStatus.OK).body(returnedBook))
+				.onErrorResume(BookNotFoundException.class, e -> {
+					ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+					return Mono.just(ResponseEntity.badRequest().body(errorResponse));
+				}).onErrorResume(e -> {
+					logger.error("Error returning book with ID: {}", bookId, e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+							.body("An error occurred while processing the request."));
+				});
+	}
+
+}
@@ -0,0 +1,140 @@
+package com.libraryportal.reactive.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.libraryportal.reactive.entity.Borrower;
+import com.libraryportal.reactive.entity.BorrowerSummary;
+import com.libraryportal.reactive.exception.BorrowerNotFoundException;
+import com.libraryportal.reactive.exception.DuplicateRegistrationException;
+import com.libraryportal.reactive.exception.ErrorResponse;
+import com.libraryportal.reactive.service.BorrowerService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/borrowers")
+public class BorrowerController {
+
+	private static final Logger logger = LoggerFactory.getLogger(BorrowerController.class);
+
+	private final BorrowerService borrowerService;
+
+	/**
+	 * Constructor for BorrowerController.
+	 *
+	 * @param borrowerService Service for managing borrowers.
+	 */
+	public BorrowerController(BorrowerService borrowerService) {
+		this.borrowerService = borrowerService;
+	}
+
+	/**
+	 * Endpoint to register a new borrower.
+	 *
+	 * @param borrower The borrower object to register.
+	 * @return ResponseEntity containing the registered borrower if successful, or
+	 *         an error response if a duplicate registration occurs.
+	 */
+	@PostMapping("/registerBorrower")
+	public Mono<ResponseEntity<?>> registerBorrower(@RequestBody Borrower borrower) {
+		return borrowerService.registerBorrower(borrower)
+				.<ResponseEntity<?>>map(
+						registeredBorrower -> ResponseEntity.status(HttpStatus.CREATED).body(registeredBorrower))
+				.onErrorResume(DuplicateRegistrationException.class, e -> {
+					ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + borrower.getEmail());
+					return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+				}).onErrorResume(e -> {
+					logger.error("Error registering borrower", e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null));
+				});
+	}
+
+	/**
+	 * Endpoint to get all borrowers. The borrowers are written to the response as
+	 * they are read from the database.
+	 *
+	 * @return All borrowers.
+	 */
+	@GetMapping("/getBorrowers")
+	public Flux<Borrower> getAllBorrowers() {
+		return borrowerService.getAllBorrowers().doOnError(e -> logger.error("Error fetching all borrowers", e));
+	}
+
+	/**
+	 * Endpoint to get the id and name of all borrowers.
+	 *
+	 * @return The summaries of all borrowers.
+	 */
+	@GetMapping("/getBorrowerSummaries")
+	public Flux<BorrowerSummary> getBorrowerSummaries() {
+		return borrowerService.getBorrowerSummaries()
+				.doOnError(e -> logger.error("Error fetching borrower summaries", e));
+	}
+
+	/**
+	 * Endpoint to get a borrower by ID.
+	 *
+	 * @param id The ID of the borrower to retrieve.
+	 * @return ResponseEntity containing the borrower if found, or an error response
+	 *         if the borrower is not found or an exception occurs.
+	 */
+	@GetMapping("/getBorrowerById/{id}")
+	public Mono<ResponseEntity<?>> getBorrowerById(@PathVariable Long id) {
+		return borrowerService.getBorrowerById(id).<ResponseEntity<?>>map(ResponseEntity::ok)
+				.onErrorResume(BorrowerNotFoundException.class, e -> {
+					ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage());
+					return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+				}).onErrorResume(e -> {
+					logger.error("Error fetching borrower by ID: {}", id, e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal server error"));
+				});
+	}
+
+	/**
+	 * Endpoint to update a borrower by ID.
+	 *
+	 * @param id          The ID of the borrower to update.
+	 * @param newBorrower The updated borrower object.
+	 * @return ResponseEntity containing the updated borrower if successful, or an
+	 *         error response if the borrower is not found or an exception occurs.
+	 */
+	@PutMapping("/updateBorrowerById/{id}")
+	public Mono<ResponseEntity<?>> updateBorrower(@PathVariable Long id, @RequestBody Borrower newBorrower) {
+		return borrowerService.updateBorrower(id, newBorrower).<ResponseEntity<?>>map(ResponseEntity::ok)
+				.onErrorResume(BorrowerNotFoundException.class, e -> {
+					ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + id);
+					return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse));
+				}).onErrorResume(e -> {
+					logger.error("Error updating borrower with ID: {}", id, e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null));
+				});
+	}
+
+	/**
+	 * Endpoint to delete a borrower by ID.
+	 *
+	 * @param id The ID of the borrower to delete.
+	 * @return ResponseEntity indicating success if successful, or an error response
+	 *         if an exception occurs.
+	 */
+	@DeleteMapping("/deleteBorrowerById/{id}")
+	public Mono<ResponseEntity<Void>> deleteBorrower(@PathVariable Long id) {
+		return borrowerService.deleteBorrower(id).then(Mono.just(ResponseEntity.noContent().<Void>build()))
+				.onErrorResume(e -> {
+					logger.error("Error deleting borrower with ID: {}", id, e);
+					return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).<Void>build());
+				});
+	}
+}
@@ -0,0 +1,71 @@
+package com.libraryportal.reactive.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Row of the {@code borrower} table, mapped by Spring Data R2DBC.
+ */
+@Table("borrower")
+public class Borrower {
+
+    @Id
+    private Long id;
+    
+    private String name;
+    private String email;
+    
+    /**
+     * Get the unique ID of the borrower.
+     * 
+     * @return The ID of the borrower.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Set the unique ID of the borrower.
+     * 
+     * @param id The ID of the borrower.
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Get the name of the borrower.
+     * 
+     * @return The name of the borrower.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Set the name of the borrower.
+     * 
+     * @param name The name of the borrower.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Get the email address of the borrower.
+     * 
+     * @return The email address of the borrower.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Set the email address of the borrower.
+     * 
+     * @param email The email address of the borrower.
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+}
@@ -0,0 +1,42 @@
+package com.libraryportal.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import com.libraryportal.reactive.entity.Book;
+import com.libraryportal.reactive.entity.BookSummary;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the servlet build's {@code BookRepository}.
+ */
+@Repository
+public interface BookRepository extends R2dbcRepository<Book, Long> {
+
+    /**
+     * Find a book by its ISBN.
+     * 
+     * @param isbn The ISBN of the book to find.
+     * @return The book with the specified ISBN, or empty if not found.
+     */
+    Mono<Book> findByIsbn(String isbn);
+
+    /**
+     * Find a book by its ISBN, title, and author.
+     * 
+     * @param isbn The ISBN of the book to find.
+     * @param title The title of the book to find.
+     * @param author The author of the book to find.
+     * @return The book with the specified ISBN, title, and author, or empty if not found.
+     */
+    Mono<Book> findByIsbnAndTitleAndAuthor(String isbn, String title, String author);
+
+    /**
+     * Find the summaries of all books, selecting only the summary columns.
+     * 
+     * @return The summaries of all books.
+     */
+    Flux<BookSummary> findAllProjectedBy();
+}
@@ -0,0 +1,32 @@
+package com.libraryportal.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+
+import com.libraryportal.reactive.entity.Borrower;
+import com.libraryportal.reactive.entity.BorrowerSummary;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive counterpart of the servlet build's {@code BorrowerRepository}.
+ */
+@Repository
+public interface BorrowerRepository extends R2dbcRepository<Borrower, Long> {
+
+    /**
+     * Find a borrower by email address.
+     * 
+     * @param email The email address of the borrower to find.
+     * @return The borrower with the specified email address, or empty if not found.
+     */
+    Mono<Borrower> findByEmail(String email);
+
+    /**
+     * Find the summaries of all borrowers, selecting only the summary columns.
+     * 
+     * @return The summaries of all borrowers.
+     */
+    Flux<BorrowerSummary> findAllProjectedBy();
+}
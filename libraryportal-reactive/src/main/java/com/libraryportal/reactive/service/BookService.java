@@ -0,0 +1,22 @@
+package com.libraryportal.reactive.service;
+
+import com.libraryportal.reactive.entity.Book;
+import com.libraryportal.reactive.entity.BookSummary;
+import com.libraryportal.reactive.entity.BorrowedBookDetails;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface BookService {
+
+    Mono<Book> registerBook(Book book);
+
+    Flux<Book> getAllBooks();
+
+    Flux<BookSummary> getBookSummaries();
+
+    Mono<BorrowedBookDetails> borrowBook(Long borrowerId, Long bookId);
+
+    Mono<Book> returnBook(Long bookId);
+
+}
@@ -0,0 +1,171 @@
+package com.libraryportal.reactive.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.libraryportal.reactive.entity.Book;
+import com.libraryportal.reactive.entity.BookSummary;
+import com.libraryportal.reactive.entity.BorrowedBookDetails;
+import com.libraryportal.reactive.exception.BookNotFoundException;
+import com.libraryportal.reactive.exception.BorrowerNotFoundException;
+import com.libraryportal.reactive.exception.DuplicateRegistrationException;
+import com.libraryportal.reactive.repository.BookRepository;
+import com.libraryportal.reactive.repository.BorrowerRepository;
+import com.libraryportal.reactive.util.BookStatus;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class providing methods to manage books in the library. Errors are
+ * signalled through the returned publishers, with the same exceptions the
+ * servlet build throws.
+ */
+@Service
+public class BookServiceImpl implements BookService {
+	private static final Logger LOGGER = LoggerFactory.getLogger(BookService.class);
+
+	private final BookRepository bookRepository;
+	private final BorrowerRepository borrowerRepository;
+
+	/**
+	 * Constructor for BookService.
+	 *
+	 * @param bookRepository     Repository for managing books.
+	 * @param borrowerRepository Repository for managing borrowers.
+	 */
+	public BookServiceImpl(BookRepository bookRepository, BorrowerRepository borrowerRepository) {
+		this.bookRepository = bookRepository;
+		this.borrowerRepository = borrowerRepository;
+	}
+
+	/**
+	 * Register a new book.
+	 *
+	 * @param book The book to register.
+	 * @return The registered book, or a DuplicateRegistrationException if the
+	 *         book is not valid for registration. If a book with the same ISBN,
+	 *         title, and author already exists, its number of copies is
+	 *         incremented instead.
+	 */
+	@Transactional
+	public Mono<Book> registerBook(Book book) {
+		LOGGER.info("Registering a new book: {}", book.getTitle());
+		return validateBook(book)
+				.then(Mono.defer(() -> bookRepository.findByIsbnAndTitleAndAuthor(book.getIsbn(), book.getTitle(),
+						book.getAuthor())))
+				.flatMap(existingBook -> {
+					// If a book with the same ISBN, title, and author exists, increment the number
+					// of copies
+					existingBook.setNoOfCopies(existingBook.getNoOfCopies() + 1);
+					LOGGER.info("Incrementing copies of existing book: {}", existingBook.getTitle());
+					return bookRepository.save(existingBook);
+				}).switchIfEmpty(Mono.defer(() -> {
+					// Save the book to the database with initial number of copies as 1
+					book.setNoOfCopies(1);
+					LOGGER.info("Saving new book to database: {}", book.getTitle());
+					return bookRepository.save(book);
+				}));
+	}
+
+	/**
+	 * Get all books.
+	 *
+	 * @return All books, streamed as they are read.
+	 */
+	public Flux<Book> getAllBooks() {
+		LOGGER.info("Fetching all books from the database");
+		return bookRepository.findAll();
+	}
+
+	/**
+	 * Get the id, title and availability of all books.
+	 *
+	 * @return Summaries of all books.
+	 */
+	public Flux<BookSummary> getBookSummaries() {
+		LOGGER.info("Fetching summaries of all books from the database");
+		return bookRepository.findAllProjectedBy();
+	}
+
+	/**
+	 * Validate the book before registration.
+	 *
+	 * @param book The book to validate.
+	 * @return Empty if the book is valid, or a DuplicateRegistrationException if
+	 *         it is not valid for registration.
+	 */
+	private Mono<Void> validateBook(Book book) {
+		LOGGER.info("Validating book for registration: {}", book.getTitle());
+		if (book.getIsbn() == null || book.getIsbn().isEmpty()) {
+			LOGGER.error("ISBN is required for book registration");
+			return Mono.error(new DuplicateRegistrationException("ISBN number is required."));
+		}
+		return Mono.empty();
+	}
+
+	/**
+	 * Borrow a book.
+	 *
+	 * @param borrowerId The ID of the borrower.
+	 * @param bookId     The ID of the book to borrow.
+	 * @return The details of the borrowed book, or a BorrowerNotFoundException if
+	 *         the borrower or the book is not found or the book is already
+	 *         borrowed.
+	 */
+	@Transactional
+	public Mono<BorrowedBookDetails> borrowBook(Long borrowerId, Long bookId) {
+		LOGGER.info("Borrowing book with ID {} for borrower with ID {}", bookId, borrowerId);
+
+		return Mono.zip(bookRepository.findById(bookId), borrowerRepository.findById(borrowerId))
+				.switchIfEmpty(Mono.error(() -> {
+					String errorMessage = "Borrower or book not found.";
+					LOGGER.error(errorMessage);
+					return new BorrowerNotFoundException(errorMessage);
+				})).flatMap(bookAndBorrower -> {
+					Book book = bookAndBorrower.getT1();
+					if (book.getStatus() != BookStatus.AVAILABLE) {
+						String errorMessage = "The book is already borrowed by another member.";
+						LOGGER.error(errorMessage);
+						return Mono.<BorrowedBookDetails>error(new BorrowerNotFoundException(errorMessage));
+					}
+					book.setStatus(BookStatus.BORROWED);
+					book.setNoOfCopies(book.getNoOfCopies() - 1);
+
+					LOGGER.info("Setting status of book {} to BORROWED", bookId);
+					return bookRepository.save(book)
+							.map(savedBook -> new BorrowedBookDetails(bookAndBorrower.getT2(), savedBook));
+				});
+	}
+
+	/**
+	 * Return a book.
+	 *
+	 * @param bookId The ID of the book to return.
+	 * @return The returned book, or a BookNotFoundException if the book is not
+	 *         found or not currently borrowed.
+	 */
+	@Transactional
+	public Mono<Book> returnBook(Long bookId) {
+		LOGGER.info("Returning book with ID {}", bookId);
+
+		return bookRepository.findById(bookId).switchIfEmpty(Mono.error(() -> {
+			String errorMessage = "Book not found.";
+			LOGGER.error(errorMessage);
+			return new BookNotFoundException(errorMessage);
+		})).flatMap(book -> {
+			if (book.getStatus() != BookStatus.BORROWED) {
+				String errorMessage = "The book is not currently borrowed.";
+				LOGGER.error(errorMessage);
+				return Mono.<Book>error(new BookNotFoundException(errorMessage));
+			}
+			book.setStatus(BookStatus.AVAILABLE);
+			book.setNoOfCopies(book.getNoOfCopies() + 1);
+			LOGGER.info("Setting status of book {} to AVAILABLE", bookId);
+			return bookRepository.save(book);
+		});
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.libraryportal.reactive.service;
+
+import com.libraryportal.reactive.entity.Borrower;
+import com.libraryportal.reactive.entity.BorrowerSummary;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface BorrowerService {
+
+    Mono<Borrower> registerBorrower(Borrower borrower);
+
+    Flux<Borrower> getAllBorrowers();
+
+    Flux<BorrowerSummary> getBorrowerSummaries();
+
+    Mono<Borrower> getBorrowerById(Long id);
+
+    Mono<Borrower> updateBorrower(Long id, Borrower newBorrower);
+
+    Mono<Void> deleteBorrower(Long id);
+
+}
@@ -0,0 +1,131 @@
+package com.libraryportal.reactive.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.libraryportal.reactive.entity.Borrower;
+import com.libraryportal.reactive.entity.BorrowerSummary;
+import com.libraryportal.reactive.exception.BorrowerNotFoundException;
+import com.libraryportal.reactive.exception.DuplicateRegistrationException;
+import com.libraryportal.reactive.repository.BorrowerRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service class providing methods to manage borrower in the library. Errors
+ * are signalled through the returned publishers, with the same exceptions the
+ * servlet build throws.
+ */
+@Service
+public class BorrowerServiceImpl implements BorrowerService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BorrowerService.class);
+
+    private final BorrowerRepository borrowerRepository;
+
+    public BorrowerServiceImpl(BorrowerRepository borrowerRepository) {
+        this.borrowerRepository = borrowerRepository;
+    }
+
+    /**
+     * Register a new borrower.
+     *
+     * @param borrower The borrower to register.
+     * @return The registered borrower, or a DuplicateRegistrationException if a
+     *         borrower with the same email already exists.
+     */
+    @Transactional
+    public Mono<Borrower> registerBorrower(Borrower borrower) {
+        LOGGER.info("Registering a new borrower: {}", borrower.getEmail());
+        return validateBorrower(borrower)
+                .then(Mono.defer(() -> borrowerRepository.findByEmail(borrower.getEmail())))
+                .flatMap(existingBorrower -> {
+                    LOGGER.error("A borrower with the same email already exists: {}", borrower.getEmail());
+                    return Mono.<Borrower>error(
+                            new DuplicateRegistrationException("A borrower with the same email already exists."));
+                })
+                .switchIfEmpty(Mono.defer(() -> borrowerRepository.save(borrower)))
+                .doOnNext(savedBorrower -> LOGGER.info("Borrower registered successfully: {}", savedBorrower.getId()));
+    }
+
+    /**
+     * Get all borrowers.
+     *
+     * @return All borrowers, streamed as they are read.
+     */
+    public Flux<Borrower> getAllBorrowers() {
+        LOGGER.info("Fetching all borrowers from the database");
+        return borrowerRepository.findAll();
+    }
+
+    /**
+     * Get the id and name of all borrowers.
+     *
+     * @return Summaries of all borrowers.
+     */
+    public Flux<BorrowerSummary> getBorrowerSummaries() {
+        LOGGER.info("Fetching summaries of all borrowers from the database");
+        return borrowerRepository.findAllProjectedBy();
+    }
+
+    /**
+     * Get a borrower by ID.
+     *
+     * @param id The ID of the borrower to retrieve.
+     * @return The borrower with the specified ID, or a BorrowerNotFoundException
+     *         if no borrower is found with the given ID.
+     */
+    public Mono<Borrower> getBorrowerById(Long id) {
+        LOGGER.info("Fetching borrower by ID: {}", id);
+        return borrowerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BorrowerNotFoundException("Borrower not found with id: " + id)));
+    }
+
+    /**
+     * Update an existing borrower.
+     *
+     * @param id          The ID of the borrower to update.
+     * @param newBorrower The new borrower information.
+     * @return The updated borrower, or a BorrowerNotFoundException if no borrower
+     *         is found with the given ID.
+     */
+    @Transactional
+    public Mono<Borrower> updateBorrower(Long id, Borrower newBorrower) {
+        LOGGER.info("Updating borrower with ID: {}", id);
+        return getBorrowerById(id).flatMap(borrower -> {
+            borrower.setName(newBorrower.getName());
+            borrower.setEmail(newBorrower.getEmail());
+            return borrowerRepository.save(borrower);
+        });
+    }
+
+    /**
+     * Delete a borrower by ID.
+     *
+     * @param id The ID of the borrower to delete.
+     * @return Completes once the borrower is deleted.
+     */
+    public Mono<Void> deleteBorrower(Long id) {
+        LOGGER.info("Deleting borrower with ID: {}", id);
+        return borrowerRepository.deleteById(id);
+    }
+
+    /**
+     * Validate the borrower before registration.
+     *
+     * @param borrower The borrower to validate.
+     * @return Empty if the borrower is valid, or a DuplicateRegistrationException
+     *         if it is not valid for registration.
+     */
+    private Mono<Void> validateBorrower(Borrower borrower) {
+        LOGGER.info("Validating borrower for registration: {}", borrower.getEmail());
+        if (borrower.getEmail() == null || borrower.getEmail().isEmpty()) {
+            LOGGER.error("Email address is required for borrower registration");
+            return Mono.error(new DuplicateRegistrationException("Email address is required."));
+        }
+        return Mono.empty();
+    }
+}
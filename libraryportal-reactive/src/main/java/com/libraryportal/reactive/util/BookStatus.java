@@ -0,0 +1,6 @@
+package com.libraryportal.reactive.util;
+
+public enum BookStatus {
+    AVAILABLE,
+    BORROWED
+}
@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS book (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    isbn VARCHAR(255),
+    title VARCHAR(255),
+    author VARCHAR(255),
+    no_of_copies INT NOT NULL,
+    status VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS borrower (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255)
+);
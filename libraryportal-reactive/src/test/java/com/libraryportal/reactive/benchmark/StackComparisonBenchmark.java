@@ -0,0 +1,205 @@
+package com.libraryportal.reactive.benchmark;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs the same catalog load against the servlet build and the reactive build
+ * and compares the database connections held, the live threads, the heap used
+ * and the p99 latency. Both applications must already be running; start the
+ * servlet build without its rate and concurrency limits:
+ *
+ * <pre>
+ * java -jar libraryportal/target/libraryportal-0.0.1-SNAPSHOT.jar \
+ *     --libraryportal.ratelimit.enabled=false --libraryportal.concurrency.enabled=false
+ * java -jar libraryportal-reactive/target/libraryportal-reactive-0.0.1-SNAPSHOT.jar
+ * </pre>
+ *
+ * Then run {@code mvn -Pbenchmark test} in this module. The base URLs are set
+ * with {@code -Dbenchmark.servlet.url} and {@code -Dbenchmark.reactive.url},
+ * the load with {@code -Dbenchmark.books}, {@code -Dbenchmark.concurrency} and
+ * {@code -Dbenchmark.seconds}.
+ */
+class StackComparisonBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StackComparisonBenchmark.class);
+
+	private static final String SERVLET_URL = System.getProperty("benchmark.servlet.url",
+			"http://localhost:8080/libraryportal");
+	private static final String REACTIVE_URL = System.getProperty("benchmark.reactive.url",
+			"http://localhost:8081/libraryportal");
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 500);
+	private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 100);
+	private static final int SECONDS = Integer.getInteger("benchmark.seconds", 30);
+	private static final int WARMUP_SECONDS = 5;
+	private static final int SEED_CONCURRENCY = 4;
+	private static final String AUTHORIZATION = "Basic "
+			+ Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	@Test
+	void compareStacks() throws Exception {
+		assumeTrue(isUp(SERVLET_URL), "Servlet build is not running at " + SERVLET_URL);
+		assumeTrue(isUp(REACTIVE_URL), "Reactive build is not running at " + REACTIVE_URL);
+
+		run("servlet", SERVLET_URL, "hikaricp.connections.active");
+		run("reactive", REACTIVE_URL, "r2dbc.pool.acquired");
+	}
+
+	private void run(String stack, String baseUrl, String connectionsMetric) throws Exception {
+		seed(baseUrl);
+		HttpRequest get = request(baseUrl + "/api/books/getBooks").GET().build();
+		load(get, WARMUP_SECONDS, new ConcurrentLinkedQueue<>(), new AtomicLong());
+
+		Peak connections = new Peak();
+		Peak threads = new Peak();
+		Peak heap = new Peak();
+		ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+		sampler.scheduleAtFixedRate(() -> {
+			connections.update(metric(baseUrl, connectionsMetric, null));
+			threads.update(metric(baseUrl, "jvm.threads.live", null));
+			heap.update(metric(baseUrl, "jvm.memory.used", "area:heap"));
+		}, 0, 500, TimeUnit.MILLISECONDS);
+
+		ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+		AtomicLong errors = new AtomicLong();
+		try {
+			load(get, SECONDS, latencies, errors);
+		} finally {
+			sampler.shutdownNow();
+			sampler.awaitTermination(5, TimeUnit.SECONDS);
+		}
+
+		long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+		LOGGER.info(String.format(
+				"%-8s %8d requests %6d errors %8.0f req/s  p50 %8.2f ms  p99 %8.2f ms  "
+						+ "connections held %4.0f  threads %4.0f  heap %6.0f MB",
+				stack, sorted.length, errors.get(), sorted.length / (double) SECONDS,
+				percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, connections.max, threads.max,
+				heap.max / (1024 * 1024)));
+	}
+
+	/**
+	 * Keeps {@link #CONCURRENCY} requests in flight for the given time.
+	 */
+	private void load(HttpRequest get, int seconds, ConcurrentLinkedQueue<Long> latencies, AtomicLong errors)
+			throws InterruptedException {
+		Semaphore inFlight = new Semaphore(CONCURRENCY);
+		long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+		while (System.nanoTime() < end) {
+			inFlight.acquire();
+			long start = System.nanoTime();
+			client.sendAsync(get, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+				if (failure == null && response.statusCode() == 200) {
+					latencies.add(System.nanoTime() - start);
+				} else {
+					errors.incrementAndGet();
+				}
+				inFlight.release();
+			});
+		}
+		inFlight.acquire(CONCURRENCY);
+	}
+
+	/**
+	 * Registers the catalog, a few books at a time so the servlet build's admin
+	 * bulkhead never rejects a registration.
+	 */
+	private void seed(String baseUrl) throws InterruptedException {
+		Semaphore inFlight = new Semaphore(SEED_CONCURRENCY);
+		AtomicLong failures = new AtomicLong();
+		for (int i = 0; i < BOOKS; i++) {
+			String book = String.format(
+					"{\"isbn\":\"978%010d\",\"title\":\"Benchmark Title %d\",\"author\":\"Benchmark Author %d\","
+							+ "\"status\":\"AVAILABLE\"}",
+					i, i, i % 50);
+			inFlight.acquire();
+			client.sendAsync(request(baseUrl + "/api/books/registerbook").header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(book)).build(), HttpResponse.BodyHandlers.discarding())
+					.whenComplete((response, failure) -> {
+						if (failure != null || response.statusCode() != 201) {
+							failures.incrementAndGet();
+						}
+						inFlight.release();
+					});
+		}
+		inFlight.acquire(SEED_CONCURRENCY);
+		if (failures.get() > 0) {
+			LOGGER.warn("{} of {} books could not be registered at {}", failures.get(), BOOKS, baseUrl);
+		}
+	}
+
+	private double metric(String baseUrl, String name, String tag) {
+		String uri = baseUrl + "/actuator/metrics/" + name + (tag == null ? "" : "?tag=" + tag);
+		try {
+			HttpResponse<byte[]> response = client.send(request(uri).GET().build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			if (response.statusCode() != 200) {
+				return Double.NaN;
+			}
+			JsonNode measurements = mapper.readTree(response.body()).path("measurements");
+			return measurements.isEmpty() ? Double.NaN : measurements.get(0).path("value").asDouble();
+		} catch (IOException e) {
+			return Double.NaN;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Double.NaN;
+		}
+	}
+
+	private boolean isUp(String baseUrl) {
+		try {
+			return client.send(request(baseUrl + "/actuator/health").GET().build(),
+					HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+		} catch (IOException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	private static HttpRequest.Builder request(String uri) {
+		return HttpRequest.newBuilder(URI.create(uri)).header("Authorization", AUTHORIZATION);
+	}
+
+	private static long percentile(long[] sorted, double percentile) {
+		return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, sorted.length * percentile)];
+	}
+
+	/**
+	 * Highest value seen by the metrics sampler.
+	 */
+	private static final class Peak {
+		private volatile double max = Double.NaN;
+
+		void update(double value) {
+			if (!Double.isNaN(value) && (Double.isNaN(max) || value > max)) {
+				max = value;
+			}
+		}
+	}
+}
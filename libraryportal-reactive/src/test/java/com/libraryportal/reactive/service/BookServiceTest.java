@@ -0,0 +1,139 @@
+package com.libraryportal.reactive.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.libraryportal.reactive.entity.Book;
+import com.libraryportal.reactive.entity.Borrower;
+import com.libraryportal.reactive.exception.BookNotFoundException;
+import com.libraryportal.reactive.exception.BorrowerNotFoundException;
+import com.libraryportal.reactive.exception.DuplicateRegistrationException;
+import com.libraryportal.reactive.repository.BookRepository;
+import com.libraryportal.reactive.repository.BorrowerRepository;
+import com.libraryportal.reactive.util.BookStatus;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class BookServiceTest {
+
+	@Mock
+	private BookRepository bookRepository;
+
+	@Mock
+	private BorrowerRepository borrowerRepository;
+
+	@InjectMocks
+	private BookServiceImpl bookService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	@Test
+	void testRegisterBook_Success() {
+		Book book = new Book();
+		book.setTitle("Test Book");
+		book.setIsbn("1234567890");
+		book.setAuthor("Test Author");
+		book.setStatus(BookStatus.AVAILABLE);
+
+		when(bookRepository.findByIsbnAndTitleAndAuthor(any(), any(), any())).thenReturn(Mono.empty());
+		when(bookRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(bookService.registerBook(book)).assertNext(registeredBook -> {
+			assertEquals("Test Book", registeredBook.getTitle());
+			assertEquals(1, registeredBook.getNoOfCopies());
+			assertEquals(BookStatus.AVAILABLE, registeredBook.getStatus());
+		}).verifyComplete();
+	}
+
+	@Test
+	void testRegisterBook_ExistingBook() {
+		Book book = new Book();
+		book.setTitle("Test Book");
+		book.setIsbn("1234567890");
+		book.setAuthor("Test Author");
+
+		Book existingBook = new Book();
+		existingBook.setNoOfCopies(2);
+
+		when(bookRepository.findByIsbnAndTitleAndAuthor(any(), any(), any())).thenReturn(Mono.just(existingBook));
+		when(bookRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(bookService.registerBook(book))
+				.assertNext(registeredBook -> assertEquals(3, registeredBook.getNoOfCopies())).verifyComplete();
+	}
+
+	@Test
+	void testRegisterBook_MissingIsbn() {
+		StepVerifier.create(bookService.registerBook(new Book())).verifyError(DuplicateRegistrationException.class);
+	}
+
+	@Test
+	void testGetAllBooks() {
+		when(bookRepository.findAll()).thenReturn(Flux.just(new Book(), new Book()));
+
+		StepVerifier.create(bookService.getAllBooks()).expectNextCount(2).verifyComplete();
+	}
+
+	@Test
+	void testBorrowBook_Success() {
+		Long borrowerId = 1L;
+		Long bookId = 1L;
+		Book book = new Book();
+		book.setStatus(BookStatus.AVAILABLE);
+
+		Borrower borrower = new Borrower();
+
+		when(bookRepository.findById(bookId)).thenReturn(Mono.just(book));
+		when(borrowerRepository.findById(borrowerId)).thenReturn(Mono.just(borrower));
+		when(bookRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(bookService.borrowBook(borrowerId, bookId))
+				.assertNext(details -> assertEquals(BookStatus.BORROWED.toString(), details.getStatus()))
+				.verifyComplete();
+	}
+
+	@Test
+	void testBorrowBook_AlreadyBorrowed() {
+		Book book = new Book();
+		book.setStatus(BookStatus.BORROWED);
+
+		when(bookRepository.findById(1L)).thenReturn(Mono.just(book));
+		when(borrowerRepository.findById(1L)).thenReturn(Mono.just(new Borrower()));
+
+		StepVerifier.create(bookService.borrowBook(1L, 1L)).verifyError(BorrowerNotFoundException.class);
+	}
+
+	@Test
+	void testReturnBook_Success() {
+		Long bookId = 1L;
+		Book book = new Book();
+		book.setStatus(BookStatus.BORROWED);
+
+		when(bookRepository.findById(bookId)).thenReturn(Mono.just(book));
+		when(bookRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(bookService.returnBook(bookId))
+				.assertNext(returnedBook -> assertEquals(BookStatus.AVAILABLE, returnedBook.getStatus()))
+				.verifyComplete();
+	}
+
+	@Test
+	void testReturnBook_NotFound() {
+		when(bookRepository.findById(1L)).thenReturn(Mono.empty());
+
+		StepVerifier.create(bookService.returnBook(1L)).verifyError(BookNotFoundException.class);
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.libraryportal.reactive.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.libraryportal.reactive.entity.Borrower;
+import com.libraryportal.reactive.exception.BorrowerNotFoundException;
+import com.libraryportal.reactive.exception.DuplicateRegistrationException;
+import com.libraryportal.reactive.repository.BorrowerRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class BorrowerServiceTest {
+
+	private static final String BORROWER_NAME = "John Doe";
+	private static final String BORROWER_MAIL_ID = "john.doe@example.com";
+
+	@Mock
+	private BorrowerRepository borrowerRepository;
+
+	@InjectMocks
+	private BorrowerServiceImpl borrowerService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	@Test
+	void testRegisterBorrower_Success() {
+		Borrower borrower = new Borrower();
+		borrower.setName(BORROWER_NAME);
+		borrower.setEmail(BORROWER_MAIL_ID);
+
+		when(borrowerRepository.findByEmail(any())).thenReturn(Mono.empty());
+		when(borrowerRepository.save(any())).thenReturn(Mono.just(borrower));
+
+		StepVerifier.create(borrowerService.registerBorrower(borrower)).assertNext(registeredBorrower -> {
+			assertEquals(BORROWER_NAME, registeredBorrower.getName());
+			assertEquals(BORROWER_MAIL_ID, registeredBorrower.getEmail());
+		}).verifyComplete();
+	}
+
+	@Test
+	void testRegisterBorrower_DuplicateEmail() {
+		Borrower borrower = new Borrower();
+		borrower.setName(BORROWER_NAME);
+		borrower.setEmail(BORROWER_MAIL_ID);
+
+		when(borrowerRepository.findByEmail(BORROWER_MAIL_ID)).thenReturn(Mono.just(borrower));
+
+		StepVerifier.create(borrowerService.registerBorrower(borrower))
+				.verifyError(DuplicateRegistrationException.class);
+		verify(borrowerRepository, never()).save(any());
+	}
+
+	@Test
+	void testGetAllBorrowers() {
+		when(borrowerRepository.findAll()).thenReturn(Flux.just(new Borrower(), new Borrower()));
+
+		StepVerifier.create(borrowerService.getAllBorrowers()).expectNextCount(2).verifyComplete();
+	}
+
+	@Test
+	void testGetBorrowerById_BorrowerNotFound() {
+		when(borrowerRepository.findById(1L)).thenReturn(Mono.empty());
+
+		StepVerifier.create(borrowerService.getBorrowerById(1L)).verifyError(BorrowerNotFoundException.class);
+	}
+
+	@Test
+	void testUpdateBorrower_Success() {
+		Borrower existingBorrower = new Borrower();
+		existingBorrower.setName("Old Name");
+		existingBorrower.setEmail("old@example.com");
+
+		Borrower newBorrower = new Borrower();
+		newBorrower.setName(BORROWER_NAME);
+		newBorrower.setEmail(BORROWER_MAIL_ID);
+
+		when(borrowerRepository.findById(1L)).thenReturn(Mono.just(existingBorrower));
+		when(borrowerRepository.save(any())).thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+		StepVerifier.create(borrowerService.updateBorrower(1L, newBorrower)).assertNext(updatedBorrower -> {
+			assertEquals(BORROWER_NAME, updatedBorrower.getName());
+			assertEquals(BORROWER_MAIL_ID, updatedBorrower.getEmail());
+		}).verifyComplete();
+	}
+
+	@Test
+	void testDeleteBorrower() {
+		when(borrowerRepository.deleteById(1L)).thenReturn(Mono.empty());
+
+		StepVerifier.create(borrowerService.deleteBorrower(1L)).verifyComplete();
+		verify(borrowerRepository).deleteById(1L);
+	}
+}
@@ -4,11 +4,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class LibraryportalApplication {
     private static final Logger logger = LoggerFactory.getLogger(LibraryportalApplication.class);
 
+    /** Number of startup steps kept for /actuator/startup. */
+    private static final int STARTUP_STEPS = 8192;
+
     /**
      * Entry point of the Library Portal Application.
      * 
@@ -16,7 +20,9 @@ public class LibraryportalApplication {
      */
     public static void main(String[] args) {
         logger.info("Starting Library Portal Application...");
-        SpringApplication.run(LibraryportalApplication.class, args);
+        SpringApplication application = new SpringApplication(LibraryportalApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
         logger.info("Library Portal Application started successfully.");
     }
 }
@@ -0,0 +1,199 @@
+package com.libraryportal.config;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Configuration class for the bulkhead executors.
+ * <p>
+ * Controllers hand each request to the executor of its workload, and a
+ * thread holds at most one connection at a time. The data source is wrapped in
+ * a {@link PartitionedDataSource} giving each bulkhead as many connections as
+ * it has threads, and the work outside the bulkheads, such as startup loaders,
+ * the catalog rebuild, snapshots and streamed responses, a share of its own.
+ * Sync runs on the catalog bulkhead and so draws from the catalog share. The
+ * connection pool is sized to the sum of the shares, so no workload can take
+ * the connections of another. A full bulkhead rejects further requests instead
+ * of waiting for a connection another workload needs.
+ */
+@Configuration
+public class BulkheadConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(BulkheadConfig.class);
+
+	private static final String CATALOG = "catalog";
+	private static final String CIRCULATION = "circulation";
+	private static final String ADMIN = "admin";
+
+	/**
+	 * Configures the executor for catalog reads.
+	 *
+	 * @param threads       the number of threads, and so of connections
+	 * @param queueCapacity the number of requests that may wait for a thread
+	 * @param meterRegistry the registry for the bulkhead metrics
+	 * @return the catalog executor
+	 */
+	@Bean
+	ThreadPoolTaskExecutor catalogExecutor(@Value("${libraryportal.bulkhead.catalog.threads:16}") int threads,
+			@Value("${libraryportal.bulkhead.catalog.queue-capacity:100}") int queueCapacity,
+			MeterRegistry meterRegistry) {
+		return bulkhead(CATALOG, threads, queueCapacity, meterRegistry);
+	}
+
+	/**
+	 * Configures the executor for borrowing and returning books.
+	 *
+	 * @param threads       the number of threads, and so of connections
+	 * @param queueCapacity the number of requests that may wait for a thread
+	 * @param meterRegistry the registry for the bulkhead metrics
+	 * @return the circulation executor
+	 */
+	@Bean
+	ThreadPoolTaskExecutor circulationExecutor(
+			@Value("${libraryportal.bulkhead.circulation.threads:8}") int threads,
+			@Value("${libraryportal.bulkhead.circulation.queue-capacity:50}") int queueCapacity,
+			MeterRegistry meterRegistry) {
+		return bulkhead(CIRCULATION, threads, queueCapacity, meterRegistry);
+	}
+
+	/**
+	 * Configures the executor for book registration and borrower management.
+	 *
+	 * @param threads       the number of threads, and so of connections
+	 * @param queueCapacity the number of requests that may wait for a thread
+	 * @param meterRegistry the registry for the bulkhead metrics
+	 * @return the admin executor
+	 */
+	@Bean
+	ThreadPoolTaskExecutor adminExecutor(@Value("${libraryportal.bulkhead.admin.threads:4}") int threads,
+			@Value("${libraryportal.bulkhead.admin.queue-capacity:20}") int queueCapacity,
+			MeterRegistry meterRegistry) {
+		return bulkhead(ADMIN, threads, queueCapacity, meterRegistry);
+	}
+
+	/**
+	 * Wraps the data source in a {@link PartitionedDataSource} with one share of
+	 * connections per bulkhead, as many as its threads, and one for the work
+	 * outside the bulkheads. Static, so that it is registered before the data
+	 * source is created.
+	 *
+	 * @param catalogThreads        the number of catalog threads
+	 * @param circulationThreads    the number of circulation threads
+	 * @param adminThreads          the number of admin threads
+	 * @param backgroundConnections the number of connections of the work outside
+	 *                              the bulkheads
+	 * @param timeoutMillis         how long to wait for a connection of a used up
+	 *                              share
+	 * @return the post-processor
+	 */
+	@Bean
+	static BeanPostProcessor connectionPartitions(
+			@Value("${libraryportal.bulkhead.catalog.threads:16}") int catalogThreads,
+			@Value("${libraryportal.bulkhead.circulation.threads:8}") int circulationThreads,
+			@Value("${libraryportal.bulkhead.admin.threads:4}") int adminThreads,
+			@Value("${libraryportal.bulkhead.background.connections:4}") int backgroundConnections,
+			@Value("${libraryportal.bulkhead.connection-timeout-ms:30000}") long timeoutMillis) {
+		Map<String, Integer> partitions = Map.of(CATALOG, catalogThreads, CIRCULATION, circulationThreads, ADMIN,
+				adminThreads, PartitionedDataSource.BACKGROUND, backgroundConnections);
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof PartitionedDataSource) {
+					return bean;
+				}
+				logger.info("Partitioning the connections of data source {} as {}...", beanName, partitions);
+				return new PartitionedDataSource(dataSource, partitions, timeoutMillis);
+			}
+		};
+	}
+
+	/**
+	 * Publishes the connections each share has left.
+	 *
+	 * @param dataSource the partitioned data source, possibly wrapped
+	 * @return the binder of the connection metrics
+	 */
+	@Bean
+	MeterBinder connectionPartitionMetrics(DataSource dataSource) {
+		return registry -> {
+			PartitionedDataSource partitioned;
+			try {
+				if (!dataSource.isWrapperFor(PartitionedDataSource.class)) {
+					return;
+				}
+				partitioned = dataSource.unwrap(PartitionedDataSource.class);
+			} catch (SQLException e) {
+				logger.warn("Connection shares not published: {}", e.getMessage());
+				return;
+			}
+			for (String partition : new String[] { CATALOG, CIRCULATION, ADMIN, PartitionedDataSource.BACKGROUND }) {
+				Gauge.builder("libraryportal.bulkhead.connections.available", partitioned,
+						p -> p.available(partition)).description("Connections left in the share of a bulkhead")
+						.tag("bulkhead", partition).register(registry);
+			}
+		};
+	}
+
+	/**
+	 * Groups the bulkhead executors for the controllers.
+	 *
+	 * @param catalogExecutor     the executor for catalog reads
+	 * @param circulationExecutor the executor for borrowing and returning books
+	 * @param adminExecutor       the executor for registration and borrower
+	 *                            management
+	 * @return the bulkheads
+	 */
+	@Bean
+	Bulkheads bulkheads(@Qualifier("catalogExecutor") ThreadPoolTaskExecutor catalogExecutor,
+			@Qualifier("circulationExecutor") ThreadPoolTaskExecutor circulationExecutor,
+			@Qualifier("adminExecutor") ThreadPoolTaskExecutor adminExecutor) {
+		return new Bulkheads(catalogExecutor, circulationExecutor, adminExecutor);
+	}
+
+	private static ThreadPoolTaskExecutor bulkhead(String name, int threads, int queueCapacity,
+			MeterRegistry meterRegistry) {
+		logger.info("Configuring {} bulkhead with {} threads and a queue of {}...", name, threads, queueCapacity);
+		Counter rejections = Counter.builder("libraryportal.bulkhead.rejected")
+				.description("Requests rejected because the bulkhead was full").tag("bulkhead", name)
+				.register(meterRegistry);
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(name + "-");
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setQueueCapacity(queueCapacity);
+		// Carries the current observation over, so spans on the bulkhead nest
+		// under the span of the request, and draws connections from the
+		// bulkhead's share
+		ContextPropagatingTaskDecorator contextPropagation = new ContextPropagatingTaskDecorator();
+		executor.setTaskDecorator(task -> PartitionedDataSource.runIn(name, contextPropagation.decorate(task)));
+		executor.setRejectedExecutionHandler((task, pool) -> {
+			rejections.increment();
+			throw new RejectedExecutionException("The " + name + " bulkhead is full.");
+		});
+
+		Gauge.builder("libraryportal.bulkhead.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+				.description("Requests waiting for a bulkhead thread").tag("bulkhead", name).register(meterRegistry);
+		Gauge.builder("libraryportal.bulkhead.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+				.description("Bulkhead threads busy with a request").tag("bulkhead", name).register(meterRegistry);
+		return executor;
+	}
+}
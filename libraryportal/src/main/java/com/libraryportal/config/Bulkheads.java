@@ -0,0 +1,56 @@
+package com.libraryportal.config;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The executors that isolate the application's workloads from each other.
+ * Each workload has its own bounded thread pool and queue, so a flood of
+ * requests of one kind exhausts only its own bulkhead.
+ */
+public class Bulkheads {
+
+	private final Executor catalog;
+	private final Executor circulation;
+	private final Executor admin;
+
+	/**
+	 * Constructs a new Bulkheads object with the specified executors.
+	 *
+	 * @param catalog     The executor for catalog reads.
+	 * @param circulation The executor for borrowing and returning books.
+	 * @param admin       The executor for book registration and borrower
+	 *                    management.
+	 */
+	public Bulkheads(Executor catalog, Executor circulation, Executor admin) {
+		this.catalog = catalog;
+		this.circulation = circulation;
+		this.admin = admin;
+	}
+
+	/**
+	 * Retrieves the executor for catalog reads.
+	 *
+	 * @return The catalog executor.
+	 */
+	public Executor catalog() {
+		return catalog;
+	}
+
+	/**
+	 * Retrieves the executor for borrowing and returning books.
+	 *
+	 * @return The circulation executor.
+	 */
+	public Executor circulation() {
+		return circulation;
+	}
+
+	/**
+	 * Retrieves the executor for book registration and borrower management.
+	 *
+	 * @return The admin executor.
+	 */
+	public Executor admin() {
+		return admin;
+	}
+}
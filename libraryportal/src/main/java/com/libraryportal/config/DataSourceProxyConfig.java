@@ -0,0 +1,88 @@
+package com.libraryportal.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.libraryportal.repository.SlowQueryLog;
+import com.libraryportal.repository.StatementCounter;
+import com.libraryportal.tracing.JdbcTracingListener;
+
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Configuration class for the data source proxy.
+ * <p>
+ * The data source is wrapped in a proxy that counts every SQL statement by
+ * type, logs the slow ones and traces them, whichever of JPA, Spring Data or the
+ * {@code JdbcTemplate} issues them. Tests use the counts to hold service
+ * methods and endpoints to a statement budget.
+ */
+@Configuration
+@ConditionalOnProperty(name = "libraryportal.sql.proxy.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(DataSourceProxyConfig.class);
+
+	/**
+	 * Configures the counter of executed SQL statements.
+	 *
+	 * @return the statement counter
+	 */
+	@Bean
+	static StatementCounter statementCounter() {
+		return new StatementCounter();
+	}
+
+	/**
+	 * Configures the log of slow SQL statements.
+	 *
+	 * @param warnMillis  the execution time above which a statement is logged as
+	 *                    a warning
+	 * @param errorMillis the execution time above which a statement is logged as
+	 *                    an error
+	 * @return the slow query log
+	 */
+	@Bean
+	static SlowQueryLog slowQueryLog(@Value("${libraryportal.sql.slow-query.warn-ms:200}") long warnMillis,
+			@Value("${libraryportal.sql.slow-query.error-ms:1000}") long errorMillis) {
+		logger.info("Logging SQL slower than {} ms as a warning and {} ms as an error...", warnMillis, errorMillis);
+		return new SlowQueryLog(warnMillis, errorMillis);
+	}
+
+	/**
+	 * Wraps every data source in a proxy reporting to the statement counter, the
+	 * slow query log and the tracing listener. Static, so that it is registered
+	 * before the data source is created.
+	 *
+	 * @param statementCounter    the statement counter
+	 * @param slowQueryLog        the slow query log
+	 * @param observationRegistry the registry the statements are observed in
+	 * @return the post-processor
+	 */
+	@Bean
+	static BeanPostProcessor dataSourceProxy(ObjectProvider<StatementCounter> statementCounter,
+			ObjectProvider<SlowQueryLog> slowQueryLog, ObjectProvider<ObservationRegistry> observationRegistry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+					return bean;
+				}
+				logger.info("Proxying data source {} to count and time SQL statements...", beanName);
+				return ProxyDataSourceBuilder.create(dataSource).name(beanName)
+						.listener(statementCounter.getObject()).listener(slowQueryLog.getObject())
+						.listener(new JdbcTracingListener(observationRegistry)).build();
+			}
+		};
+	}
+}
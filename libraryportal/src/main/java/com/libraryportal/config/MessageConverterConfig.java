@@ -0,0 +1,49 @@
+package com.libraryportal.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Configuration class for the binary response formats. Clients that send
+ * {@code Accept: application/cbor} or {@code Accept: application/x-jackson-smile}
+ * receive the same documents as JSON clients in a more compact encoding.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(MessageConverterConfig.class);
+
+	/**
+	 * Configures the CBOR message converter with the application's Jackson
+	 * settings.
+	 *
+	 * @param builder the Jackson builder configured by Spring Boot
+	 * @return the CBOR message converter
+	 */
+	@Bean
+	MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		logger.info("Configuring CBOR message converter...");
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	/**
+	 * Configures the Smile message converter with the application's Jackson
+	 * settings.
+	 *
+	 * @param builder the Jackson builder configured by Spring Boot
+	 * @return the Smile message converter
+	 */
+	@Bean
+	MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		logger.info("Configuring Smile message converter...");
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
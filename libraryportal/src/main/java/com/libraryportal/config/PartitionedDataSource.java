@@ -0,0 +1,178 @@
+package com.libraryportal.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * A data source handing out the connections of one pool in fixed shares, one
+ * per bulkhead and one for the work that runs outside the bulkheads, such as
+ * startup loaders, scheduled rebuilds, snapshots and streams.
+ * <p>
+ * Each share is a semaphore taken when a connection is obtained and released
+ * when it is closed. The share of the current thread is set by
+ * {@link #runIn(String, Runnable)}, which the bulkhead executors wrap around
+ * their tasks; every other thread draws from {@link #BACKGROUND}. A share that
+ * is used up makes its callers wait for one of its own connections, never for
+ * another share's, and fail once the timeout elapses.
+ */
+public class PartitionedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+	/** The share of the threads outside the bulkheads. */
+	public static final String BACKGROUND = "background";
+
+	private static final ThreadLocal<String> PARTITION = new ThreadLocal<>();
+
+	private final Map<String, Semaphore> partitions;
+	private final long timeoutMillis;
+
+	/**
+	 * Constructs a new PartitionedDataSource.
+	 *
+	 * @param target        The data source of the pool.
+	 * @param partitions    The number of connections of each share, including
+	 *                      {@link #BACKGROUND}.
+	 * @param timeoutMillis How long to wait for a connection of a used up share.
+	 */
+	public PartitionedDataSource(DataSource target, Map<String, Integer> partitions, long timeoutMillis) {
+		super(target);
+		if (!partitions.containsKey(BACKGROUND)) {
+			throw new IllegalArgumentException("No share for the " + BACKGROUND + " work.");
+		}
+		Map<String, Semaphore> semaphores = new HashMap<>();
+		partitions.forEach((partition, connections) -> semaphores.put(partition, new Semaphore(connections)));
+		this.partitions = Map.copyOf(semaphores);
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Wrap a task so that the connections it obtains come from a share.
+	 *
+	 * @param partition The share.
+	 * @param task      The task.
+	 * @return The wrapped task.
+	 */
+	public static Runnable runIn(String partition, Runnable task) {
+		return () -> {
+			String previous = PARTITION.get();
+			PARTITION.set(partition);
+			try {
+				task.run();
+			} finally {
+				if (previous == null) {
+					PARTITION.remove();
+				} else {
+					PARTITION.set(previous);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Get the number of connections a share has left.
+	 *
+	 * @param partition The share.
+	 * @return The number of connections not in use, or 0 for an unknown share.
+	 */
+	public int available(String partition) {
+		Semaphore permits = partitions.get(partition);
+		return permits == null ? 0 : permits.availablePermits();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		Semaphore permits = acquire();
+		try {
+			return release(super.getConnection(), permits);
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		Semaphore permits = acquire();
+		try {
+			return release(super.getConnection(username, password), permits);
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Close the pool, so that it is still shut down with the application once
+	 * wrapped.
+	 *
+	 * @throws Exception If the pool cannot be closed.
+	 */
+	@Override
+	public void close() throws Exception {
+		if (getTargetDataSource() instanceof AutoCloseable pool) {
+			pool.close();
+		}
+	}
+
+	private Semaphore acquire() throws SQLException {
+		String partition = PARTITION.get();
+		Semaphore permits = partition == null ? null : partitions.get(partition);
+		if (permits == null) {
+			partition = BACKGROUND;
+			permits = partitions.get(BACKGROUND);
+		}
+		try {
+			if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException(
+						"No connection of the " + partition + " share free within " + timeoutMillis + " ms.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a connection.", e);
+		}
+		return permits;
+	}
+
+	/**
+	 * Wrap a connection so that closing it, once, gives its permit back. The
+	 * wrapper is only equal to itself, like the pool's own connection proxies.
+	 */
+	private static Connection release(Connection connection, Semaphore permits) {
+		AtomicBoolean closed = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(PartitionedDataSource.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+						try {
+							connection.close();
+						} finally {
+							if (closed.compareAndSet(false, true)) {
+								permits.release();
+							}
+						}
+						return null;
+					}
+					if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+						return proxy == args[0];
+					}
+					if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+						return System.identityHashCode(proxy);
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+}
@@ -4,6 +4,7 @@ import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.Customizer;
@@ -17,10 +18,13 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.libraryportal.filter.RateLimitingFilter;
+
 /**
  * Configuration class for defining security-related beans and configurations.
  */
@@ -34,22 +38,39 @@ public class SecurityConfig {
      * Configures the security filter chain for the application.
      *
      * @param httpSecurity the HttpSecurity object to configure
+     * @param rateLimitingFilter the filter limiting the request rate per client
      * @return the configured SecurityFilterChain
      * @throws Exception if an error occurs while configuring security
      */
 	@Bean
-	public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+	public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, RateLimitingFilter rateLimitingFilter)
+			throws Exception {
 		logger.info("Configuring security filter chain...");
 		httpSecurity.csrf(AbstractHttpConfigurer::disable).cors(c -> c.configurationSource(corsConfigurationSource()))
 				.authorizeHttpRequests(auth -> auth.requestMatchers("/api/books", "api/borrowers").permitAll()
 						.requestMatchers("/swagger-ui/**").permitAll().anyRequest().authenticated())
 				.sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
 				.httpBasic(Customizer.withDefaults())
-				.formLogin(form -> form.defaultSuccessUrl("/swagger-ui/index.html").permitAll());
+				.formLogin(form -> form.defaultSuccessUrl("/swagger-ui/index.html").permitAll())
+				.addFilterAfter(rateLimitingFilter, BasicAuthenticationFilter.class);
 
 		return httpSecurity.build();
 	}
 
+	/**
+     * Keeps the rate limiting filter out of the servlet container's filter chain,
+     * since it already runs inside the security filter chain.
+     *
+     * @param rateLimitingFilter the filter limiting the request rate per client
+     * @return the disabled registration of the filter
+     */
+	@Bean
+	FilterRegistrationBean<RateLimitingFilter> rateLimitingFilterRegistration(RateLimitingFilter rateLimitingFilter) {
+		FilterRegistrationBean<RateLimitingFilter> registration = new FilterRegistrationBean<>(rateLimitingFilter);
+		registration.setEnabled(false);
+		return registration;
+	}
+
 	/**
      * Configures CORS (Cross-Origin Resource Sharing) for the application.
      *
@@ -0,0 +1,101 @@
+package com.libraryportal.config;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.security.web.SecurityFilterChain;
+
+import com.libraryportal.controller.BookController;
+import com.libraryportal.controller.BorrowerController;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuration class for startup timing and lazy initialisation.
+ * <p>
+ * The application records its startup steps in a
+ * {@link BufferingApplicationStartup}. They are served in full by
+ * {@code /actuator/startup}, and a summary is logged once the application is
+ * ready.
+ */
+@Configuration
+public class StartupConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+	private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+	private static final int SLOWEST_BEANS = 10;
+
+	/**
+	 * Startup phases reported by name, mapped to the bean whose creation they
+	 * consist of.
+	 */
+	private static final Map<String, String> PHASES = new LinkedHashMap<>();
+
+	static {
+		PHASES.put("JPA bootstrap", "entityManagerFactory");
+		PHASES.put("Security filter chain", "springSecurityFilterChain");
+		PHASES.put("OpenAPI", "openApiResource");
+	}
+
+	/**
+	 * Keeps the request path eager when lazy initialisation is switched on, so
+	 * the database, the schema, the security chain and the API controllers are
+	 * still ready before the first request, and a broken configuration still
+	 * fails the startup. Everything else, such as springdoc and the actuator
+	 * endpoints, is created on first use.
+	 *
+	 * @return the filter excluding the request path from lazy initialisation
+	 */
+	@Bean
+	static LazyInitializationExcludeFilter requestPathExcludeFilter() {
+		return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class,
+				SecurityFilterChain.class, BookController.class, BorrowerController.class);
+	}
+
+	/**
+	 * Logs how long the named startup phases and the slowest beans took. A
+	 * bean's time includes creating the beans it depends on.
+	 *
+	 * @param event the event published once the application is ready
+	 */
+	@EventListener
+	void logStartupReport(ApplicationReadyEvent event) {
+		if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+			return;
+		}
+		List<TimelineEvent> beans = startup.getBufferedTimeline().getEvents().stream()
+				.filter(e -> BEAN_INSTANTIATION.equals(e.getStartupStep().getName())).toList();
+
+		logger.info("Started in {} ms", event.getTimeTaken().toMillis());
+		PHASES.forEach((phase, beanName) -> logger.info("  {}: {}", phase,
+				beans.stream().filter(e -> beanName.equals(beanName(e))).findFirst()
+						.map(e -> e.getDuration().toMillis() + " ms").orElse("deferred")));
+		logger.info("Slowest beans, including their dependencies:");
+		beans.stream().sorted(Comparator.comparing(TimelineEvent::getDuration).reversed()).limit(SLOWEST_BEANS)
+				.forEach(e -> logger.info("  {} ms  {}", e.getDuration().toMillis(), beanName(e)));
+	}
+
+	private static String beanName(TimelineEvent event) {
+		for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+			if ("beanName".equals(tag.getKey())) {
+				return tag.getValue();
+			}
+		}
+		return null;
+	}
+}
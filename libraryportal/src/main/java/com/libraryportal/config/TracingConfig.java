@@ -0,0 +1,48 @@
+package com.libraryportal.config;
+
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.libraryportal.tracing.RotatingFileSpanHandler;
+
+/**
+ * Configuration class for exporting trace spans.
+ * <p>
+ * Each HTTP request is traced, and within it the security filters, the
+ * controller, service and repository calls and the SQL statements become
+ * nested spans. Only the share of requests set by
+ * {@code management.tracing.sampling.probability} is recorded, and their
+ * spans are written to rotating local files.
+ */
+@Configuration
+@ConditionalOnProperty(name = "libraryportal.tracing.file.enabled", havingValue = "true", matchIfMissing = true)
+public class TracingConfig {
+
+	private static final Logger logger = LoggerFactory.getLogger(TracingConfig.class);
+
+	/**
+	 * Configures the span handler writing sampled spans to rotating files. Brave
+	 * reports every finished span to it.
+	 *
+	 * @param directory     the directory of the span files
+	 * @param maxFileMb     the size in megabytes at which a file is rotated
+	 * @param maxFiles      the number of files kept
+	 * @param queueCapacity the number of spans that may wait to be written
+	 * @return the span handler
+	 */
+	@Bean
+	RotatingFileSpanHandler rotatingFileSpanHandler(
+			@Value("${libraryportal.tracing.file.directory:${java.io.tmpdir}/libraryportal-traces}") String directory,
+			@Value("${libraryportal.tracing.file.max-file-mb:10}") long maxFileMb,
+			@Value("${libraryportal.tracing.file.max-files:5}") int maxFiles,
+			@Value("${libraryportal.tracing.file.queue-capacity:10000}") int queueCapacity) {
+		logger.info("Writing sampled spans to {}, {} files of up to {} MB...", directory, maxFiles, maxFileMb);
+		return new RotatingFileSpanHandler(Paths.get(directory), maxFileMb * 1024 * 1024, maxFiles, queueCapacity);
+	}
+}
@@ -0,0 +1,53 @@
+package com.libraryportal.controller;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.libraryportal.event.AvailabilityBroadcaster;
+
+@RestController
+@RequestMapping("/api/books")
+public class BookAvailabilityController {
+	private static final Logger logger = LoggerFactory.getLogger(BookAvailabilityController.class);
+
+	private final AvailabilityBroadcaster availabilityBroadcaster;
+
+	/**
+	 * Constructor for BookAvailabilityController.
+	 * 
+	 * @param availabilityBroadcaster Broadcaster of book availability changes.
+	 */
+	public BookAvailabilityController(AvailabilityBroadcaster availabilityBroadcaster) {
+		this.availabilityBroadcaster = availabilityBroadcaster;
+	}
+
+	/**
+	 * Endpoint streaming book availability changes as Server-Sent Events. Each
+	 * {@code availability} event carries the id, number of copies and status of a
+	 * book that was registered, borrowed or returned. Clients load the current
+	 * availability with {@code getBookSummaries} and apply the events on top.
+	 * 
+	 * @return ResponseEntity containing the event stream, or a SERVICE_UNAVAILABLE
+	 *         status if the maximum number of streams is open.
+	 */
+	@GetMapping(value = "/availability", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> streamAvailability() {
+		try {
+			return ResponseEntity.ok(availabilityBroadcaster.subscribe());
+		} catch (RejectedExecutionException e) {
+			logger.warn("Rejecting availability stream: {}", e.getMessage());
+			return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+		}
+	}
+
+}
@@ -1,9 +1,12 @@
 package com.libraryportal.controller;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,14 +15,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.libraryportal.config.Bulkheads;
 import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookSummary;
 import com.libraryportal.entity.BorrowedBookDetails;
 import com.libraryportal.exception.BookNotFoundException;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.exception.WritesSuspendedException;
 import com.libraryportal.service.BookService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -30,9 +37,19 @@ public class BookController {
 	private static final Logger logger = LoggerFactory.getLogger(BookController.class);
 
 	private final BookService bookService;
+	private final Bulkheads bulkheads;
 
-	public BookController(BookService bookService) {
+	/**
+	 * Constructor for BookController. Catalog reads run on the catalog bulkhead,
+	 * borrowing and returning on the circulation bulkhead and registration on the
+	 * admin bulkhead.
+	 * 
+	 * @param bookService Service for managing books.
+	 * @param bulkheads   Executors isolating the workloads.
+	 */
+	public BookController(BookService bookService, Bulkheads bulkheads) {
 		this.bookService = bookService;
+		this.bulkheads = bulkheads;
 	}
 
 	/**
@@ -44,17 +61,23 @@ public class BookController {
 	 *         occurs.
 	 */
 	@PostMapping("/registerbook")
-	public ResponseEntity<?> registerBook(@RequestBody Book book) {
-		try {
-			Book registeredBook = bookService.registerBook(book);
-			return ResponseEntity.status(HttpStatus.CREATED).body(registeredBook);
-		} catch (DuplicateRegistrationException e) {
-			ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage());
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-		} catch (Exception e) {
-			logger.error("Error registering book", e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-		}
+	public CompletableFuture<ResponseEntity<?>> registerBook(@RequestBody Book book) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Book registeredBook = bookService.registerBook(book);
+				return ResponseEntity.status(HttpStatus.CREATED).body(registeredBook);
+			} catch (DuplicateRegistrationException e) {
+				ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage());
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+			} catch (WritesSuspendedException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+						.body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error registering book", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
 	}
 
 	/**
@@ -64,14 +87,61 @@ public class BookController {
 	 *         error response if an exception occurs.
 	 */
 	@GetMapping("/getBooks")
-	public ResponseEntity<List<Book>> getAllBooks() {
-		try {
-			List<Book> books = bookService.getAllBooks();
-			return ResponseEntity.ok(books);
-		} catch (Exception e) {
-			logger.error("Error fetching all books", e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-		}
+	public CompletableFuture<ResponseEntity<List<Book>>> getAllBooks() {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<Book> books = bookService.getAllBooks();
+				return ResponseEntity.ok(books);
+			} catch (Exception e) {
+				logger.error("Error fetching all books", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
+	}
+
+	/**
+	 * Endpoint to get all books with only the requested fields, e.g.
+	 * {@code getBooks?fields=id,title,status}. Only the requested columns are
+	 * selected and serialized.
+	 * 
+	 * @param fields The names of the book fields to return.
+	 * @return ResponseEntity containing one object per book with the requested
+	 *         fields if successful, or an error response if an unknown field is
+	 *         requested or an exception occurs.
+	 */
+	@GetMapping(value = "/getBooks", params = "fields")
+	public CompletableFuture<ResponseEntity<?>> getAllBooks(@RequestParam List<String> fields) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<Map<String, Object>> books = bookService.getAllBooks(fields);
+				return ResponseEntity.ok(books);
+			} catch (IllegalArgumentException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error fetching fields {} of all books", fields, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
+	}
+
+	/**
+	 * Endpoint to get the id, title and availability of all books.
+	 * 
+	 * @return ResponseEntity containing the summaries of all books if successful,
+	 *         or an error response if an exception occurs.
+	 */
+	@GetMapping("/getBookSummaries")
+	public CompletableFuture<ResponseEntity<List<BookSummary>>> getBookSummaries() {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<BookSummary> books = bookService.getBookSummaries();
+				return ResponseEntity.ok(books);
+			} catch (Exception e) {
+				logger.error("Error fetching book summaries", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
 	}
 
 	/**
@@ -83,40 +153,56 @@ public class BookController {
 	 *         if the borrower or book is not found or an exception occurs.
 	 */
 	@PutMapping("/{bookId}/{borrowerId}/borrow")
-	public ResponseEntity<?> borrowBook(@PathVariable Long bookId, @PathVariable Long borrowerId) {
-		try {
-			BorrowedBookDetails response = bookService.borrowBook(borrowerId, bookId);
-			return ResponseEntity.ok(response);
-		} catch (BorrowerNotFoundException | EntityNotFoundException e) {
-			ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
-			return ResponseEntity.badRequest().body(errorResponse);
-		} catch (Exception e) {
-			logger.error("Error borrowing book with ID: {}", bookId, e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body("An error occurred while processing the request.");
-		}
+	public CompletableFuture<ResponseEntity<?>> borrowBook(@PathVariable Long bookId, @PathVariable Long borrowerId) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				BorrowedBookDetails response = bookService.borrowBook(borrowerId, bookId);
+				return ResponseEntity.ok(response);
+			} catch (BorrowerNotFoundException | EntityNotFoundException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (WritesSuspendedException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+						.body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error borrowing book with ID: {}", bookId, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+						.body("An error occurred while processing the request.");
+			}
+		}, bulkheads.circulation());
 	}
 
 	/**
-	 * Endpoint to return a book.
+	 * Endpoint to return a book, or one copy of it given by the copy number
+	 * returned when it was borrowed.
 	 * 
-	 * @param bookId The ID of the book to return.
+	 * @param bookId     The ID of the book to return.
+	 * @param copyNumber The number of the copy, or null for any copy on loan.
 	 * @return ResponseEntity indicating success if successful, or an error response
-	 *         if the book is not found or an exception occurs.
+	 *         if the book or copy is not found or an exception occurs.
 	 */
 	@PutMapping("/{bookId}/return")
-	public ResponseEntity<?> returnBook(@PathVariable Long bookId) {
-		try {
-			Book returnedBook = bookService.returnBook(bookId);
-			return ResponseEntity.status(HttpStatus.OK).body(returnedBook);
-		} catch (BookNotFoundException | EntityNotFoundException e) {
-			ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
-			return ResponseEntity.badRequest().body(errorResponse);
-		} catch (Exception e) {
-			logger.error("Error returning book with ID: {}", bookId, e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-					.body("An error occurred while processing the request.");
-		}
+	public CompletableFuture<ResponseEntity<?>> returnBook(@PathVariable Long bookId,
+			@RequestParam(name = "copy", required = false) Integer copyNumber) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Book returnedBook = copyNumber == null ? bookService.returnBook(bookId)
+						: bookService.returnBook(bookId, copyNumber);
+				return ResponseEntity.status(HttpStatus.OK).body(returnedBook);
+			} catch (BookNotFoundException | EntityNotFoundException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (WritesSuspendedException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+						.body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error returning book with ID: {}", bookId, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+						.body("An error occurred while processing the request.");
+			}
+		}, bulkheads.circulation());
 	}
 
 }
@@ -1,25 +1,33 @@
 package com.libraryportal.controller;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.libraryportal.config.Bulkheads;
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.BorrowerSummary;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.exception.WritesSuspendedException;
 import com.libraryportal.service.BorrowerService;
 
 import jakarta.validation.Valid;
@@ -31,10 +39,19 @@ public class BorrowerController {
 	private static final Logger logger = LoggerFactory.getLogger(BorrowerController.class);
 
 	private final BorrowerService borrowerService;
+	private final Bulkheads bulkheads;
 
+	/**
+	 * Constructor for BorrowerController. All borrower management runs on the
+	 * admin bulkhead.
+	 * 
+	 * @param borrowerService Service for managing borrowers.
+	 * @param bulkheads       Executors isolating the workloads.
+	 */
 	@Autowired
-	public BorrowerController(BorrowerService borrowerService) {
+	public BorrowerController(BorrowerService borrowerService, Bulkheads bulkheads) {
 		this.borrowerService = borrowerService;
+		this.bulkheads = bulkheads;
 	}
 
 	/**
@@ -45,17 +62,23 @@ public class BorrowerController {
 	 *         an error response if a duplicate registration occurs.
 	 */
 	@PostMapping("/registerBorrower")
-	public ResponseEntity<?> registerBorrower(@RequestBody Borrower borrower) {
-		try {
-			Borrower registeredBorrower = borrowerService.registerBorrower(borrower);
-			return ResponseEntity.status(HttpStatus.CREATED).body(registeredBorrower);
-		} catch (DuplicateRegistrationException e) {
-			ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + borrower.getEmail());
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-		} catch (Exception e) {
-			logger.error("Error registering borrower", e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-		}
+	public CompletableFuture<ResponseEntity<?>> registerBorrower(@RequestBody Borrower borrower) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Borrower registeredBorrower = borrowerService.registerBorrower(borrower);
+				return ResponseEntity.status(HttpStatus.CREATED).body(registeredBorrower);
+			} catch (DuplicateRegistrationException e) {
+				ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + borrower.getEmail());
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+			} catch (WritesSuspendedException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+						.body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error registering borrower", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
 	}
 
 	/**
@@ -65,14 +88,61 @@ public class BorrowerController {
 	 *         an error response if an exception occurs.
 	 */
 	@GetMapping("/getBorrowers")
-	public ResponseEntity<List<Borrower>> getAllBorrowers() {
-		try {
-			List<Borrower> borrowers = borrowerService.getAllBorrowers();
-			return ResponseEntity.ok(borrowers);
-		} catch (Exception e) {
-			logger.error("Error fetching all borrowers", e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-		}
+	public CompletableFuture<ResponseEntity<List<Borrower>>> getAllBorrowers() {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<Borrower> borrowers = borrowerService.getAllBorrowers();
+				return ResponseEntity.ok(borrowers);
+			} catch (Exception e) {
+				logger.error("Error fetching all borrowers", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
+	}
+
+	/**
+	 * Endpoint to get all borrowers with only the requested fields, e.g.
+	 * {@code getBorrowers?fields=id,name}. Only the requested columns are
+	 * selected and serialized.
+	 * 
+	 * @param fields The names of the borrower fields to return.
+	 * @return ResponseEntity containing one object per borrower with the
+	 *         requested fields if successful, or an error response if an unknown
+	 *         field is requested or an exception occurs.
+	 */
+	@GetMapping(value = "/getBorrowers", params = "fields")
+	public CompletableFuture<ResponseEntity<?>> getAllBorrowers(@RequestParam List<String> fields) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<Map<String, Object>> borrowers = borrowerService.getAllBorrowers(fields);
+				return ResponseEntity.ok(borrowers);
+			} catch (IllegalArgumentException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error fetching fields {} of all borrowers", fields, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
+	}
+
+	/**
+	 * Endpoint to get the id and name of all borrowers.
+	 * 
+	 * @return ResponseEntity containing the summaries of all borrowers if
+	 *         successful, or an error response if an exception occurs.
+	 */
+	@GetMapping("/getBorrowerSummaries")
+	public CompletableFuture<ResponseEntity<List<BorrowerSummary>>> getBorrowerSummaries() {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<BorrowerSummary> borrowers = borrowerService.getBorrowerSummaries();
+				return ResponseEntity.ok(borrowers);
+			} catch (Exception e) {
+				logger.error("Error fetching borrower summaries", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
 	}
 
 	/**
@@ -83,17 +153,19 @@ public class BorrowerController {
 	 *         if the borrower is not found or an exception occurs.
 	 */
 	@GetMapping("/getBorrowerById/{id}")
-	public ResponseEntity<?> getBorrowerById(@PathVariable Long id) {
-		try {
-			Borrower borrower = borrowerService.getBorrowerById(id);
-			return ResponseEntity.ok(borrower);
-		} catch (BorrowerNotFoundException e) {
-			ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage());
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-		} catch (Exception e) {
-			logger.error("Error fetching borrower by ID: {}", id, e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal server error");
-		}
+	public CompletableFuture<ResponseEntity<?>> getBorrowerById(@PathVariable Long id) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Borrower borrower = borrowerService.getBorrowerById(id);
+				return ResponseEntity.ok(borrower);
+			} catch (BorrowerNotFoundException e) {
+				ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage());
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error fetching borrower by ID: {}", id, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Internal server error");
+			}
+		}, bulkheads.admin());
 	}
 
 	/**
@@ -105,17 +177,60 @@ public class BorrowerController {
 	 *         error response if the borrower is not found or an exception occurs.
 	 */
 	@PutMapping("/updateBorrowerById/{id}")
-	public ResponseEntity<?> updateBorrower(@PathVariable Long id, @Valid @RequestBody Borrower newBorrower) {
-		try {
-			Borrower updatedBorrower = borrowerService.updateBorrower(id, newBorrower);
-			return ResponseEntity.ok(updatedBorrower);
-		} catch (BorrowerNotFoundException e) {
-			ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + id);
-			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-		} catch (Exception e) {
-			logger.error("Error updating borrower with ID: {}", id, e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-		}
+	public CompletableFuture<ResponseEntity<?>> updateBorrower(@PathVariable Long id,
+			@Valid @RequestBody Borrower newBorrower) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Borrower updatedBorrower = borrowerService.updateBorrower(id, newBorrower);
+				return ResponseEntity.ok(updatedBorrower);
+			} catch (BorrowerNotFoundException e) {
+				ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + id);
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+			} catch (WritesSuspendedException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+						.body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error updating borrower with ID: {}", id, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
+	}
+
+	/**
+	 * Endpoint to update only the supplied fields of a borrower, e.g. a body of
+	 * {@code {"email":"new@example.com"}} changes the email and keeps the name.
+	 * 
+	 * @param id      The ID of the borrower to update.
+	 * @param changes The fields to update; absent fields are left unchanged.
+	 * @return ResponseEntity containing the updated borrower if successful, or an
+	 *         error response if no field is supplied, the email belongs to another
+	 *         borrower, the borrower is not found or an exception occurs.
+	 */
+	@PatchMapping("/updateBorrowerById/{id}")
+	public CompletableFuture<ResponseEntity<?>> patchBorrower(@PathVariable Long id, @RequestBody Borrower changes) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Borrower updatedBorrower = borrowerService.patchBorrower(id, changes);
+				return ResponseEntity.ok(updatedBorrower);
+			} catch (IllegalArgumentException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (DuplicateRegistrationException e) {
+				ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + changes.getEmail());
+				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+			} catch (BorrowerNotFoundException e) {
+				ErrorResponse errorResponse = new ErrorResponse(400, e.getMessage() + " : " + id);
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+			} catch (WritesSuspendedException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+						.body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error patching borrower with ID: {}", id, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
 	}
 
 	/**
@@ -126,13 +241,17 @@ public class BorrowerController {
 	 *         if an exception occurs.
 	 */
 	@DeleteMapping("/deleteBorrowerById/{id}")
-	public ResponseEntity<Void> deleteBorrower(@PathVariable Long id) {
-		try {
-			borrowerService.deleteBorrower(id);
-			return ResponseEntity.noContent().build();
-		} catch (Exception e) {
-			logger.error("Error deleting borrower with ID: {}", id, e);
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-		}
+	public CompletableFuture<ResponseEntity<Void>> deleteBorrower(@PathVariable Long id) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				borrowerService.deleteBorrower(id);
+				return ResponseEntity.noContent().build();
+			} catch (WritesSuspendedException e) {
+				return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+			} catch (Exception e) {
+				logger.error("Error deleting borrower with ID: {}", id, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.admin());
 	}
 }
@@ -0,0 +1,90 @@
+package com.libraryportal.controller;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.libraryportal.config.Bulkheads;
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BranchSummary;
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.service.BranchInventoryService;
+
+@RestController
+@RequestMapping("/api/branches")
+public class BranchController {
+	private static final Logger logger = LoggerFactory.getLogger(BranchController.class);
+
+	private static final int MAX_LIMIT = 5000;
+
+	private final BranchInventoryService branchInventoryService;
+	private final Bulkheads bulkheads;
+
+	/**
+	 * Constructor for BranchController. Branch listings run on the catalog
+	 * bulkhead.
+	 * 
+	 * @param branchInventoryService Service listing the books of a branch.
+	 * @param bulkheads              Executors isolating the workloads.
+	 */
+	public BranchController(BranchInventoryService branchInventoryService, Bulkheads bulkheads) {
+		this.branchInventoryService = branchInventoryService;
+		this.bulkheads = bulkheads;
+	}
+
+	/**
+	 * Endpoint to get the branches with books and the number of books at each.
+	 * 
+	 * @return ResponseEntity containing the branches, or an error response if an
+	 *         exception occurs.
+	 */
+	@GetMapping
+	public CompletableFuture<ResponseEntity<?>> getBranches() {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<BranchSummary> branches = branchInventoryService.getBranches();
+				return ResponseEntity.ok(branches);
+			} catch (Exception e) {
+				logger.error("Error fetching branches", e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
+	}
+
+	/**
+	 * Endpoint to get a page of the books of a branch, in ID order. The next page
+	 * starts after the last ID of this one.
+	 * 
+	 * @param branchCode The code of the branch.
+	 * @param after      The exclusive lower bound of the IDs.
+	 * @param limit      The maximum number of books, at most 5000.
+	 * @return ResponseEntity containing the books if successful, or an error
+	 *         response if the branch code is not valid or an exception occurs.
+	 */
+	@GetMapping("/{branchCode}/books")
+	public CompletableFuture<ResponseEntity<?>> getBooks(@PathVariable String branchCode,
+			@RequestParam(defaultValue = "0") long after, @RequestParam(defaultValue = "500") int limit) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				List<Book> books = branchInventoryService.getBooks(branchCode, after,
+						Math.max(1, Math.min(limit, MAX_LIMIT)));
+				return ResponseEntity.ok(books);
+			} catch (IllegalArgumentException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error fetching books of branch: {}", branchCode, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
+	}
+}
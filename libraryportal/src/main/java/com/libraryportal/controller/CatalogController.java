@@ -0,0 +1,100 @@
+package com.libraryportal.controller;
+
+import java.nio.channels.Channels;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.repository.CatalogFile;
+import com.libraryportal.service.CatalogStoreService;
+
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+	private static final Logger logger = LoggerFactory.getLogger(CatalogController.class);
+
+	private static final int MAX_PAGE_SIZE = 10000;
+	private static final String TOTAL_COUNT = "X-Total-Count";
+
+	private final CatalogStoreService catalogStoreService;
+
+	/**
+	 * Constructor for CatalogController. Responses are streamed from the
+	 * memory-mapped catalog, which may lag the database by up to one refresh
+	 * interval.
+	 * 
+	 * @param catalogStoreService Service maintaining the memory-mapped catalog.
+	 */
+	public CatalogController(CatalogStoreService catalogStoreService) {
+		this.catalogStoreService = catalogStoreService;
+	}
+
+	/**
+	 * Endpoint to browse the catalog a page at a time, in book id order, e.g.
+	 * {@code books?page=3&size=500}. The total number of books is returned in
+	 * the {@code X-Total-Count} header.
+	 * 
+	 * @param page The zero-based page number.
+	 * @param size The number of books per page, at most 10000.
+	 * @return ResponseEntity streaming the page of books, or a SERVICE_UNAVAILABLE
+	 *         status if the catalog is still being built.
+	 */
+	@GetMapping("/books")
+	public ResponseEntity<?> getBooks(@RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "1000") int size) {
+		try {
+			CatalogFile catalog = catalogStoreService.getCatalog();
+			int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+			int from = (int) Math.min((long) Math.max(page, 0) * pageSize, catalog.size());
+			int to = Math.min(from + pageSize, catalog.size());
+			StreamingResponseBody body = out -> catalog.writeBooks(from, to, Channels.newChannel(out));
+			return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+					.header(TOTAL_COUNT, String.valueOf(catalog.size())).body(body);
+		} catch (IllegalStateException e) {
+			return unavailable(e);
+		}
+	}
+
+	/**
+	 * Endpoint to get a book from the catalog by ID.
+	 * 
+	 * @param id The ID of the book.
+	 * @return ResponseEntity streaming the book if found, an error response if it
+	 *         is not in the catalog, or a SERVICE_UNAVAILABLE status if the catalog
+	 *         is still being built.
+	 */
+	@GetMapping("/books/{id}")
+	public ResponseEntity<?> getBookById(@PathVariable Long id) {
+		try {
+			CatalogFile catalog = catalogStoreService.getCatalog();
+			int position = catalog.indexOf(id);
+			if (position < 0) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(),
+						"Book not found in the catalog with id: " + id);
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+			}
+			StreamingResponseBody body = out -> catalog.writeBook(position, Channels.newChannel(out));
+			return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+		} catch (IllegalStateException e) {
+			return unavailable(e);
+		}
+	}
+
+	private ResponseEntity<?> unavailable(IllegalStateException e) {
+		logger.warn("Catalog not available: {}", e.getMessage());
+		ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5")
+				.body(errorResponse);
+	}
+}
@@ -0,0 +1,97 @@
+package com.libraryportal.controller;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.libraryportal.config.Bulkheads;
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookAvailability;
+import com.libraryportal.exception.BookNotFoundException;
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.service.IsbnLookupService;
+
+@RestController
+@RequestMapping("/api/books/isbn")
+public class IsbnController {
+	private static final Logger logger = LoggerFactory.getLogger(IsbnController.class);
+
+	private final IsbnLookupService isbnLookupService;
+	private final Bulkheads bulkheads;
+
+	/**
+	 * Constructor for IsbnController. Book lookups run on the catalog bulkhead;
+	 * availability lookups are answered from memory on the request thread.
+	 * 
+	 * @param isbnLookupService Service looking books up by ISBN.
+	 * @param bulkheads         Executors isolating the workloads.
+	 */
+	public IsbnController(IsbnLookupService isbnLookupService, Bulkheads bulkheads) {
+		this.isbnLookupService = isbnLookupService;
+		this.bulkheads = bulkheads;
+	}
+
+	/**
+	 * Endpoint to get a book by ISBN in a branch, e.g.
+	 * {@code isbn/978-0-306-40615-7?branch=EAST}. ISBN-10 and ISBN-13 are
+	 * accepted, with or without hyphens.
+	 * 
+	 * @param isbn       The ISBN of the book.
+	 * @param branchCode The branch code, the default branch if absent.
+	 * @return ResponseEntity containing the book if found, or an error response if
+	 *         the ISBN or branch code is not valid, no book is registered under the
+	 *         ISBN in the branch or an exception occurs.
+	 */
+	@GetMapping("/{isbn}")
+	public CompletableFuture<ResponseEntity<?>> getBookByIsbn(@PathVariable String isbn,
+			@RequestParam(name = "branch", required = false) String branchCode) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				Book book = isbnLookupService.getBookByIsbn(branchCode, isbn);
+				return ResponseEntity.ok(book);
+			} catch (IllegalArgumentException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (BookNotFoundException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
+				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error fetching book by ISBN: {}", isbn, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
+	}
+
+	/**
+	 * Endpoint to get the availability of a book by ISBN in a branch, served from
+	 * the in-memory ISBN index without a database query.
+	 * 
+	 * @param isbn       The ISBN of the book.
+	 * @param branchCode The branch code, the default branch if absent.
+	 * @return ResponseEntity containing the book id, number of copies and status
+	 *         if found, or an error response if the ISBN or branch code is not
+	 *         valid or no book is registered under the ISBN in the branch.
+	 */
+	@GetMapping("/{isbn}/availability")
+	public ResponseEntity<?> getAvailabilityByIsbn(@PathVariable String isbn,
+			@RequestParam(name = "branch", required = false) String branchCode) {
+		try {
+			BookAvailability availability = isbnLookupService.getAvailabilityByIsbn(branchCode, isbn);
+			return ResponseEntity.ok(availability);
+		} catch (IllegalArgumentException e) {
+			ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+			return ResponseEntity.badRequest().body(errorResponse);
+		} catch (BookNotFoundException e) {
+			ErrorResponse errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.libraryportal.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.service.SnapshotService;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+@RestController
+@RequestMapping("/api/admin/snapshot")
+public class SnapshotController {
+
+	private static final Logger logger = LoggerFactory.getLogger(SnapshotController.class);
+
+	private static final String FILE_NAME = "libraryportal-snapshot.bin.gz";
+
+	private final SnapshotService snapshotService;
+
+	/**
+	 * Constructor for SnapshotController. Snapshots are streamed for as long as
+	 * the dataset takes, so they run on the request thread instead of a bulkhead
+	 * with a request timeout.
+	 *
+	 * @param snapshotService Service writing and restoring snapshots.
+	 */
+	@Autowired
+	public SnapshotController(SnapshotService snapshotService) {
+		this.snapshotService = snapshotService;
+	}
+
+	/**
+	 * Endpoint to download a compressed binary snapshot of all books and
+	 * borrowers, e.g.
+	 * {@code curl -u user:password -o snapshot.bin.gz .../api/admin/snapshot}.
+	 *
+	 * @param response The response the snapshot is streamed to.
+	 * @throws IOException If the snapshot cannot be written.
+	 */
+	@GetMapping
+	public void getSnapshot(HttpServletResponse response) throws IOException {
+		response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + FILE_NAME + "\"");
+		snapshotService.writeSnapshot(response.getOutputStream());
+	}
+
+	/**
+	 * Endpoint to restore a snapshot into an empty library, e.g.
+	 * {@code curl -u user:password -H 'Content-Type: application/octet-stream'
+	 * --data-binary @snapshot.bin.gz .../api/admin/snapshot}.
+	 *
+	 * @param snapshot The snapshot, as the request body.
+	 * @return ResponseEntity containing the numbers of books and borrowers
+	 *         restored if successful, a CONFLICT status if the library is not
+	 *         empty, or an error response if the body is not a snapshot or an
+	 *         exception occurs.
+	 */
+	@PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+	public ResponseEntity<?> restoreSnapshot(InputStream snapshot) {
+		try {
+			DatasetRestored restored = snapshotService.restore(snapshot);
+			return ResponseEntity.ok(restored);
+		} catch (IllegalStateException e) {
+			ErrorResponse errorResponse = new ErrorResponse(HttpStatus.CONFLICT.value(), e.getMessage());
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+		} catch (IOException e) {
+			logger.warn("Snapshot could not be read: {}", e.getMessage());
+			ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(),
+					"Snapshot could not be read: " + e.getMessage());
+			return ResponseEntity.badRequest().body(errorResponse);
+		} catch (Exception e) {
+			logger.error("Error restoring snapshot", e);
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+		}
+	}
+}
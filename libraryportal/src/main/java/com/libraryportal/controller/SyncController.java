@@ -0,0 +1,73 @@
+package com.libraryportal.controller;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.libraryportal.config.Bulkheads;
+import com.libraryportal.entity.ChangeSet;
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.service.SyncService;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+	private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+	private static final int MAX_LIMIT = 5000;
+
+	private final SyncService syncService;
+	private final Bulkheads bulkheads;
+
+	/**
+	 * Constructor for SyncController. Syncs are catalog reads and run on the
+	 * catalog bulkhead.
+	 * 
+	 * @param syncService Service providing the changes since a sync token.
+	 * @param bulkheads   Executors isolating the workloads.
+	 */
+	@Autowired
+	public SyncController(SyncService syncService, Bulkheads bulkheads) {
+		this.syncService = syncService;
+		this.bulkheads = bulkheads;
+	}
+
+	/**
+	 * Endpoint to get the books, borrowers and deletions written since the last
+	 * sync, e.g. {@code changes?since=1042}. Start with {@code since=0} and pass
+	 * the returned token on the next call; call again straight away while
+	 * {@code hasMore} is set.
+	 * 
+	 * @param since The token returned by the previous sync, or 0 for a full sync.
+	 * @param limit The maximum number of changes of each type to return, at most
+	 *              5000.
+	 * @return ResponseEntity containing the changes and the next token if
+	 *         successful, or an error response if the token is unknown or an
+	 *         exception occurs.
+	 */
+	@GetMapping("/changes")
+	public CompletableFuture<ResponseEntity<?>> getChanges(@RequestParam(defaultValue = "0") long since,
+			@RequestParam(defaultValue = "500") int limit) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				ChangeSet changes = syncService.getChangesSince(since, Math.max(1, Math.min(limit, MAX_LIMIT)));
+				return ResponseEntity.ok(changes);
+			} catch (IllegalArgumentException e) {
+				ErrorResponse errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+				return ResponseEntity.badRequest().body(errorResponse);
+			} catch (Exception e) {
+				logger.error("Error fetching changes since {}", since, e);
+				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
+			}
+		}, bulkheads.catalog());
+	}
+}
@@ -1,17 +1,41 @@
 package com.libraryportal.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.libraryportal.repository.ChangeSequenceListener;
 import com.libraryportal.util.BookStatus;
+import com.libraryportal.util.CopyBitmap;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 
 @Entity
-public class Book {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@Table(indexes = { @Index(name = "idx_book_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_book_branch", columnList = "branch_code, id") },
+        uniqueConstraints = @UniqueConstraint(name = "uk_book_branch_isbn_title_author",
+                columnNames = { "branch_code", "isbn", "title_key", "author_key" }))
+@EntityListeners(ChangeSequenceListener.class)
+public class Book implements ChangeTracked {
+
+    /** Branch of books registered without one. */
+    public static final String DEFAULT_BRANCH = "MAIN";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
@@ -21,12 +45,37 @@ public class Book {
     private String title;
     private String author;
     
+    // Title and author with null as the empty string, computed by the database.
+    // The unique constraint is on these, since nulls never collide in one.
+    @Column(name = "title_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (COALESCE(title, ''))")
+    private String titleKey;
+    
+    @Column(name = "author_key", insertable = false, updatable = false,
+            columnDefinition = "VARCHAR(255) GENERATED ALWAYS AS (COALESCE(author, ''))")
+    private String authorKey;
+    
+    @Column(name = "branch_code", nullable = false, length = 32)
+    private String branchCode = DEFAULT_BRANCH; // Branch holding the copies
+    
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     private int noOfCopies; // Number of copies of the book available
     
+    @Column(name = "total_copies", nullable = false)
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private int totalCopies; // Number of copies of the book, available or not
+    
+    @JsonIgnore
+    @Column(name = "copy_bitmap", length = CopyBitmap.MAX_COPIES / 8)
+    private byte[] copyBitmap; // Copies on loan, as stored by CopyBitmap
+    
     @Enumerated(EnumType.STRING)
     private BookStatus status; // Status of the book (Available, Borrowed)
     
+    @Column(name = "change_seq")
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Long changeSeq; // Position of the last write in the change sequence
+    
     /**
      * Get the unique ID of the book.
      * 
@@ -99,6 +148,24 @@ public class Book {
         this.author = author;
     }
 
+    /**
+     * Get the code of the branch holding the copies of the book.
+     * 
+     * @return The branch code of the book.
+     */
+    public String getBranchCode() {
+        return branchCode;
+    }
+
+    /**
+     * Set the code of the branch holding the copies of the book.
+     * 
+     * @param branchCode The branch code of the book.
+     */
+    public void setBranchCode(String branchCode) {
+        this.branchCode = branchCode;
+    }
+
     /**
      * Get the number of copies of the book available.
      * 
@@ -117,6 +184,76 @@ public class Book {
         this.noOfCopies = noOfCopies;
     }
 
+    /**
+     * Get the number of copies of the book, available or not.
+     * 
+     * @return The total number of copies of the book.
+     */
+    public int getTotalCopies() {
+        return totalCopies;
+    }
+
+    /**
+     * Set the number of copies of the book, available or not.
+     * 
+     * @param totalCopies The total number of copies of the book.
+     */
+    public void setTotalCopies(int totalCopies) {
+        this.totalCopies = totalCopies;
+    }
+
+    /**
+     * Get the copies of the book on loan, as stored by {@link CopyBitmap}.
+     * 
+     * @return The stored bitmap, or null if no copy is on loan.
+     */
+    public byte[] getCopyBitmap() {
+        return copyBitmap;
+    }
+
+    /**
+     * Set the copies of the book on loan, as stored by {@link CopyBitmap}.
+     * 
+     * @param copyBitmap The stored bitmap, or null if no copy is on loan.
+     */
+    public void setCopyBitmap(byte[] copyBitmap) {
+        this.copyBitmap = copyBitmap;
+    }
+
+    /**
+     * Get the lending state of every copy of the book.
+     * 
+     * @return A new bitmap of the copies on loan.
+     */
+    public CopyBitmap copies() {
+        return CopyBitmap.fromBytes(totalCopies, copyBitmap);
+    }
+
+    /**
+     * Store the lending state of the copies of the book, and set the number of
+     * copies available and the status from it: the book is available while any
+     * copy is.
+     * 
+     * @param copies The bitmap of the copies on loan.
+     */
+    public void applyCopies(CopyBitmap copies) {
+        this.totalCopies = copies.copies();
+        this.copyBitmap = copies.toBytes();
+        this.noOfCopies = copies.available();
+        this.status = copies.available() > 0 ? BookStatus.AVAILABLE : BookStatus.BORROWED;
+    }
+
+    /**
+     * Count the copies of a book saved with only its available copies set as
+     * copies it owns.
+     */
+    @PrePersist
+    void defaultTotalCopies() {
+        if (totalCopies < noOfCopies) {
+            totalCopies = noOfCopies;
+        }
+    }
+
     /**
      * Get the status of the book.
      * 
@@ -134,4 +271,22 @@ public class Book {
     public void setStatus(BookStatus status) {
         this.status = status;
     }
+
+    /**
+     * Get the position of the last write of the book in the change sequence.
+     * 
+     * @return The change sequence number of the book.
+     */
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    /**
+     * Set the position of the last write of the book in the change sequence.
+     * 
+     * @param changeSeq The change sequence number of the book.
+     */
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
 }
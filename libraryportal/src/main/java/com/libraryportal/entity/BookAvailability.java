@@ -0,0 +1,56 @@
+package com.libraryportal.entity;
+
+import com.libraryportal.util.BookStatus;
+
+/**
+ * The availability of the book registered under an ISBN in a branch, as served
+ * from the in-memory ISBN index.
+ */
+public class BookAvailability {
+    private String isbn;
+    private String branchCode;
+    private long bookId;
+    private int noOfCopies;
+    private BookStatus status;
+
+    // Getters and setters
+    public String getIsbn() {
+        return isbn;
+    }
+
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getBranchCode() {
+        return branchCode;
+    }
+
+    public void setBranchCode(String branchCode) {
+        this.branchCode = branchCode;
+    }
+
+    public long getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(long bookId) {
+        this.bookId = bookId;
+    }
+
+    public int getNoOfCopies() {
+        return noOfCopies;
+    }
+
+    public void setNoOfCopies(int noOfCopies) {
+        this.noOfCopies = noOfCopies;
+    }
+
+    public BookStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BookStatus status) {
+        this.status = status;
+    }
+}
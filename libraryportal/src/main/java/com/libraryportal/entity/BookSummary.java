@@ -0,0 +1,18 @@
+package com.libraryportal.entity;
+
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Closed projection of {@link Book} carrying only what catalog listings need:
+ * the id, the title and the current availability.
+ */
+public interface BookSummary {
+
+    Long getId();
+
+    String getTitle();
+
+    int getNoOfCopies();
+
+    BookStatus getStatus();
+}
@@ -9,12 +9,13 @@ public class BorrowedBookDetails {
     private String title;
     private String author;
     private String status;
+    private int copyNumber;
 
     // Constructors
     public BorrowedBookDetails() {
     }
 
-    public BorrowedBookDetails(Borrower borrower, Book book) {
+    public BorrowedBookDetails(Borrower borrower, Book book, int copyNumber) {
         this.borrowerId = borrower.getId();
         this.borrowerName = borrower.getName();
         this.borrowerEmail = borrower.getEmail();
@@ -23,6 +24,7 @@ public class BorrowedBookDetails {
         this.title = book.getTitle();
         this.author = book.getAuthor();
         this.status = book.getStatus().toString();
+        this.copyNumber = copyNumber;
     }
 
     // Getters and setters
@@ -89,5 +91,13 @@ public class BorrowedBookDetails {
     public void setStatus(String status) {
         this.status = status;
     }
+
+    public int getCopyNumber() {
+        return copyNumber;
+    }
+
+    public void setCopyNumber(int copyNumber) {
+        this.copyNumber = copyNumber;
+    }
 }
 
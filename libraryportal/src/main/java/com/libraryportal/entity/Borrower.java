@@ -1,13 +1,27 @@
 package com.libraryportal.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.libraryportal.repository.ChangeSequenceListener;
+
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 
 @Entity
-public class Borrower {
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "borrower")
+@Table(indexes = @Index(name = "idx_borrower_change_seq", columnList = "change_seq"))
+@EntityListeners(ChangeSequenceListener.class)
+public class Borrower implements ChangeTracked {
 
 	@Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,7 +29,13 @@ public class Borrower {
     private Long id;
     
     private String name;
-    private String email;
+    
+    @Column(unique = true)
+    private String email; // Unique, so concurrent registrations cannot both pass the duplicate check
+    
+    @Column(name = "change_seq")
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    private Long changeSeq; // Position of the last write in the change sequence
     
     /**
      * Get the unique ID of the borrower.
@@ -70,4 +90,23 @@ public class Borrower {
     public void setEmail(String email) {
         this.email = email;
     }
+
+    /**
+     * Get the position of the last write of the borrower in the change sequence.
+     * 
+     * @return The change sequence number of the borrower.
+     */
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    /**
+     * Set the position of the last write of the borrower in the change sequence.
+     * 
+     * @param changeSeq The change sequence number of the borrower.
+     */
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
 }
+
@@ -0,0 +1,11 @@
+package com.libraryportal.entity;
+
+/**
+ * Closed projection of {@link Borrower} carrying only the id and the name.
+ */
+public interface BorrowerSummary {
+
+    Long getId();
+
+    String getName();
+}
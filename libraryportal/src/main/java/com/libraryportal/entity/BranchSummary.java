@@ -0,0 +1,35 @@
+package com.libraryportal.entity;
+
+/**
+ * A branch holding books, and the number of books registered at it.
+ */
+public class BranchSummary {
+    private String branchCode;
+    private long books;
+
+    // Constructors
+    public BranchSummary() {
+    }
+
+    public BranchSummary(String branchCode, long books) {
+        this.branchCode = branchCode;
+        this.books = books;
+    }
+
+    // Getters and setters
+    public String getBranchCode() {
+        return branchCode;
+    }
+
+    public void setBranchCode(String branchCode) {
+        this.branchCode = branchCode;
+    }
+
+    public long getBooks() {
+        return books;
+    }
+
+    public void setBooks(long books) {
+        this.books = books;
+    }
+}
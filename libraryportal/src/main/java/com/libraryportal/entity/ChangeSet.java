@@ -0,0 +1,69 @@
+package com.libraryportal.entity;
+
+import java.util.List;
+
+/**
+ * The books, borrowers and deletions written since a sync token, and the
+ * token to continue from.
+ */
+public class ChangeSet {
+    private long token;
+    private boolean hasMore;
+    private List<Book> books;
+    private List<Borrower> borrowers;
+    private List<DeletedRecord> deletions;
+
+    // Constructors
+    public ChangeSet() {
+    }
+
+    public ChangeSet(long token, boolean hasMore, List<Book> books, List<Borrower> borrowers,
+            List<DeletedRecord> deletions) {
+        this.token = token;
+        this.hasMore = hasMore;
+        this.books = books;
+        this.borrowers = borrowers;
+        this.deletions = deletions;
+    }
+
+    // Getters and setters
+    public long getToken() {
+        return token;
+    }
+
+    public void setToken(long token) {
+        this.token = token;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<Book> getBooks() {
+        return books;
+    }
+
+    public void setBooks(List<Book> books) {
+        this.books = books;
+    }
+
+    public List<Borrower> getBorrowers() {
+        return borrowers;
+    }
+
+    public void setBorrowers(List<Borrower> borrowers) {
+        this.borrowers = borrowers;
+    }
+
+    public List<DeletedRecord> getDeletions() {
+        return deletions;
+    }
+
+    public void setDeletions(List<DeletedRecord> deletions) {
+        this.deletions = deletions;
+    }
+}
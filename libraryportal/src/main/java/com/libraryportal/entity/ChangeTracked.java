@@ -0,0 +1,22 @@
+package com.libraryportal.entity;
+
+/**
+ * An entity whose writes are numbered in the catalog change sequence, so
+ * clients can fetch only what changed since their last sync.
+ */
+public interface ChangeTracked {
+
+    /**
+     * Get the position of the last write of this entity in the change sequence.
+     * 
+     * @return The change sequence number, or null if never written.
+     */
+    Long getChangeSeq();
+
+    /**
+     * Set the position of the last write of this entity in the change sequence.
+     * 
+     * @param changeSeq The change sequence number.
+     */
+    void setChangeSeq(Long changeSeq);
+}
@@ -0,0 +1,96 @@
+package com.libraryportal.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.libraryportal.repository.ChangeSequenceListener;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Tombstone of a deleted row, numbered in the change sequence like any other
+ * write so syncing clients learn about the deletion.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_deleted_record_change_seq", columnList = "change_seq"))
+@EntityListeners(ChangeSequenceListener.class)
+public class DeletedRecord implements ChangeTracked {
+
+    /** Entity type of deleted borrowers. */
+    public static final String BORROWER = "borrower";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String entityType;
+    private Long entityId;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    protected DeletedRecord() {
+    }
+
+    /**
+     * Constructs a tombstone for a deleted row.
+     * 
+     * @param entityType The type of the deleted entity, e.g. {@link #BORROWER}.
+     * @param entityId   The ID of the deleted entity.
+     */
+    public DeletedRecord(String entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    /**
+     * Get the ID of the tombstone itself.
+     * 
+     * @return The ID of the tombstone.
+     */
+    @JsonIgnore
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Get the type of the deleted entity.
+     * 
+     * @return The type of the deleted entity.
+     */
+    public String getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Get the ID of the deleted entity.
+     * 
+     * @return The ID of the deleted entity.
+     */
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Get the position of the deletion in the change sequence.
+     * 
+     * @return The change sequence number of the deletion.
+     */
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
+    /**
+     * Set the position of the deletion in the change sequence.
+     * 
+     * @param changeSeq The change sequence number of the deletion.
+     */
+    public void setChangeSeq(Long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+}
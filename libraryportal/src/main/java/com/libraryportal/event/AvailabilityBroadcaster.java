@@ -0,0 +1,211 @@
+package com.libraryportal.event;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Fans {@link BookAvailabilityChanged} events out to Server-Sent Events
+ * subscribers.
+ * <p>
+ * Events are received once, after the transaction that changed the book has
+ * committed, and offered to every subscriber's bounded buffer. A small pool of
+ * sender threads drains the buffers, so a subscriber with a slow connection
+ * never delays the publisher or the other subscribers. A subscriber whose
+ * buffer overflows is evicted: its stream is closed, and the client reconnects
+ * and reloads the current availability.
+ */
+@Component
+public class AvailabilityBroadcaster {
+
+	private static final Logger logger = LoggerFactory.getLogger(AvailabilityBroadcaster.class);
+
+	private static final Object HEARTBEAT = new Object();
+
+	private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+	private final ScheduledExecutorService sender;
+	private final int bufferSize;
+	private final int maxSubscribers;
+	private final long timeoutMillis;
+	private final Counter published;
+	private final Counter evictions;
+
+	@Autowired
+	public AvailabilityBroadcaster(@Value("${libraryportal.availability.buffer-size:64}") int bufferSize,
+			@Value("${libraryportal.availability.max-subscribers:10000}") int maxSubscribers,
+			@Value("${libraryportal.availability.sender-threads:4}") int senderThreads,
+			@Value("${libraryportal.availability.heartbeat-seconds:20}") int heartbeatSeconds,
+			@Value("${libraryportal.availability.timeout-minutes:30}") int timeoutMinutes,
+			MeterRegistry meterRegistry) {
+		this(Executors.newScheduledThreadPool(senderThreads, senderThreadFactory()), bufferSize, maxSubscribers,
+				TimeUnit.MINUTES.toMillis(timeoutMinutes), meterRegistry);
+		sender.scheduleAtFixedRate(this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+	}
+
+	AvailabilityBroadcaster(ScheduledExecutorService sender, int bufferSize, int maxSubscribers, long timeoutMillis,
+			MeterRegistry meterRegistry) {
+		this.sender = sender;
+		this.bufferSize = bufferSize;
+		this.maxSubscribers = maxSubscribers;
+		this.timeoutMillis = timeoutMillis;
+		this.published = Counter.builder("libraryportal.availability.published")
+				.description("Availability changes fanned out to subscribers").register(meterRegistry);
+		this.evictions = Counter.builder("libraryportal.availability.evicted")
+				.description("Subscribers evicted because their buffer overflowed").register(meterRegistry);
+		Gauge.builder("libraryportal.availability.subscribers", subscribers, Set::size)
+				.description("Open availability streams").register(meterRegistry);
+	}
+
+	/**
+	 * Opens a new availability stream.
+	 *
+	 * @return the emitter of the stream
+	 * @throws RejectedExecutionException if the maximum number of subscribers is
+	 *                                    reached
+	 */
+	public SseEmitter subscribe() {
+		if (subscribers.size() >= maxSubscribers) {
+			throw new RejectedExecutionException("Too many availability subscribers");
+		}
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		Subscriber subscriber = new Subscriber(emitter);
+		emitter.onCompletion(() -> subscribers.remove(subscriber));
+		emitter.onTimeout(() -> subscribers.remove(subscriber));
+		emitter.onError(e -> subscribers.remove(subscriber));
+		subscribers.add(subscriber);
+		return emitter;
+	}
+
+	/**
+	 * Offers an availability change to every subscriber once the transaction
+	 * that made it has committed, or straight away outside a transaction.
+	 *
+	 * @param event the availability change
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onAvailabilityChanged(BookAvailabilityChanged event) {
+		published.increment();
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(event);
+		}
+	}
+
+	/**
+	 * Returns the number of open availability streams.
+	 *
+	 * @return the number of subscribers
+	 */
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	@PreDestroy
+	void shutdown() {
+		sender.shutdownNow();
+		subscribers.forEach(subscriber -> subscriber.emitter.complete());
+		subscribers.clear();
+	}
+
+	/**
+	 * Keeps idle streams open through proxies, and detects closed connections.
+	 */
+	private void heartbeat() {
+		for (Subscriber subscriber : subscribers) {
+			subscriber.offer(HEARTBEAT);
+		}
+	}
+
+	private void evict(Subscriber subscriber) {
+		if (subscribers.remove(subscriber)) {
+			evictions.increment();
+			logger.warn("Evicting a slow availability subscriber, {} events buffered", bufferSize);
+			// Completing waits for a send in progress, so it never runs on the publisher's thread.
+			sender.execute(subscriber.emitter::complete);
+		}
+	}
+
+	private static ThreadFactory senderThreadFactory() {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "availability-sender-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	/**
+	 * An open stream with its bounded buffer. At most one sender thread drains
+	 * the buffer at a time.
+	 */
+	private final class Subscriber implements Runnable {
+
+		private final SseEmitter emitter;
+		private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(bufferSize);
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		Subscriber(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+
+		void offer(Object item) {
+			if (!buffer.offer(item)) {
+				evict(this);
+				return;
+			}
+			schedule();
+		}
+
+		private void schedule() {
+			if (scheduled.compareAndSet(false, true)) {
+				sender.execute(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				Object item;
+				while ((item = buffer.poll()) != null) {
+					if (item == HEARTBEAT) {
+						emitter.send(SseEmitter.event().comment("heartbeat"));
+					} else {
+						emitter.send(SseEmitter.event().name("availability").data(item, MediaType.APPLICATION_JSON));
+					}
+				}
+			} catch (IOException | IllegalStateException e) {
+				// The client went away, or the stream was already completed.
+				subscribers.remove(this);
+				buffer.clear();
+				return;
+			} finally {
+				scheduled.set(false);
+			}
+			if (!buffer.isEmpty()) {
+				schedule();
+			}
+		}
+	}
+}
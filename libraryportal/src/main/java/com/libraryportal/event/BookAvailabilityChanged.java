@@ -0,0 +1,95 @@
+package com.libraryportal.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.libraryportal.entity.Book;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Event published when a book's availability changes, i.e. when a book is
+ * registered, borrowed or returned. It carries only what availability
+ * listeners need: the id, the number of copies and the status, plus the ISBN
+ * for the ISBN index, the branch for the branch caches and the change sequence
+ * number to order events of the same book, which are not streamed to clients.
+ */
+public final class BookAvailabilityChanged {
+
+    private final Long id;
+    private final String isbn;
+    private final String branchCode;
+    private final int noOfCopies;
+    private final BookStatus status;
+    private final long changeSeq;
+
+    /**
+     * Captures the availability of a book as it was saved.
+     *
+     * @param book The saved book.
+     */
+    public BookAvailabilityChanged(Book book) {
+        this.id = book.getId();
+        this.isbn = book.getIsbn();
+        this.branchCode = book.getBranchCode();
+        this.noOfCopies = book.getNoOfCopies();
+        this.status = book.getStatus();
+        this.changeSeq = book.getChangeSeq() == null ? 0 : book.getChangeSeq();
+    }
+
+    /**
+     * Get the ID of the book.
+     *
+     * @return The ID of the book.
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Get the ISBN of the book, as registered.
+     *
+     * @return The ISBN of the book.
+     */
+    @JsonIgnore
+    public String getIsbn() {
+        return isbn;
+    }
+
+    /**
+     * Get the code of the branch holding the copies of the book.
+     *
+     * @return The branch code of the book.
+     */
+    @JsonIgnore
+    public String getBranchCode() {
+        return branchCode;
+    }
+
+    /**
+     * Get the number of copies of the book available.
+     *
+     * @return The number of copies of the book available.
+     */
+    public int getNoOfCopies() {
+        return noOfCopies;
+    }
+
+    /**
+     * Get the status of the book.
+     *
+     * @return The status of the book.
+     */
+    public BookStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Get the change sequence number of the write. Listeners run after their
+     * transactions commit but in no set order, so a later number is a later
+     * state of the book.
+     *
+     * @return The change sequence number, or 0 if the book was not numbered.
+     */
+    @JsonIgnore
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+}
@@ -0,0 +1,52 @@
+package com.libraryportal.event;
+
+/**
+ * Event published once a snapshot has been restored, so that the in-memory
+ * indexes built from the database at startup can load the restored rows.
+ */
+public final class DatasetRestored {
+
+    private final long books;
+    private final long borrowers;
+    private final long millis;
+
+    /**
+     * Constructs a new DatasetRestored.
+     *
+     * @param books     The number of books restored.
+     * @param borrowers The number of borrowers restored.
+     * @param millis    The time the restore took, in milliseconds.
+     */
+    public DatasetRestored(long books, long borrowers, long millis) {
+        this.books = books;
+        this.borrowers = borrowers;
+        this.millis = millis;
+    }
+
+    /**
+     * Get the number of books restored.
+     *
+     * @return The number of books.
+     */
+    public long getBooks() {
+        return books;
+    }
+
+    /**
+     * Get the number of borrowers restored.
+     *
+     * @return The number of borrowers.
+     */
+    public long getBorrowers() {
+        return borrowers;
+    }
+
+    /**
+     * Get the time the restore took.
+     *
+     * @return The time in milliseconds.
+     */
+    public long getMillis() {
+        return millis;
+    }
+}
@@ -1,5 +1,6 @@
 package com.libraryportal.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -7,6 +8,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * GlobalExceptionHandler class provides centralized exception handling for the
@@ -46,6 +48,22 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
 	}
 
+	/**
+	 * Handles RejectedExecutionException, thrown when the bulkhead of a request is
+	 * full, and returns a ResponseEntity with a SERVICE_UNAVAILABLE status code.
+	 * 
+	 * @param ex The RejectedExecutionException to be handled.
+	 * @return A ResponseEntity containing an error response, a Retry-After header
+	 *         and a SERVICE_UNAVAILABLE status code.
+	 */
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<ErrorResponse> handleRejectedExecutionException(RejectedExecutionException ex) {
+		ErrorResponse errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+				"The service is busy, please retry shortly.");
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+				.body(errorResponse);
+	}
+
 	/**
 	 * Handles other exceptions and returns a ResponseEntity with an
 	 * INTERNAL_SERVER_ERROR status code.
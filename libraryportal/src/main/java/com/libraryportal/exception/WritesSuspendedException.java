@@ -0,0 +1,26 @@
+package com.libraryportal.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * WritesSuspendedException is a custom exception class that represents the
+ * scenario where a write is attempted while writes are suspended, e.g. during
+ * a snapshot restore. It is annotated with @ResponseStatus to automatically
+ * return a SERVICE_UNAVAILABLE status code when thrown.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class WritesSuspendedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Constructs a new WritesSuspendedException with the specified detail
+	 * message.
+	 *
+	 * @param message The detail message.
+	 */
+	public WritesSuspendedException(String message) {
+		super(message);
+	}
+}
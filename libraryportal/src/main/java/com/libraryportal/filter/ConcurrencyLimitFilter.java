@@ -0,0 +1,141 @@
+package com.libraryportal.filter;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.util.AdaptiveConcurrencyLimiter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filter that bounds the number of API requests processed concurrently with an
+ * {@link AdaptiveConcurrencyLimiter}. Requests over the current limit are shed
+ * straight away with 503 Service Unavailable rather than waiting for a thread
+ * or a database connection. The filter runs after the security filter chain,
+ * so the limit covers only the controller layer and below.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+	private static final String AVAILABILITY_STREAM = "/api/books/availability";
+
+	private final boolean enabled;
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final ObjectMapper objectMapper;
+	private final Counter rejections;
+
+	public ConcurrencyLimitFilter(@Value("${libraryportal.concurrency.enabled:true}") boolean enabled,
+			@Value("${libraryportal.concurrency.initial-limit:20}") int initialLimit,
+			@Value("${libraryportal.concurrency.min-limit:4}") int minLimit,
+			@Value("${libraryportal.concurrency.max-limit:200}") int maxLimit,
+			@Value("${libraryportal.concurrency.tolerance:1.5}") double tolerance,
+			@Value("${libraryportal.concurrency.smoothing:0.2}") double smoothing, ObjectMapper objectMapper,
+			MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, tolerance, smoothing);
+		this.objectMapper = objectMapper;
+		this.rejections = Counter.builder("libraryportal.concurrency.rejected")
+				.description("Requests shed by the adaptive concurrency limiter").register(meterRegistry);
+		Gauge.builder("libraryportal.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+				.description("Current adaptive concurrency limit").register(meterRegistry);
+		Gauge.builder("libraryportal.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+				.description("Requests currently admitted by the concurrency limiter").register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// Event streams stay open for minutes without holding a thread or a connection.
+		return !enabled || !request.getServletPath().startsWith("/api/")
+				|| request.getServletPath().equals(AVAILABILITY_STREAM);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!limiter.tryAcquire()) {
+			rejections.increment();
+			logger.warn("Shedding {} {}: concurrency limit {} reached", request.getMethod(), request.getServletPath(),
+					limiter.getLimit());
+			response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+			response.setHeader("Retry-After", "1");
+			response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+			objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(
+					HttpStatus.SERVICE_UNAVAILABLE.value(), "The service is overloaded, please retry shortly."));
+			return;
+		}
+
+		long start = System.nanoTime();
+		boolean released = false;
+		try {
+			filterChain.doFilter(request, response);
+			if (request.isAsyncStarted()) {
+				// The handler continues on another thread; release when it completes.
+				request.getAsyncContext().addListener(new ReleasingListener(start));
+				released = true;
+			}
+		} finally {
+			if (!released) {
+				release(start, response);
+			}
+		}
+	}
+
+	private void release(long start, HttpServletResponse response) {
+		if (response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+			limiter.releaseIgnored();
+		} else {
+			limiter.release(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Releases the limiter permit of an asynchronous request once it completes.
+	 */
+	private class ReleasingListener implements AsyncListener {
+
+		private final long start;
+
+		ReleasingListener(long start) {
+			this.start = start;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			release(start, (HttpServletResponse) event.getSuppliedResponse());
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			// Completion follows a timeout, and the permit is released there.
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			// Completion follows an error, and the permit is released there.
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			event.getAsyncContext().addListener(this);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package com.libraryportal.filter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.util.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filter that limits the request rate of each client to the API. Clients are
+ * identified by their authenticated principal, or by their IP address when the
+ * request is anonymous. Reads and writes draw from separate token buckets, so a
+ * client polling the catalog cannot use up its own write allowance. Requests
+ * over the limit are rejected with 429 Too Many Requests and a Retry-After
+ * header.
+ * <p>
+ * The filter runs inside the security filter chain, after authentication, and
+ * is therefore not registered with the servlet container itself.
+ */
+@Component
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+	private final boolean enabled;
+	private final double readRate;
+	private final int readBurst;
+	private final double writeRate;
+	private final int writeBurst;
+	private final Cache<String, TokenBucket> readBuckets;
+	private final Cache<String, TokenBucket> writeBuckets;
+	private final ObjectMapper objectMapper;
+	private final Counter readRejections;
+	private final Counter writeRejections;
+
+	public RateLimitingFilter(@Value("${libraryportal.ratelimit.enabled:true}") boolean enabled,
+			@Value("${libraryportal.ratelimit.read.requests-per-second:50}") double readRate,
+			@Value("${libraryportal.ratelimit.read.burst:100}") int readBurst,
+			@Value("${libraryportal.ratelimit.write.requests-per-second:10}") double writeRate,
+			@Value("${libraryportal.ratelimit.write.burst:20}") int writeBurst,
+			@Value("${libraryportal.ratelimit.max-clients:10000}") long maxClients,
+			@Value("${libraryportal.ratelimit.idle-timeout-seconds:600}") long idleTimeoutSeconds,
+			ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.readRate = readRate;
+		this.readBurst = readBurst;
+		this.writeRate = writeRate;
+		this.writeBurst = writeBurst;
+		this.readBuckets = Caffeine.newBuilder().maximumSize(maxClients)
+				.expireAfterAccess(idleTimeoutSeconds, TimeUnit.SECONDS).build();
+		this.writeBuckets = Caffeine.newBuilder().maximumSize(maxClients)
+				.expireAfterAccess(idleTimeoutSeconds, TimeUnit.SECONDS).build();
+		this.objectMapper = objectMapper;
+		this.readRejections = Counter.builder("libraryportal.ratelimit.rejected")
+				.description("Requests rejected by the rate limiter").tag("type", "read").register(meterRegistry);
+		this.writeRejections = Counter.builder("libraryportal.ratelimit.rejected")
+				.description("Requests rejected by the rate limiter").tag("type", "write").register(meterRegistry);
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !enabled || !request.getServletPath().startsWith("/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String client = clientKey(request);
+		boolean read = isRead(request);
+		TokenBucket bucket = read ? readBuckets.get(client, key -> new TokenBucket(readRate, readBurst))
+				: writeBuckets.get(client, key -> new TokenBucket(writeRate, writeBurst));
+
+		long waitNanos = bucket.tryAcquire();
+		if (waitNanos == 0) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+
+		(read ? readRejections : writeRejections).increment();
+		long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+		logger.warn("Rate limit exceeded for {} on {} {}", client, request.getMethod(), request.getServletPath());
+		response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(),
+				"Too many requests, retry after " + retryAfterSeconds + " seconds."));
+	}
+
+	private static String clientKey(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+
+	private static boolean isRead(HttpServletRequest request) {
+		String method = request.getMethod();
+		return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+	}
+}
@@ -1,13 +1,30 @@
 package com.libraryportal.repository;
 
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookSummary;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for accessing book data in the database.
+ * <p>
+ * Lookups by natural key are cached in the {@code book-queries} query cache
+ * region. Hibernate invalidates the region whenever the book table is written
+ * through the persistence context.
  */
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
     /**
      * Find a book by its ISBN.
@@ -15,6 +32,8 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param isbn The ISBN of the book to find.
      * @return The book with the specified ISBN, or null if not found.
      */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-queries") })
     Book findByIsbn(String isbn);
 
     /**
@@ -25,5 +44,86 @@ public interface BookRepository extends JpaRepository<Book, Long> {
      * @param author The author of the book to find.
      * @return The book with the specified ISBN, title, and author, or null if not found.
      */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "book-queries") })
     Book findByIsbnAndTitleAndAuthor(String isbn, String title, String author);
+
+    /**
+     * Find a book by its ID and lock its row until the transaction ends, so
+     * that concurrent borrows and returns of the book are serialized. Always
+     * reads the database, never the second-level cache.
+     * 
+     * @param id The ID of the book to find.
+     * @return The locked book, or empty if not found.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Find all books as summaries, selecting only the summary columns.
+     * 
+     * @return The summaries of all books.
+     */
+    List<BookSummary> findAllProjectedBy();
+
+    /**
+     * Find the ID, ISBN, number of copies, status, branch and change sequence
+     * number of all books, selecting only those columns.
+     * 
+     * @return One array of ID, ISBN, number of copies, status, branch code and
+     *         change sequence number per book.
+     */
+    @Query("select b.id, b.isbn, b.noOfCopies, b.status, b.branchCode, b.changeSeq from Book b")
+    List<Object[]> findAllAvailability();
+
+    /**
+     * Find the books with an ID greater than the given one, in ID order, without
+     * putting them in the second-level cache. Used to page through the whole
+     * catalog.
+     * 
+     * @param after    The exclusive lower bound of the IDs.
+     * @param pageable The maximum number of books to return.
+     * @return The next books in ID order.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("select b from Book b where b.id > :after order by b.id")
+    List<Book> findPageAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Find the books of a branch with an ID greater than the given one, in ID
+     * order. Served by the branch index, so other branches' rows are not read.
+     * The books are not put in the second-level cache, since the branch caches
+     * hold them.
+     * 
+     * @param branchCode The code of the branch.
+     * @param after      The exclusive lower bound of the IDs.
+     * @param pageable   The maximum number of books to return.
+     * @return The next books of the branch in ID order.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE"))
+    @Query("select b from Book b where b.branchCode = :branchCode and b.id > :after order by b.id")
+    List<Book> findBranchPageAfter(@Param("branchCode") String branchCode, @Param("after") long after,
+            Pageable pageable);
+
+    /**
+     * Find the codes of the branches with books and the number of books in each.
+     * 
+     * @return One array of branch code and number of books per branch, in
+     *         branch code order.
+     */
+    @Query("select b.branchCode, count(b) from Book b group by b.branchCode order by b.branchCode")
+    List<Object[]> countByBranch();
+
+    /**
+     * Find the books written after one change sequence number, up to another,
+     * in sequence order. Served by the change sequence index.
+     * 
+     * @param since    The exclusive lower bound.
+     * @param upTo     The inclusive upper bound.
+     * @param pageable The maximum number of books to return.
+     * @return The books written in the range.
+     */
+    @Query("select b from Book b where b.changeSeq > :since and b.changeSeq <= :upTo order by b.changeSeq")
+    List<Book> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
 }
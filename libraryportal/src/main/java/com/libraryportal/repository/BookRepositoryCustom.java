@@ -0,0 +1,40 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import com.libraryportal.entity.Book;
+
+/**
+ * Custom query methods for books that are not expressible as derived queries.
+ */
+public interface BookRepositoryCustom {
+
+    /**
+     * Find all books, selecting only the requested fields.
+     * 
+     * @param fields The names of the book fields to select.
+     * @return One map per book, keyed by field name.
+     * @throws IllegalArgumentException If an unknown field is requested.
+     */
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    /**
+     * Insert a book with one copy, or add a copy to the book with the same
+     * branch, ISBN, title and author, in a single statement that also returns the
+     * row as written. A new book has its one copy available, and an added copy
+     * is available, so the book is available either way. Runs in its own transaction unless called within one.
+     * 
+     * @param branchCode The branch holding the copies.
+     * @param isbn       The ISBN of the book.
+     * @param title      The title of the book.
+     * @param author     The author of the book.
+     * @return The inserted or updated book.
+     * @throws org.springframework.dao.DataIntegrityViolationException If a
+     *         concurrent registration inserted the same book first.
+     */
+    @Transactional
+    Book upsert(String branchCode, String isbn, String title, String author);
+}
@@ -0,0 +1,112 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.hibernate.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.util.BookStatus;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link BookRepositoryCustom} on top of the JPA criteria
+ * API and native queries.
+ */
+class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final Set<String> SELECTABLE_FIELDS = Set.of("id", "isbn", "title", "author", "branchCode",
+            "noOfCopies", "totalCopies", "status");
+    private static final String QUERY_REGION = "book-queries";
+
+    // Titles and authors are optional, so they are matched through their key
+    // columns, which hold a missing one as the empty string. The new copy is
+    // the highest-numbered one and available, so the bitmap is unchanged, and
+    // a new book starts with its one copy on the shelf.
+    private static final String UPSERT = "SELECT id, branch_code, isbn, title, author, no_of_copies, total_copies, "
+            + "copy_bitmap, status, change_seq FROM FINAL TABLE (MERGE INTO book t "
+            + "USING (VALUES (CAST(:branchCode AS VARCHAR), CAST(:isbn AS VARCHAR), CAST(:title AS VARCHAR), "
+            + "CAST(:author AS VARCHAR))) s(branch_code, isbn, title, author) "
+            + "ON t.branch_code = s.branch_code AND t.isbn = s.isbn AND t.title_key = COALESCE(s.title, '') "
+            + "AND t.author_key = COALESCE(s.author, '') "
+            + "WHEN MATCHED THEN UPDATE SET no_of_copies = t.no_of_copies + 1, total_copies = t.total_copies + 1, "
+            + "status = 'AVAILABLE', change_seq = :changeSeq "
+            + "WHEN NOT MATCHED THEN INSERT (branch_code, isbn, title, author, no_of_copies, total_copies, status, "
+            + "change_seq) VALUES (s.branch_code, s.isbn, s.title, s.author, 1, 1, 'AVAILABLE', :changeSeq))";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ChangeSequence changeSequence;
+
+    BookRepositoryCustomImpl(ChangeSequence changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return FieldsetQuery.selectAll(entityManager, Book.class, SELECTABLE_FIELDS, fields);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The merge is wrapped in an H2 data change delta table, so the statement
+     * returns the row as written. Two merges of a new book can both take the
+     * insert branch; the unique constraint on branch, ISBN, title key and author
+     * key rejects the second, even when the title or author is missing, and a
+     * retry then takes the update branch. The statement bypasses the
+     * persistence context, so the book and the book queries are
+     * evicted from the second-level cache, and the change sequence number is
+     * assigned here instead of by the entity listener.
+     */
+    @Override
+    public Book upsert(String branchCode, String isbn, String title, String author) {
+        List<?> rows = entityManager.createNativeQuery(UPSERT)
+                .setParameter("branchCode", branchCode)
+                .setParameter("isbn", isbn)
+                .setParameter("title", title)
+                .setParameter("author", author)
+                .setParameter("changeSeq", changeSequence.assign())
+                .getResultList();
+        Object[] row = (Object[]) rows.get(0);
+        Book book = new Book();
+        book.setId(((Number) row[0]).longValue());
+        book.setBranchCode((String) row[1]);
+        book.setIsbn((String) row[2]);
+        book.setTitle((String) row[3]);
+        book.setAuthor((String) row[4]);
+        book.setNoOfCopies(((Number) row[5]).intValue());
+        book.setTotalCopies(((Number) row[6]).intValue());
+        book.setCopyBitmap((byte[]) row[7]);
+        book.setStatus(row[8] == null ? null : BookStatus.valueOf((String) row[8]));
+        book.setChangeSeq(((Number) row[9]).longValue());
+        evict(book.getId());
+        return book;
+    }
+
+    /**
+     * Evict a book and the book queries from the second-level cache now, and
+     * again once the transaction completes, so a concurrent reader cannot cache
+     * the old row in between.
+     */
+    private void evict(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        cache.evictEntityData(Book.class, id);
+        cache.evictQueryRegion(QUERY_REGION);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evictEntityData(Book.class, id);
+                    cache.evictQueryRegion(QUERY_REGION);
+                }
+            });
+        }
+    }
+}
@@ -1,13 +1,28 @@
 package com.libraryportal.repository;
 
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.BorrowerSummary;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for accessing borrower data in the database.
+ * <p>
+ * Lookups by email are cached in the {@code borrower-queries} query cache
+ * region. Hibernate invalidates the region whenever the borrower table is
+ * written through the persistence context.
  */
-public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
+public interface BorrowerRepository extends JpaRepository<Borrower, Long>, BorrowerRepositoryCustom {
 
     /**
      * Find a borrower by email address.
@@ -15,5 +30,46 @@ public interface BorrowerRepository extends JpaRepository<Borrower, Long> {
      * @param email The email address of the borrower to find.
      * @return The borrower with the specified email address, or null if not found.
      */
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "borrower-queries") })
     Borrower findByEmail(String email);
+
+    /**
+     * Find all borrowers as summaries, selecting only the summary columns.
+     * 
+     * @return The summaries of all borrowers.
+     */
+    List<BorrowerSummary> findAllProjectedBy();
+
+    /**
+     * Find the email addresses of all borrowers, selecting only that column.
+     * 
+     * @return The email addresses of all borrowers.
+     */
+    @Query("select b.email from Borrower b")
+    List<String> findAllEmails();
+
+    /**
+     * Delete a borrower in a single statement, without loading it first as
+     * {@link #deleteById(Object)} does. The borrower and the email lookups are
+     * evicted from the second-level cache by Hibernate.
+     * 
+     * @param id The ID of the borrower to delete.
+     * @return The number of borrowers deleted, 0 if the ID was unknown.
+     */
+    @Modifying
+    @Query("delete from Borrower b where b.id = :id")
+    int removeById(@Param("id") Long id);
+
+    /**
+     * Find the borrowers written after one change sequence number, up to another,
+     * in sequence order. Served by the change sequence index.
+     * 
+     * @param since    The exclusive lower bound.
+     * @param upTo     The inclusive upper bound.
+     * @param pageable The maximum number of borrowers to return.
+     * @return The borrowers written in the range.
+     */
+    @Query("select b from Borrower b where b.changeSeq > :since and b.changeSeq <= :upTo order by b.changeSeq")
+    List<Borrower> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
 }
@@ -0,0 +1,34 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.libraryportal.entity.Borrower;
+
+/**
+ * Custom query methods for borrowers that are not expressible as derived
+ * queries.
+ */
+public interface BorrowerRepositoryCustom {
+
+    /**
+     * Find all borrowers, selecting only the requested fields.
+     * 
+     * @param fields The names of the borrower fields to select.
+     * @return One map per borrower, keyed by field name.
+     * @throws IllegalArgumentException If an unknown field is requested.
+     */
+    List<Map<String, Object>> findAllFields(List<String> fields);
+
+    /**
+     * Update only the supplied fields of a borrower in a single statement, and
+     * return the updated row from the same statement.
+     * 
+     * @param id    The ID of the borrower to update.
+     * @param name  The new name, or null to keep the current one.
+     * @param email The new email address, or null to keep the current one.
+     * @return The updated borrower, or empty if no borrower has the ID.
+     */
+    Optional<Borrower> patch(Long id, String name, String email);
+}
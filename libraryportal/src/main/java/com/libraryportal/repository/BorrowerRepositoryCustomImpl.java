@@ -0,0 +1,105 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.hibernate.Cache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.libraryportal.entity.Borrower;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+/**
+ * Implementation of {@link BorrowerRepositoryCustom} on top of the JPA
+ * criteria API and native queries.
+ */
+class BorrowerRepositoryCustomImpl implements BorrowerRepositoryCustom {
+
+    private static final Set<String> SELECTABLE_FIELDS = Set.of("id", "name", "email");
+    private static final String QUERY_REGION = "borrower-queries";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ChangeSequence changeSequence;
+
+    BorrowerRepositoryCustomImpl(ChangeSequence changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @Override
+    public List<Map<String, Object>> findAllFields(List<String> fields) {
+        return FieldsetQuery.selectAll(entityManager, Borrower.class, SELECTABLE_FIELDS, fields);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The update is wrapped in an H2 data change delta table, so the statement
+     * returns the row as written. It bypasses the persistence context, so the
+     * borrower and the email lookups are evicted from the second-level cache,
+     * and the change sequence number is assigned here instead of by the entity
+     * listener.
+     */
+    @Override
+    public Optional<Borrower> patch(Long id, String name, String email) {
+        StringBuilder assignments = new StringBuilder();
+        if (name != null) {
+            assignments.append("name = :name, ");
+        }
+        if (email != null) {
+            assignments.append("email = :email, ");
+        }
+        assignments.append("change_seq = :changeSeq");
+
+        Query query = entityManager.createNativeQuery("SELECT id, name, email, change_seq FROM FINAL TABLE "
+                + "(UPDATE borrower SET " + assignments + " WHERE id = :id)");
+        if (name != null) {
+            query.setParameter("name", name);
+        }
+        if (email != null) {
+            query.setParameter("email", email);
+        }
+        query.setParameter("changeSeq", changeSequence.assign());
+        query.setParameter("id", id);
+
+        List<?> rows = query.getResultList();
+        evict(id);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        Borrower borrower = new Borrower();
+        borrower.setId(((Number) row[0]).longValue());
+        borrower.setName((String) row[1]);
+        borrower.setEmail((String) row[2]);
+        borrower.setChangeSeq(((Number) row[3]).longValue());
+        return Optional.of(borrower);
+    }
+
+    /**
+     * Evict a borrower and the email lookups from the second-level cache now,
+     * and again once the transaction completes, so a concurrent reader cannot
+     * cache the old row in between.
+     */
+    private void evict(Long id) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        cache.evictEntityData(Borrower.class, id);
+        cache.evictQueryRegion(QUERY_REGION);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evictEntityData(Borrower.class, id);
+                    cache.evictQueryRegion(QUERY_REGION);
+                }
+            });
+        }
+    }
+}
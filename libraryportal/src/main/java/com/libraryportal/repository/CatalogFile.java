@@ -0,0 +1,323 @@
+package com.libraryportal.repository;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only catalog snapshot held in two memory-mapped files, so that
+ * browsing a very large catalog keeps no book objects on the heap.
+ * <p>
+ * The data file is one JSON array holding the serialized books in id order.
+ * It is mapped in segments of at most {@link #DEFAULT_SEGMENT_BYTES}, and the
+ * writer pads with whitespace so that no book straddles two segments. The
+ * index file holds one fixed-size entry per book (id, offset and length of its
+ * JSON), followed by a trailer with the number of books and the segment size.
+ * A book is found by binary search over the index, and a range of books is
+ * one contiguous run of the data file, copied to the response as it is
+ * without serializing any book again. The copy still goes through the heap
+ * buffer of the response stream; it is not a zero-copy transfer.
+ */
+public final class CatalogFile {
+
+    /** Largest mapped segment of the data file. */
+    public static final long DEFAULT_SEGMENT_BYTES = 1L << 30;
+
+    private static final int ENTRY_BYTES = 24;
+    private static final int TRAILER_BYTES = 24;
+    private static final int MAGIC = 0x4C50_4353; // "LPCS"
+    private static final int VERSION = 1;
+    private static final byte[] OPEN = { '[' };
+    private static final byte[] CLOSE = { ']' };
+    private static final byte[] EMPTY = { '[', ']' };
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final MappedByteBuffer[] segments;
+    private final MappedByteBuffer index;
+    private final long segmentBytes;
+    private final int size;
+
+    private CatalogFile(Path dataFile, Path indexFile, MappedByteBuffer[] segments, MappedByteBuffer index,
+            long segmentBytes, int size) {
+        this.dataFile = dataFile;
+        this.indexFile = indexFile;
+        this.segments = segments;
+        this.index = index;
+        this.segmentBytes = segmentBytes;
+        this.size = size;
+    }
+
+    /**
+     * Start writing a new catalog.
+     *
+     * @param dataFile  The data file to create.
+     * @param indexFile The index file to create.
+     * @return The writer, to be closed once every book is appended.
+     * @throws IOException If the files cannot be created.
+     */
+    public static Writer create(Path dataFile, Path indexFile) throws IOException {
+        return new Writer(dataFile, indexFile, DEFAULT_SEGMENT_BYTES);
+    }
+
+    static Writer create(Path dataFile, Path indexFile, long segmentBytes) throws IOException {
+        return new Writer(dataFile, indexFile, segmentBytes);
+    }
+
+    /**
+     * Map a catalog written by a {@link Writer}.
+     *
+     * @param dataFile  The data file.
+     * @param indexFile The index file.
+     * @return The mapped catalog.
+     * @throws IOException If the files cannot be mapped or are not a catalog.
+     */
+    public static CatalogFile open(Path dataFile, Path indexFile) throws IOException {
+        try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ);
+                FileChannel dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            long indexBytes = indexChannel.size();
+            if (indexBytes < TRAILER_BYTES || indexBytes > Integer.MAX_VALUE) {
+                throw new IOException("Not a catalog index: " + indexFile);
+            }
+            MappedByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, indexBytes);
+            int trailer = (int) indexBytes - TRAILER_BYTES;
+            long count = index.getLong(trailer);
+            long segmentBytes = index.getLong(trailer + 8);
+            if (index.getInt(trailer + 16) != MAGIC || index.getInt(trailer + 20) != VERSION
+                    || count * ENTRY_BYTES != trailer) {
+                throw new IOException("Not a catalog index: " + indexFile);
+            }
+
+            long dataBytes = dataChannel.size();
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((dataBytes + segmentBytes - 1) / segmentBytes)];
+            for (int i = 0; i < segments.length; i++) {
+                long position = i * segmentBytes;
+                segments[i] = dataChannel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(segmentBytes, dataBytes - position));
+            }
+            return new CatalogFile(dataFile, indexFile, segments, index, segmentBytes, (int) count);
+        }
+    }
+
+    /**
+     * Get the number of books in the catalog.
+     *
+     * @return The number of books.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Find the position of a book in the catalog.
+     *
+     * @param id The ID of the book.
+     * @return The position of the book, or -1 if it is not in the catalog.
+     */
+    public int indexOf(long id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = index.getLong(mid * ENTRY_BYTES);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the ID of the book at a position.
+     *
+     * @param position The position of the book.
+     * @return The ID of the book.
+     */
+    public long idAt(int position) {
+        checkPosition(position);
+        return index.getLong(position * ENTRY_BYTES);
+    }
+
+    /**
+     * Write the JSON of one book.
+     *
+     * @param position The position of the book.
+     * @param out      The channel to write to.
+     * @throws IOException If writing fails.
+     */
+    public void writeBook(int position, WritableByteChannel out) throws IOException {
+        long offset = offset(position);
+        write(offset, offset + length(position), out);
+    }
+
+    /**
+     * Write the books at a range of positions as a JSON array.
+     *
+     * @param from The position of the first book, inclusive.
+     * @param to   The position after the last book, exclusive.
+     * @param out  The channel to write to.
+     * @throws IOException If writing fails.
+     */
+    public void writeBooks(int from, int to, WritableByteChannel out) throws IOException {
+        if (from >= to) {
+            writeFully(ByteBuffer.wrap(EMPTY), out);
+            return;
+        }
+        writeFully(ByteBuffer.wrap(OPEN), out);
+        write(offset(from), offset(to - 1) + length(to - 1), out);
+        writeFully(ByteBuffer.wrap(CLOSE), out);
+    }
+
+    /**
+     * Delete the files of the catalog. On most platforms the mapping stays
+     * readable until it is garbage collected, so responses still streaming from
+     * it are unaffected.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    public void delete() throws IOException {
+        Files.deleteIfExists(dataFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    private long offset(int position) {
+        checkPosition(position);
+        return index.getLong(position * ENTRY_BYTES + 8);
+    }
+
+    private int length(int position) {
+        checkPosition(position);
+        return index.getInt(position * ENTRY_BYTES + 16);
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside a catalog of " + size);
+        }
+    }
+
+    private ByteBuffer book(int position) {
+        // The writer keeps every book within one segment
+        long offset = offset(position);
+        return segments[(int) (offset / segmentBytes)].slice((int) (offset % segmentBytes), length(position));
+    }
+
+    private void write(long start, long end, WritableByteChannel out) throws IOException {
+        while (start < end) {
+            MappedByteBuffer segment = segments[(int) (start / segmentBytes)];
+            int within = (int) (start % segmentBytes);
+            int length = (int) Math.min(end - start, segment.capacity() - within);
+            writeFully(segment.slice(within, length), out);
+            start += length;
+        }
+    }
+
+    private static void writeFully(ByteBuffer buffer, WritableByteChannel out) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * Appends books in increasing id order to a new catalog.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final OutputStream data;
+        private final WritableByteChannel dataChannel;
+        private final DataOutputStream index;
+        private final long segmentBytes;
+        private long position;
+        private long count;
+        private long lastId = Long.MIN_VALUE;
+
+        private Writer(Path dataFile, Path indexFile, long segmentBytes) throws IOException {
+            this.data = new BufferedOutputStream(Files.newOutputStream(dataFile), 1 << 16);
+            this.dataChannel = Channels.newChannel(data);
+            this.index = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile), 1 << 16));
+            this.segmentBytes = segmentBytes;
+            data.write(OPEN);
+            position = 1;
+        }
+
+        /**
+         * Append a book.
+         *
+         * @param id   The ID of the book, greater than that of the previous book.
+         * @param json The JSON of the book.
+         * @throws IOException If writing fails.
+         */
+        public void append(long id, byte[] json) throws IOException {
+            append(id, ByteBuffer.wrap(json));
+        }
+
+        /**
+         * Append a book as it is stored in another catalog, without
+         * serializing it again.
+         *
+         * @param from     The catalog holding the book.
+         * @param position The position of the book in that catalog.
+         * @throws IOException If writing fails.
+         */
+        public void append(CatalogFile from, int position) throws IOException {
+            append(from.idAt(position), from.book(position));
+        }
+
+        private void append(long id, ByteBuffer json) throws IOException {
+            int length = json.remaining();
+            if (id <= lastId) {
+                throw new IllegalArgumentException("Books must be appended in increasing id order");
+            }
+            if (length > segmentBytes) {
+                throw new IllegalArgumentException("Book " + id + " is larger than a catalog segment");
+            }
+            if (count > 0) {
+                data.write(',');
+                position++;
+            }
+            if (position / segmentBytes != (position + length - 1) / segmentBytes) {
+                // Whitespace between array elements keeps the book in one segment.
+                long padding = segmentBytes - position % segmentBytes;
+                for (long i = 0; i < padding; i++) {
+                    data.write(' ');
+                }
+                position += padding;
+            }
+            index.writeLong(id);
+            index.writeLong(position);
+            index.writeInt(length);
+            index.writeInt(0);
+            writeFully(json, dataChannel);
+            position += length;
+            count++;
+            lastId = id;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (OutputStream d = data; DataOutputStream i = index) {
+                data.write(CLOSE);
+                if (count * ENTRY_BYTES + TRAILER_BYTES > Integer.MAX_VALUE) {
+                    throw new IOException("Catalog of " + count + " books is too large to index");
+                }
+                index.writeLong(count);
+                index.writeLong(segmentBytes);
+                index.writeInt(MAGIC);
+                index.writeInt(VERSION);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.libraryportal.repository;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.libraryportal.exception.WritesSuspendedException;
+
+/**
+ * Monotonically increasing sequence numbering the writes of books, borrowers
+ * and tombstones.
+ * <p>
+ * Numbers are assigned when a row is flushed, but transactions may commit in
+ * a different order. The sequence therefore tracks the numbers whose
+ * transaction is still open, and {@link #watermark()} only reaches up to the
+ * first of them: every row numbered at or below the watermark is committed,
+ * so a client that synced up to it can never miss a row committed later.
+ * <p>
+ * The sequence continues from the highest number in the database, read on
+ * first use once the schema exists.
+ * <p>
+ * Every write is numbered here, so the sequence also gates writes: while
+ * writes are suspended no number is assigned, and suspending them waits for
+ * the transactions of the writes already numbered to end.
+ */
+@Component
+public class ChangeSequence {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChangeSequence.class);
+
+    private static final String[] TABLES = { "book", "borrower", "deleted_record" };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NavigableSet<Long> open = new TreeSet<>();
+    private long last;
+    private boolean seeded;
+    private boolean writesSuspended;
+
+    public ChangeSequence(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Assign the next number to a write whose transaction is still open.
+     * 
+     * @return The assigned number.
+     * @throws WritesSuspendedException If writes are suspended.
+     */
+    public synchronized long next() {
+        checkWritable();
+        seed();
+        long changeSeq = ++last;
+        open.add(changeSeq);
+        return changeSeq;
+    }
+
+    /**
+     * Assign the next number to a write in the current transaction, and complete
+     * it once the transaction ends, or straight away outside a transaction.
+     * 
+     * @return The assigned number.
+     * @throws WritesSuspendedException If writes are suspended.
+     */
+    public long assign() {
+        long changeSeq = next();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(changeSeq);
+                }
+            });
+        } else {
+            complete(changeSeq);
+        }
+        return changeSeq;
+    }
+
+    /**
+     * Mark the transaction of a write as committed or rolled back.
+     * 
+     * @param changeSeq The number assigned to the write.
+     */
+    public synchronized void complete(long changeSeq) {
+        open.remove(changeSeq);
+        if (open.isEmpty()) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Fail a write early if writes are suspended, before it does any work.
+     *
+     * @throws WritesSuspendedException If writes are suspended.
+     */
+    public synchronized void checkWritable() {
+        if (writesSuspended) {
+            throw new WritesSuspendedException("The library is being restored, please retry shortly.");
+        }
+    }
+
+    /**
+     * Suspend writes and wait for the transactions of the writes already
+     * numbered to end. Writes stay suspended until {@link #resumeWrites()}.
+     *
+     * @param timeoutMillis How long to wait for the open transactions.
+     * @return True if writes are suspended and no write is open, false if the
+     *         open transactions did not end in time, in which case writes are
+     *         resumed again.
+     * @throws IllegalStateException If writes are already suspended.
+     */
+    public synchronized boolean suspendWrites(long timeoutMillis) {
+        if (writesSuspended) {
+            throw new IllegalStateException("Writes are already suspended.");
+        }
+        writesSuspended = true;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            long remaining;
+            while (!open.isEmpty() && (remaining = deadline - System.nanoTime()) > 0) {
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!open.isEmpty()) {
+            writesSuspended = false;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Resume the writes suspended by {@link #suspendWrites(long)}.
+     */
+    public synchronized void resumeWrites() {
+        writesSuspended = false;
+    }
+
+    /**
+     * Continue the sequence after a number written to the database without
+     * being assigned here, e.g. by a restored snapshot.
+     *
+     * @param changeSeq The highest number written.
+     */
+    public synchronized void advanceTo(long changeSeq) {
+        seed();
+        last = Math.max(last, changeSeq);
+    }
+
+    /**
+     * Get the highest number up to which all writes are complete.
+     * 
+     * @return The watermark.
+     */
+    public synchronized long watermark() {
+        seed();
+        return open.isEmpty() ? last : open.first() - 1;
+    }
+
+    private void seed() {
+        if (!seeded) {
+            for (String table : TABLES) {
+                Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(change_seq), 0) FROM " + table,
+                        Long.class);
+                last = Math.max(last, max);
+            }
+            seeded = true;
+            LOGGER.info("Change sequence continues after {}", last);
+        }
+    }
+}
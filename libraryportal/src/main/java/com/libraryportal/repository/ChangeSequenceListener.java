@@ -0,0 +1,35 @@
+package com.libraryportal.repository;
+
+import org.springframework.stereotype.Component;
+
+import com.libraryportal.entity.ChangeTracked;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Entity listener numbering every insert and update of a
+ * {@link ChangeTracked} entity in the {@link ChangeSequence}. Hibernate
+ * obtains it from the Spring context.
+ */
+@Component
+public class ChangeSequenceListener {
+
+    private final ChangeSequence changeSequence;
+
+    public ChangeSequenceListener(ChangeSequence changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    /**
+     * Assign the next change sequence number to an entity about to be written,
+     * and complete it in the sequence once the transaction ends.
+     * 
+     * @param entity The entity about to be inserted or updated.
+     */
+    @PrePersist
+    @PreUpdate
+    public void assignChangeSeq(Object entity) {
+        ((ChangeTracked) entity).setChangeSeq(changeSequence.assign());
+    }
+}
@@ -0,0 +1,206 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Bulk reads and writes of the book and borrower tables for snapshots, in
+ * plain JDBC so that no entities pass through a persistence context and the
+ * rows keep their ids and change sequence numbers.
+ * <p>
+ * The statements bypass the second-level cache, which the caller has to evict
+ * once a load is complete.
+ */
+@Component
+public class DatasetRepository {
+
+    /**
+     * Secondary indexes that can be dropped during a load and built afterwards
+     * in one pass over the loaded rows. Unique constraints stay in place, since
+     * H2 checks them on every insert and cannot defer them.
+     */
+    private static final String[][] DEFERRED_INDEXES = {
+            { "idx_book_change_seq", "book", "change_seq" },
+            { "idx_book_branch", "book", "branch_code, id" },
+            { "idx_borrower_change_seq", "borrower", "change_seq" } };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatasetRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Check whether the book and borrower tables are both empty.
+     *
+     * @return true if there are no books and no borrowers.
+     */
+    public boolean isEmpty() {
+        return !jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM book) OR EXISTS (SELECT 1 FROM borrower)", Boolean.class);
+    }
+
+    /**
+     * Find the books with an ID greater than the given one, in ID order.
+     *
+     * @param after The ID to continue after, 0 for the first books.
+     * @param limit The maximum number of books.
+     * @return The books.
+     */
+    public List<Book> findBooksAfter(long after, int limit) {
+        return jdbcTemplate.query("SELECT id, isbn, title, author, branch_code, no_of_copies, total_copies, "
+                + "copy_bitmap, status, change_seq FROM book WHERE id > ? ORDER BY id LIMIT ?", (rs, rowNum) -> {
+                    Book book = new Book();
+                    book.setId(rs.getLong(1));
+                    book.setIsbn(rs.getString(2));
+                    book.setTitle(rs.getString(3));
+                    book.setAuthor(rs.getString(4));
+                    book.setBranchCode(rs.getString(5));
+                    book.setNoOfCopies(rs.getInt(6));
+                    book.setTotalCopies(rs.getInt(7));
+                    book.setCopyBitmap(rs.getBytes(8));
+                    String status = rs.getString(9);
+                    book.setStatus(status == null ? null : BookStatus.valueOf(status));
+                    book.setChangeSeq(rs.getObject(10, Long.class));
+                    return book;
+                }, after, limit);
+    }
+
+    /**
+     * Find the borrowers with an ID greater than the given one, in ID order.
+     *
+     * @param after The ID to continue after, 0 for the first borrowers.
+     * @param limit The maximum number of borrowers.
+     * @return The borrowers.
+     */
+    public List<Borrower> findBorrowersAfter(long after, int limit) {
+        return jdbcTemplate.query("SELECT id, name, email, change_seq FROM borrower WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> {
+                    Borrower borrower = new Borrower();
+                    borrower.setId(rs.getLong(1));
+                    borrower.setName(rs.getString(2));
+                    borrower.setEmail(rs.getString(3));
+                    borrower.setChangeSeq(rs.getObject(4, Long.class));
+                    return borrower;
+                }, after, limit);
+    }
+
+    /**
+     * Insert books with their IDs in one JDBC batch.
+     *
+     * @param books The books to insert.
+     */
+    public void insertBooks(List<Book> books) {
+        jdbcTemplate.batchUpdate("INSERT INTO book (id, isbn, title, author, branch_code, no_of_copies, total_copies, "
+                + "copy_bitmap, status, change_seq) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", books, books.size(), (ps, book) -> {
+                    ps.setLong(1, book.getId());
+                    ps.setString(2, book.getIsbn());
+                    ps.setString(3, book.getTitle());
+                    ps.setString(4, book.getAuthor());
+                    ps.setString(5, book.getBranchCode() == null ? Book.DEFAULT_BRANCH : book.getBranchCode());
+                    ps.setInt(6, book.getNoOfCopies());
+                    ps.setInt(7, Math.max(book.getTotalCopies(), book.getNoOfCopies()));
+                    ps.setBytes(8, book.getCopyBitmap());
+                    ps.setString(9, book.getStatus() == null ? null : book.getStatus().name());
+                    ps.setObject(10, book.getChangeSeq());
+                });
+    }
+
+    /**
+     * Insert borrowers with their IDs in one JDBC batch.
+     *
+     * @param borrowers The borrowers to insert.
+     */
+    public void insertBorrowers(List<Borrower> borrowers) {
+        jdbcTemplate.batchUpdate("INSERT INTO borrower (id, name, email, change_seq) VALUES (?, ?, ?, ?)",
+                borrowers, borrowers.size(), (ps, borrower) -> {
+                    ps.setLong(1, borrower.getId());
+                    ps.setString(2, borrower.getName());
+                    ps.setString(3, borrower.getEmail());
+                    ps.setObject(4, borrower.getChangeSeq());
+                });
+    }
+
+    /**
+     * Drop the secondary indexes that are cheaper to build after a load.
+     */
+    public void dropDeferredIndexes() {
+        for (String[] index : DEFERRED_INDEXES) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index[0]);
+        }
+    }
+
+    /**
+     * Build the secondary indexes dropped by {@link #dropDeferredIndexes()}.
+     */
+    public void createDeferredIndexes() {
+        for (String[] index : DEFERRED_INDEXES) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + index[0] + " ON " + index[1] + " (" + index[2] + ")");
+        }
+    }
+
+    /**
+     * Continue the generated book IDs after a book about to be loaded, since
+     * rows inserted with their IDs do not advance the identity column.
+     *
+     * @param lastId The highest ID about to be loaded.
+     */
+    public void continueBookIdsAfter(long lastId) {
+        jdbcTemplate.execute("ALTER TABLE book ALTER COLUMN id RESTART WITH " + (lastId + 1));
+    }
+
+    /**
+     * Continue the generated borrower IDs after a borrower about to be loaded.
+     *
+     * @param lastId The highest ID about to be loaded.
+     */
+    public void continueBorrowerIdsAfter(long lastId) {
+        jdbcTemplate.execute("ALTER TABLE borrower ALTER COLUMN id RESTART WITH " + (lastId + 1));
+    }
+
+    /**
+     * Get the highest change sequence number of the books and borrowers.
+     *
+     * @return The highest number, or 0 if there are none.
+     */
+    public long maxChangeSeq() {
+        return jdbcTemplate.queryForObject("SELECT GREATEST((SELECT COALESCE(MAX(change_seq), 0) FROM book), "
+                + "(SELECT COALESCE(MAX(change_seq), 0) FROM borrower))", Long.class);
+    }
+
+    /**
+     * Delete the books within a range of IDs.
+     *
+     * @param fromId The lowest ID to delete.
+     * @param toId   The highest ID to delete.
+     * @return The number of books deleted.
+     */
+    public int deleteBooks(long fromId, long toId) {
+        return jdbcTemplate.update("DELETE FROM book WHERE id BETWEEN ? AND ?", fromId, toId);
+    }
+
+    /**
+     * Delete the borrowers within a range of IDs.
+     *
+     * @param fromId The lowest ID to delete.
+     * @param toId   The highest ID to delete.
+     * @return The number of borrowers deleted.
+     */
+    public int deleteBorrowers(long fromId, long toId) {
+        return jdbcTemplate.update("DELETE FROM borrower WHERE id BETWEEN ? AND ?", fromId, toId);
+    }
+
+    /**
+     * Delete every book and borrower.
+     */
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE book");
+        jdbcTemplate.execute("TRUNCATE TABLE borrower");
+    }
+}
@@ -0,0 +1,277 @@
+package com.libraryportal.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Compact binary snapshot of the books and borrowers, used to seed a node
+ * without going through the REST API.
+ * <p>
+ * The snapshot is one gzip stream. After a header with a magic number and the
+ * format version come chunks of rows, each a section byte, a row count and the
+ * rows, and a final section byte of 0. Rows are written field by field in a
+ * fixed order: numbers in binary, strings as modified UTF-8 behind a presence
+ * flag, the status as its ordinal plus one and a missing change sequence
+ * number as 0. Every chunk is complete in itself, so a snapshot can be written
+ * and read a chunk at a time. Version 2 adds the branch code of each book after
+ * its author; books of version 1 snapshots belong to the default branch.
+ * Version 3 adds the total number of copies and the copy bitmap after the
+ * number of copies available; a borrowed book of an older snapshot has its
+ * first copy on loan, like the V3 schema migration assumes.
+ */
+public final class DatasetSnapshot {
+
+    /** Section of the book chunks, which come first. */
+    public static final byte BOOKS = 1;
+    /** Section of the borrower chunks. */
+    public static final byte BORROWERS = 2;
+
+    private static final byte END = 0;
+    private static final int MAGIC = 0x4C50_4453; // "LPDS"
+    private static final int VERSION = 3;
+    private static final int MIN_VERSION = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final BookStatus[] STATUSES = BookStatus.values();
+
+    private DatasetSnapshot() {
+    }
+
+    /**
+     * Start writing a snapshot.
+     *
+     * @param out The stream to write to, left open when the writer is closed.
+     * @return The writer, to be closed once every chunk is written.
+     * @throws IOException If writing fails.
+     */
+    public static Writer write(OutputStream out) throws IOException {
+        return new Writer(out);
+    }
+
+    /**
+     * Start reading a snapshot.
+     *
+     * @param in The stream to read from.
+     * @return The reader.
+     * @throws IOException If reading fails or the stream is not a snapshot.
+     */
+    public static Reader read(InputStream in) throws IOException {
+        return new Reader(in);
+    }
+
+    /**
+     * Writes chunks of rows to a snapshot.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final GZIPOutputStream gzip;
+        private final DataOutputStream out;
+
+        private Writer(OutputStream target) throws IOException {
+            this.gzip = new GZIPOutputStream(target, BUFFER_BYTES);
+            this.out = new DataOutputStream(new BufferedOutputStream(gzip, BUFFER_BYTES));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+        }
+
+        /**
+         * Write a chunk of books. Book chunks must come before borrower chunks.
+         *
+         * @param books The books of the chunk.
+         * @throws IOException If writing fails.
+         */
+        public void writeBooks(List<Book> books) throws IOException {
+            out.writeByte(BOOKS);
+            out.writeInt(books.size());
+            for (Book book : books) {
+                out.writeLong(book.getId());
+                writeString(book.getIsbn());
+                writeString(book.getTitle());
+                writeString(book.getAuthor());
+                writeString(book.getBranchCode());
+                out.writeInt(book.getNoOfCopies());
+                out.writeInt(book.getTotalCopies());
+                writeBytes(book.getCopyBitmap());
+                out.writeByte(book.getStatus() == null ? 0 : book.getStatus().ordinal() + 1);
+                out.writeLong(book.getChangeSeq() == null ? 0 : book.getChangeSeq());
+            }
+        }
+
+        /**
+         * Write a chunk of borrowers.
+         *
+         * @param borrowers The borrowers of the chunk.
+         * @throws IOException If writing fails.
+         */
+        public void writeBorrowers(List<Borrower> borrowers) throws IOException {
+            out.writeByte(BORROWERS);
+            out.writeInt(borrowers.size());
+            for (Borrower borrower : borrowers) {
+                out.writeLong(borrower.getId());
+                writeString(borrower.getName());
+                writeString(borrower.getEmail());
+                out.writeLong(borrower.getChangeSeq() == null ? 0 : borrower.getChangeSeq());
+            }
+        }
+
+        private void writeBytes(byte[] value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeShort(value.length);
+                out.write(value);
+            }
+        }
+
+        private void writeString(String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeUTF(value);
+            }
+        }
+
+        /**
+         * End the snapshot and finish the gzip stream, leaving the target stream
+         * open.
+         */
+        @Override
+        public void close() throws IOException {
+            out.writeByte(END);
+            out.flush();
+            gzip.finish();
+        }
+    }
+
+    /**
+     * Reads a snapshot a chunk at a time.
+     */
+    public static final class Reader {
+
+        private final DataInputStream in;
+        private final int version;
+        private byte section = -1;
+        private int rows;
+
+        private Reader(InputStream source) throws IOException {
+            this.in = new DataInputStream(
+                    new BufferedInputStream(new GZIPInputStream(source, BUFFER_BYTES), BUFFER_BYTES));
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a dataset snapshot");
+            }
+            this.version = in.readInt();
+            if (version < MIN_VERSION || version > VERSION) {
+                throw new IOException("Unsupported snapshot version " + version);
+            }
+        }
+
+        /**
+         * Move to the next chunk.
+         *
+         * @return The section of the chunk, {@link #BOOKS} or {@link #BORROWERS},
+         *         or 0 at the end of the snapshot.
+         * @throws IOException If reading fails or the snapshot is malformed.
+         */
+        public byte next() throws IOException {
+            if (section > END && rows > 0) {
+                throw new IllegalStateException("The current chunk has not been read");
+            }
+            section = in.readByte();
+            if (section != END && section != BOOKS && section != BORROWERS) {
+                throw new IOException("Unknown snapshot section " + section);
+            }
+            rows = section == END ? 0 : in.readInt();
+            return section;
+        }
+
+        /**
+         * Read the books of the current chunk.
+         *
+         * @return The books, with their ids and change sequence numbers.
+         * @throws IOException If reading fails.
+         */
+        public List<Book> readBooks() throws IOException {
+            expect(BOOKS);
+            List<Book> books = new ArrayList<>(rows);
+            for (; rows > 0; rows--) {
+                Book book = new Book();
+                book.setId(in.readLong());
+                book.setIsbn(readString());
+                book.setTitle(readString());
+                book.setAuthor(readString());
+                if (version >= 2) {
+                    book.setBranchCode(readString());
+                }
+                book.setNoOfCopies(in.readInt());
+                if (version >= 3) {
+                    book.setTotalCopies(in.readInt());
+                    book.setCopyBitmap(readBytes());
+                }
+                int status = in.readByte();
+                book.setStatus(status <= 0 || status > STATUSES.length ? null : STATUSES[status - 1]);
+                if (version < 3) {
+                    boolean borrowed = book.getStatus() == BookStatus.BORROWED;
+                    book.setTotalCopies(book.getNoOfCopies() + (borrowed ? 1 : 0));
+                    book.setCopyBitmap(borrowed ? new byte[] { 1 } : null);
+                }
+                book.setChangeSeq(readChangeSeq());
+                books.add(book);
+            }
+            return books;
+        }
+
+        /**
+         * Read the borrowers of the current chunk.
+         *
+         * @return The borrowers, with their ids and change sequence numbers.
+         * @throws IOException If reading fails.
+         */
+        public List<Borrower> readBorrowers() throws IOException {
+            expect(BORROWERS);
+            List<Borrower> borrowers = new ArrayList<>(rows);
+            for (; rows > 0; rows--) {
+                Borrower borrower = new Borrower();
+                borrower.setId(in.readLong());
+                borrower.setName(readString());
+                borrower.setEmail(readString());
+                borrower.setChangeSeq(readChangeSeq());
+                borrowers.add(borrower);
+            }
+            return borrowers;
+        }
+
+        private void expect(byte expected) {
+            if (section != expected) {
+                throw new IllegalStateException("The current chunk is not in section " + expected);
+            }
+        }
+
+        private byte[] readBytes() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            byte[] value = new byte[in.readUnsignedShort()];
+            in.readFully(value);
+            return value;
+        }
+
+        private String readString() throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
+        }
+
+        private Long readChangeSeq() throws IOException {
+            long changeSeq = in.readLong();
+            return changeSeq == 0 ? null : changeSeq;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.libraryportal.entity.DeletedRecord;
+
+/**
+ * Repository interface for accessing the tombstones of deleted rows.
+ */
+public interface DeletedRecordRepository extends JpaRepository<DeletedRecord, Long> {
+
+    /**
+     * Find the deletions numbered after one change sequence number, up to
+     * another, in sequence order.
+     * 
+     * @param since    The exclusive lower bound.
+     * @param upTo     The inclusive upper bound.
+     * @param pageable The maximum number of deletions to return.
+     * @return The deletions in the range.
+     */
+    @Query("select d from DeletedRecord d where d.changeSeq > :since and d.changeSeq <= :upTo order by d.changeSeq")
+    List<DeletedRecord> findChangedBetween(@Param("since") long since, @Param("upTo") long upTo, Pageable pageable);
+}
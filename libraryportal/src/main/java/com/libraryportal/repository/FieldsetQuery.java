@@ -0,0 +1,72 @@
+package com.libraryportal.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Builds sparse fieldset queries: only the requested attributes are selected
+ * from the database and the rows come back as ordered maps instead of managed
+ * entities, so nothing is added to the persistence context.
+ */
+final class FieldsetQuery {
+
+    private FieldsetQuery() {
+    }
+
+    /**
+     * Select the given attributes of every row of an entity, ordered by id.
+     * 
+     * @param entityManager The entity manager to run the query with.
+     * @param entityClass   The entity to select from.
+     * @param selectable    The attribute names clients are allowed to request.
+     * @param fields        The attribute names requested by the client.
+     * @return One map per row, keyed by attribute name in request order.
+     * @throws IllegalArgumentException If no field or an unknown field is
+     *                                  requested.
+     */
+    static List<Map<String, Object>> selectAll(EntityManager entityManager, Class<?> entityClass,
+            Set<String> selectable, List<String> fields) {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String field : fields) {
+            String name = field.trim();
+            if (!selectable.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+            requested.add(name);
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("At least one field must be requested.");
+        }
+
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<?> root = query.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>(requested.size());
+        for (String name : requested) {
+            selections.add(root.get(name).alias(name));
+        }
+        query.multiselect(selections).orderBy(criteriaBuilder.asc(root.get("id")));
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String name : requested) {
+                row.put(name, tuple.get(name));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
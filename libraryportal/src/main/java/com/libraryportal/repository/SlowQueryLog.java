@@ -0,0 +1,94 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Logs SQL statements that take longer than a threshold to execute: a warning
+ * above the first, an error above the second. The statement is logged without
+ * its parameters, so no personal data reaches the log.
+ */
+public class SlowQueryLog implements QueryExecutionListener, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private final long warnMillis;
+    private final long errorMillis;
+    private Counter slowWarnings;
+    private Counter slowErrors;
+
+    /**
+     * Constructs a new SlowQueryLog.
+     * 
+     * @param warnMillis  The execution time above which a statement is logged as
+     *                    a warning.
+     * @param errorMillis The execution time above which a statement is logged as
+     *                    an error.
+     */
+    public SlowQueryLog(long warnMillis, long errorMillis) {
+        if (warnMillis < 0 || errorMillis < warnMillis) {
+            throw new IllegalArgumentException("Slow query thresholds must satisfy 0 <= warn <= error");
+        }
+        this.warnMillis = warnMillis;
+        this.errorMillis = errorMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Timed by the proxy
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < warnMillis) {
+            return;
+        }
+        String sql = describe(queryInfoList);
+        if (elapsed >= errorMillis) {
+            LOGGER.error("Slow SQL ({} ms, batch of {}, threshold {} ms): {}", elapsed, execInfo.getBatchSize(),
+                    errorMillis, sql);
+            increment(slowErrors);
+        } else {
+            LOGGER.warn("Slow SQL ({} ms, batch of {}, threshold {} ms): {}", elapsed, execInfo.getBatchSize(),
+                    warnMillis, sql);
+            increment(slowWarnings);
+        }
+    }
+
+    private static String describe(List<QueryInfo> queryInfoList) {
+        StringBuilder sql = new StringBuilder();
+        for (QueryInfo queryInfo : queryInfoList) {
+            if (sql.length() > 0) {
+                sql.append("; ");
+            }
+            sql.append(queryInfo.getQuery());
+        }
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql.toString();
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        slowWarnings = Counter.builder("libraryportal.sql.slow").description("SQL statements over a slow threshold")
+                .tag("level", "warn").register(registry);
+        slowErrors = Counter.builder("libraryportal.sql.slow").description("SQL statements over a slow threshold")
+                .tag("level", "error").register(registry);
+    }
+}
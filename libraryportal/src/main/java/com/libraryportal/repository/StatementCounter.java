@@ -0,0 +1,150 @@
+package com.libraryportal.repository;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Counts the SQL statements executed through the data source by type, across
+ * all threads. Each statement of a batch counts separately, so a loop that
+ * batches its inserts is charged the same as one that does not.
+ * <p>
+ * Tests compare {@link #snapshot()}s taken around a call to hold it to a
+ * statement budget; the totals are also published as metrics.
+ */
+public class StatementCounter implements QueryExecutionListener, MeterBinder {
+
+    /** The types statements are counted by. */
+    public enum Type {
+        SELECT, INSERT, UPDATE, DELETE, OTHER
+    }
+
+    private final LongAdder[] counts = new LongAdder[Type.values().length];
+
+    public StatementCounter() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Counted once executed
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            int statements = execInfo.isBatch() ? Math.max(1, queryInfo.getParametersList().size()) : 1;
+            counts[typeOf(queryInfo.getQuery()).ordinal()].add(statements);
+        }
+    }
+
+    /**
+     * Get the number of statements executed so far, by type.
+     * 
+     * @return The counts.
+     */
+    public Counts snapshot() {
+        long[] values = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            values[i] = counts[i].sum();
+        }
+        return new Counts(values);
+    }
+
+    /**
+     * Classify a statement by its first keyword. A {@code WITH} clause or a
+     * data change delta table wrapped in a {@code SELECT} counts as a select.
+     * 
+     * @param sql The statement.
+     * @return The type of the statement.
+     */
+    public static Type typeOf(String sql) {
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        int end = start;
+        while (end < sql.length() && Character.isLetter(sql.charAt(end))) {
+            end++;
+        }
+        switch (sql.substring(start, end).toUpperCase(Locale.ROOT)) {
+        case "SELECT":
+        case "WITH":
+            return Type.SELECT;
+        case "INSERT":
+            return Type.INSERT;
+        case "UPDATE":
+            return Type.UPDATE;
+        case "DELETE":
+            return Type.DELETE;
+        default:
+            return Type.OTHER;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Type type : Type.values()) {
+            FunctionCounter.builder("libraryportal.sql.statements", counts[type.ordinal()], LongAdder::sum)
+                    .description("SQL statements executed").tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Statement counts at one point in time.
+     */
+    public static final class Counts {
+
+        private final long[] values;
+
+        private Counts(long[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Get the number of statements of one type.
+         * 
+         * @param type The type of statement.
+         * @return The number of statements.
+         */
+        public long get(Type type) {
+            return values[type.ordinal()];
+        }
+
+        /**
+         * Get the statements executed since earlier counts were taken.
+         * 
+         * @param earlier The earlier counts.
+         * @return The difference.
+         */
+        public Counts since(Counts earlier) {
+            long[] difference = new long[values.length];
+            for (int i = 0; i < values.length; i++) {
+                difference[i] = values[i] - earlier.values[i];
+            }
+            return new Counts(difference);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (Type type : Type.values()) {
+                if (text.length() > 0) {
+                    text.append(", ");
+                }
+                text.append(values[type.ordinal()]).append(' ').append(type.name().toLowerCase(Locale.ROOT));
+            }
+            return text.toString();
+        }
+    }
+}
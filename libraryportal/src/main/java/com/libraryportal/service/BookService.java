@@ -1,8 +1,10 @@
 package com.libraryportal.service;
 
 import java.util.List;
+import java.util.Map;
 
 import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookSummary;
 import com.libraryportal.entity.BorrowedBookDetails;
 import com.libraryportal.exception.BookNotFoundException;
 import com.libraryportal.exception.BorrowerNotFoundException;
@@ -14,8 +16,14 @@ public interface BookService {
 
     List<Book> getAllBooks();
 
+    List<Map<String, Object>> getAllBooks(List<String> fields);
+
+    List<BookSummary> getBookSummaries();
+
     BorrowedBookDetails borrowBook(Long borrowerId, Long bookId) throws BorrowerNotFoundException;
 
     Book returnBook(Long bookId) throws BookNotFoundException;
 
+    Book returnBook(Long bookId, int copyNumber) throws BookNotFoundException;
+
 }
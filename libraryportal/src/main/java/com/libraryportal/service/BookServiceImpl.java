@@ -1,21 +1,32 @@
 package com.libraryportal.service;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookSummary;
 import com.libraryportal.entity.BorrowedBookDetails;
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.event.BookAvailabilityChanged;
 import com.libraryportal.exception.BookNotFoundException;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 import com.libraryportal.repository.BookRepository;
 import com.libraryportal.repository.BorrowerRepository;
-import com.libraryportal.util.BookStatus;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.util.BranchCode;
+import com.libraryportal.util.CopyBitmap;
+import com.libraryportal.util.SingleFlight;
 
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
@@ -24,61 +35,96 @@ import jakarta.transaction.Transactional;
  * Service class providing methods to manage books in the library.
  */
 @Service
-public class BookServiceImpl implements BookService {
+public class BookServiceImpl implements BookService, MeterBinder {
 	private static final Logger LOGGER = LoggerFactory.getLogger(BookService.class);
 
 	private final BookRepository bookRepository;
 	private final BorrowerRepository borrowerRepository;
+	private final ApplicationEventPublisher eventPublisher;
+	private final ChangeSequence changeSequence;
+	private final SingleFlight<String, List<Book>> allBooksLoads = new SingleFlight<>("getAllBooks");
 
 	/**
 	 * Constructor for BookService.
 	 * 
 	 * @param bookRepository     Repository for managing books.
 	 * @param borrowerRepository Repository for managing borrowers.
+	 * @param eventPublisher     Publisher of book availability changes.
+	 * @param changeSequence     Sequence numbering the writes, which rejects
+	 *                           them while writes are suspended.
 	 */
-	public BookServiceImpl(BookRepository bookRepository, BorrowerRepository borrowerRepository) {
+	public BookServiceImpl(BookRepository bookRepository, BorrowerRepository borrowerRepository,
+			ApplicationEventPublisher eventPublisher, ChangeSequence changeSequence) {
 		this.bookRepository = bookRepository;
 		this.borrowerRepository = borrowerRepository;
+		this.eventPublisher = eventPublisher;
+		this.changeSequence = changeSequence;
 	}
 
 	/**
-	 * Register a new book.
+	 * Register a new book, or another copy of a book with the same branch, ISBN,
+	 * title and author, in a single upsert statement. Books without a branch are
+	 * registered in the default branch. The status of the book is ignored, as it
+	 * follows from the copies: a registered copy is always available.
 	 * 
 	 * @param book The book to register.
-	 * @return The registered book.
-	 * @throws DuplicateRegistrationException If a book with the same ISBN, title,
-	 *                                        and author already exists.
+	 * @return The registered book, with its current number of copies.
+	 * @throws DuplicateRegistrationException If the book is not valid for
+	 *                                        registration.
 	 */
-	@Transactional
 	public Book registerBook(Book book) throws DuplicateRegistrationException {
 		LOGGER.info("Registering a new book: {}", book.getTitle());
+		changeSequence.checkWritable();
 		validateBook(book);
+		String branchCode = BranchCode.normalise(book.getBranchCode());
 
-		// Check if a book with the same ISBN, title, and author already exists
-		Book existingBook = bookRepository.findByIsbnAndTitleAndAuthor(book.getIsbn(), book.getTitle(),
-				book.getAuthor());
-		if (existingBook != null) {
-			// If a book with the same ISBN, title, and author exists, increment the number
-			// of copies
-			existingBook.setNoOfCopies(existingBook.getNoOfCopies() + 1);
-			LOGGER.info("Incrementing copies of existing book: {}", existingBook.getTitle());
-			return bookRepository.save(existingBook);
+		Book savedBook;
+		try {
+			savedBook = bookRepository.upsert(branchCode, book.getIsbn(), book.getTitle(), book.getAuthor());
+		} catch (DataIntegrityViolationException e) {
+			// A concurrent registration inserted the same book first; the retry
+			// matches its row and increments the copies instead.
+			LOGGER.info("Retrying registration of a book registered concurrently: {}", book.getTitle());
+			savedBook = bookRepository.upsert(branchCode, book.getIsbn(), book.getTitle(), book.getAuthor());
 		}
-
-		// Save the book to the database with initial number of copies as 1
-		book.setNoOfCopies(1);
-		LOGGER.info("Saving new book to database: {}", book.getTitle());
-		return bookRepository.save(book);
+		LOGGER.info("Book {} registered with {} copies", savedBook.getId(), savedBook.getNoOfCopies());
+		publishAvailability(savedBook);
+		return savedBook;
 	}
 
 	/**
-	 * Get all books.
+	 * Get all books. Concurrent calls share a single database load, so the
+	 * returned list must not be modified.
 	 * 
 	 * @return List of all books.
 	 */
 	public List<Book> getAllBooks() {
-		LOGGER.info("Fetching all books from the database");
-		return bookRepository.findAll();
+		return allBooksLoads.execute("all", () -> {
+			LOGGER.info("Fetching all books from the database");
+			return bookRepository.findAll();
+		});
+	}
+
+	/**
+	 * Get all books, selecting only the requested fields.
+	 * 
+	 * @param fields The names of the book fields to return.
+	 * @return One map per book, keyed by field name.
+	 * @throws IllegalArgumentException If an unknown field is requested.
+	 */
+	public List<Map<String, Object>> getAllBooks(List<String> fields) {
+		LOGGER.info("Fetching fields {} of all books from the database", fields);
+		return bookRepository.findAllFields(fields);
+	}
+
+	/**
+	 * Get the id, title and availability of all books.
+	 * 
+	 * @return Summaries of all books.
+	 */
+	public List<BookSummary> getBookSummaries() {
+		LOGGER.info("Fetching summaries of all books from the database");
+		return bookRepository.findAllProjectedBy();
 	}
 
 	/**
@@ -95,39 +141,52 @@ public class BookServiceImpl implements BookService {
 			LOGGER.error("ISBN is required for book registration");
 			throw new DuplicateRegistrationException("ISBN number is required.");
 		}
+		try {
+			BranchCode.normalise(book.getBranchCode());
+		} catch (IllegalArgumentException e) {
+			LOGGER.error("Invalid branch code for book registration: {}", book.getBranchCode());
+			throw new DuplicateRegistrationException(e.getMessage());
+		}
 	}
 
 	/**
-	 * Borrow a book.
+	 * Borrow a copy of a book. The lowest-numbered copy not on loan is claimed
+	 * in the book's copy bitmap, so the book can be borrowed until every copy is
+	 * out. The book row stays locked until the transaction commits, so
+	 * concurrent borrows and returns of the same book are serialized.
 	 * 
 	 * @param borrowerId The ID of the borrower.
 	 * @param bookId     The ID of the book to borrow.
-	 * @throws BorrowerNotFoundException If the borrower is not found.
+	 * @return The borrower, the book and the number of the copy borrowed.
+	 * @throws BorrowerNotFoundException If every copy of the book is on loan.
 	 */
+	@Transactional
 	public BorrowedBookDetails borrowBook(Long borrowerId, Long bookId) throws BorrowerNotFoundException {
 		LOGGER.info("Borrowing book with ID {} for borrower with ID {}", bookId, borrowerId);
+		changeSequence.checkWritable();
 
-		Optional<Book> optionalBook = bookRepository.findById(bookId);
+		Optional<Book> optionalBook = bookRepository.findByIdForUpdate(bookId);
 		Optional<Borrower> optionalBorrower = borrowerRepository.findById(borrowerId);
 
 		if (optionalBook.isPresent() && optionalBorrower.isPresent()) {
 			Book book = optionalBook.get();
 			Borrower borrower = optionalBorrower.get();
 
-			if (book.getStatus() == BookStatus.AVAILABLE) {
-				book.setStatus(BookStatus.BORROWED);
-				book.setNoOfCopies(book.getNoOfCopies() - 1);
+			CopyBitmap copies = book.copies();
+			int copy = copies.claim();
+			if (copy != CopyBitmap.NO_COPY) {
+				book.applyCopies(copies);
 
-				LOGGER.info("Setting status of book {} to BORROWED", bookId);
-				bookRepository.save(book);
+				LOGGER.info("Lending copy {} of book {}, {} copies left", copy + 1, bookId, copies.available());
+				// Flushed so the book has its change sequence number for the event
+				bookRepository.saveAndFlush(book);
 				LOGGER.info("Book {} saved after status update", bookId);
-				borrowerRepository.save(borrower);
-				LOGGER.info("Borrower {} saved after borrowing book", borrowerId);
+				publishAvailability(book);
 
 				// Return borrower and book details encapsulated in BorrowedBookDetails
-				return new BorrowedBookDetails(borrower, book);
+				return new BorrowedBookDetails(borrower, book, copy + 1);
 			} else {
-				String errorMessage = "The book is already borrowed by another member.";
+				String errorMessage = "All copies of the book are borrowed by other members.";
 				LOGGER.error(errorMessage);
 				throw new BorrowerNotFoundException(errorMessage);
 			}
@@ -139,27 +198,58 @@ public class BookServiceImpl implements BookService {
 	}
 
 	/**
-	 * Return a book.
+	 * Return the lowest-numbered copy of a book on loan. The book row stays
+	 * locked until the transaction commits, like in
+	 * {@link #borrowBook(Long, Long)}.
 	 * 
 	 * @param bookId The ID of the book to return.
-	 * @throws BookNotFoundException If the book is not found or not currently
-	 *                               borrowed.
+	 * @throws BookNotFoundException If the book is not found or no copy is
+	 *                               currently borrowed.
 	 */
+	@Transactional
 	public Book returnBook(Long bookId) throws BookNotFoundException {
+		return returnCopy(bookId, CopyBitmap.NO_COPY);
+	}
+
+	/**
+	 * Return a copy of a book, as numbered when it was borrowed.
+	 * 
+	 * @param bookId     The ID of the book to return.
+	 * @param copyNumber The number of the copy, from 1.
+	 * @throws BookNotFoundException If the book is not found or the copy is not
+	 *                               currently borrowed.
+	 */
+	@Transactional
+	public Book returnBook(Long bookId, int copyNumber) throws BookNotFoundException {
+		return returnCopy(bookId, copyNumber - 1);
+	}
+
+	private Book returnCopy(Long bookId, int copy) throws BookNotFoundException {
 		LOGGER.info("Returning book with ID {}", bookId);
+		changeSequence.checkWritable();
 
-		Optional<Book> optionalBook = bookRepository.findById(bookId);
+		Optional<Book> optionalBook = bookRepository.findByIdForUpdate(bookId);
 
 		if (optionalBook.isPresent()) {
 			Book book = optionalBook.get();
 
-			if (book.getStatus() == BookStatus.BORROWED) {
-				book.setStatus(BookStatus.AVAILABLE);
-				book.setNoOfCopies(book.getNoOfCopies() + 1);
-				LOGGER.info("Setting status of book {} to AVAILABLE", bookId);
-				return bookRepository.save(book);
+			CopyBitmap copies = book.copies();
+			int returned = copy;
+			if (copy == CopyBitmap.NO_COPY) {
+				returned = copies.releaseAny();
+			} else if (!copies.release(copy)) {
+				returned = CopyBitmap.NO_COPY;
+			}
+			if (returned != CopyBitmap.NO_COPY) {
+				book.applyCopies(copies);
+				LOGGER.info("Copy {} of book {} returned, {} copies available", returned + 1, bookId,
+						copies.available());
+				Book returnedBook = bookRepository.saveAndFlush(book);
+				publishAvailability(book);
+				return returnedBook;
 			} else {
-				String errorMessage = "The book is not currently borrowed.";
+				String errorMessage = copy == CopyBitmap.NO_COPY ? "The book is not currently borrowed."
+						: "Copy " + (copy + 1) + " of the book is not currently borrowed.";
 				LOGGER.error(errorMessage);
 				throw new BookNotFoundException(errorMessage);
 			}
@@ -170,4 +260,19 @@ public class BookServiceImpl implements BookService {
 		}
 	}
 
+	/**
+	 * Publish the availability of a book that was just saved. Listeners receive
+	 * it once the surrounding transaction, if any, has committed.
+	 * 
+	 * @param book The saved book.
+	 */
+	private void publishAvailability(Book book) {
+		eventPublisher.publishEvent(new BookAvailabilityChanged(book));
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		allBooksLoads.bindTo(registry);
+	}
+
 }
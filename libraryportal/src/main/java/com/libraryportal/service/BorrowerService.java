@@ -1,8 +1,10 @@
 package com.libraryportal.service;
 
 import java.util.List;
+import java.util.Map;
 
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.BorrowerSummary;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 
@@ -12,12 +14,18 @@ public interface BorrowerService {
 
     List<Borrower> getAllBorrowers();
 
+    List<Map<String, Object>> getAllBorrowers(List<String> fields);
+
+    List<BorrowerSummary> getBorrowerSummaries();
+
     Borrower getBorrowerById(Long id) throws BorrowerNotFoundException;
 
     Borrower createBorrower(Borrower borrower);
 
     Borrower updateBorrower(Long id, Borrower newBorrower) throws BorrowerNotFoundException;
 
+    Borrower patchBorrower(Long id, Borrower changes) throws BorrowerNotFoundException, DuplicateRegistrationException;
+
     void deleteBorrower(Long id);
 
 }
@@ -1,16 +1,30 @@
 package com.libraryportal.service;
 
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.BorrowerSummary;
+import com.libraryportal.entity.DeletedRecord;
+import com.libraryportal.event.DatasetRestored;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.repository.DeletedRecordRepository;
+import com.libraryportal.util.ScalableBloomFilter;
+import com.libraryportal.util.SingleFlight;
 
 import jakarta.transaction.Transactional;
 
@@ -18,41 +32,82 @@ import jakarta.transaction.Transactional;
  * Service class providing methods to manage borrower in the library.
  */
 @Service
-public class BorrowerServiceImpl implements BorrowerService {
+public class BorrowerServiceImpl implements BorrowerService, MeterBinder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BorrowerService.class);
 
     private final BorrowerRepository borrowerRepository;
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final ChangeSequence changeSequence;
+    private final SingleFlight<Long, Borrower> borrowerByIdLoads = new SingleFlight<>("getBorrowerById");
+    private final ScalableBloomFilter registeredEmails = new ScalableBloomFilter("borrower-email", 10_000, 0.01);
 
     @Autowired
-    public BorrowerServiceImpl(BorrowerRepository borrowerRepository) {
+    public BorrowerServiceImpl(BorrowerRepository borrowerRepository,
+            DeletedRecordRepository deletedRecordRepository, ChangeSequence changeSequence) {
         this.borrowerRepository = borrowerRepository;
+        this.deletedRecordRepository = deletedRecordRepository;
+        this.changeSequence = changeSequence;
     }
 
     /**
-     * Register a new borrower.
+     * Register a new borrower. When the registration filter rules the email out
+     * the lookup is skipped, and the unique constraint on the email column
+     * catches a concurrent registration of the same email instead, so the
+     * borrower is flushed here to report it as a duplicate.
      * 
      * @param borrower The borrower to register.
      * @return The registered borrower.
      * @throws DuplicateRegistrationException If a borrower with the same email already exists.
      */
-    @Transactional
+    @Transactional(rollbackOn = DuplicateRegistrationException.class)
     public Borrower registerBorrower(Borrower borrower) throws DuplicateRegistrationException {
         LOGGER.info("Registering a new borrower: {}", borrower.getEmail());
+        changeSequence.checkWritable();
         validateBorrower(borrower);
 
-        // Check if a borrower with the same email already exists
-        Borrower existingBorrower = borrowerRepository.findByEmail(borrower.getEmail());
+        // Check if a borrower with the same email already exists, unless the
+        // filter knows it was never registered
+        Borrower existingBorrower = null;
+        if (registeredEmails.mightContain(borrower.getEmail())) {
+            existingBorrower = borrowerRepository.findByEmail(borrower.getEmail());
+            registeredEmails.recordLookup(existingBorrower != null);
+        }
         if (existingBorrower != null) {
             LOGGER.error("A borrower with the same email already exists: {}", borrower.getEmail());
             throw new DuplicateRegistrationException("A borrower with the same email already exists.");
         }
-        // Save the borrower to the database
-        Borrower savedBorrower = borrowerRepository.save(borrower);
+        // Save the borrower to the database. The email is added first, so a
+        // concurrent registration of the same email takes the checked path.
+        registeredEmails.put(borrower.getEmail());
+        Borrower savedBorrower;
+        try {
+            savedBorrower = borrowerRepository.saveAndFlush(borrower);
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.error("A borrower with the same email already exists: {}", borrower.getEmail());
+            throw new DuplicateRegistrationException("A borrower with the same email already exists.");
+        }
         LOGGER.info("Borrower registered successfully: {}", savedBorrower.getId());
         return savedBorrower;
     }
 
+    /**
+     * Load the emails of all registered borrowers into the registration filter
+     * once the application has started, and again once a snapshot is restored.
+     * Until the first load every registration is checked against the database.
+     */
+    @EventListener({ ApplicationReadyEvent.class, DatasetRestored.class })
+    public void loadRegistrationFilter() {
+        List<String> emails = borrowerRepository.findAllEmails();
+        for (String email : emails) {
+            if (email != null) {
+                registeredEmails.put(email);
+            }
+        }
+        registeredEmails.markLoaded();
+        LOGGER.info("Loaded {} borrower emails into the registration filter", emails.size());
+    }
+
     /**
      * Get all borrowers.
      * 
@@ -64,16 +119,41 @@ public class BorrowerServiceImpl implements BorrowerService {
     }
 
     /**
-     * Get a borrower by ID.
+     * Get all borrowers, selecting only the requested fields.
+     * 
+     * @param fields The names of the borrower fields to return.
+     * @return One map per borrower, keyed by field name.
+     * @throws IllegalArgumentException If an unknown field is requested.
+     */
+    public List<Map<String, Object>> getAllBorrowers(List<String> fields) {
+        LOGGER.info("Fetching fields {} of all borrowers from the database", fields);
+        return borrowerRepository.findAllFields(fields);
+    }
+
+    /**
+     * Get the id and name of all borrowers.
+     * 
+     * @return Summaries of all borrowers.
+     */
+    public List<BorrowerSummary> getBorrowerSummaries() {
+        LOGGER.info("Fetching summaries of all borrowers from the database");
+        return borrowerRepository.findAllProjectedBy();
+    }
+
+    /**
+     * Get a borrower by ID. Concurrent calls for the same ID share a single
+     * database load, so the returned borrower must not be modified.
      * 
      * @param id The ID of the borrower to retrieve.
      * @return The borrower with the specified ID.
      * @throws BorrowerNotFoundException If no borrower is found with the given ID.
      */
     public Borrower getBorrowerById(Long id) throws BorrowerNotFoundException {
-        LOGGER.info("Fetching borrower by ID: {}", id);
-        return borrowerRepository.findById(id)
-                .orElseThrow(() -> new BorrowerNotFoundException("Borrower not found with id: " + id));
+        return borrowerByIdLoads.execute(id, () -> {
+            LOGGER.info("Fetching borrower by ID: {}", id);
+            return borrowerRepository.findById(id)
+                    .orElseThrow(() -> new BorrowerNotFoundException("Borrower not found with id: " + id));
+        });
     }
 
     /**
@@ -84,6 +164,8 @@ public class BorrowerServiceImpl implements BorrowerService {
      */
     public Borrower createBorrower(Borrower borrower) {
         LOGGER.info("Creating a new borrower: {}", borrower.getEmail());
+        changeSequence.checkWritable();
+        rememberEmail(borrower.getEmail());
         return borrowerRepository.save(borrower);
     }
 
@@ -95,23 +177,61 @@ public class BorrowerServiceImpl implements BorrowerService {
      * @return The updated borrower.
      * @throws BorrowerNotFoundException If no borrower is found with the given ID.
      */
+    @Transactional
     public Borrower updateBorrower(Long id, Borrower newBorrower) throws BorrowerNotFoundException {
         LOGGER.info("Updating borrower with ID: {}", id);
+        changeSequence.checkWritable();
         return borrowerRepository.findById(id).map(borrower -> {
             borrower.setName(newBorrower.getName());
             borrower.setEmail(newBorrower.getEmail());
+            rememberEmail(newBorrower.getEmail());
             return borrowerRepository.save(borrower);
         }).orElseThrow(() -> new BorrowerNotFoundException("Borrower not found with id: " + id));
     }
 
     /**
-     * Delete a borrower by ID.
+     * Update only the fields supplied in the changes, in a single statement that
+     * also returns the updated borrower. A clash with another borrower's email
+     * is detected by the unique constraint on the email column.
+     * 
+     * @param id      The ID of the borrower to update.
+     * @param changes The fields to update; null fields are left unchanged.
+     * @return The updated borrower.
+     * @throws IllegalArgumentException       If no field is supplied.
+     * @throws BorrowerNotFoundException      If no borrower is found with the given ID.
+     * @throws DuplicateRegistrationException If another borrower has the new email.
+     */
+    @Transactional(rollbackOn = DuplicateRegistrationException.class)
+    public Borrower patchBorrower(Long id, Borrower changes)
+            throws BorrowerNotFoundException, DuplicateRegistrationException {
+        LOGGER.info("Patching borrower with ID: {}", id);
+        changeSequence.checkWritable();
+        if (changes.getName() == null && changes.getEmail() == null) {
+            throw new IllegalArgumentException("At least one of name and email is required.");
+        }
+        rememberEmail(changes.getEmail());
+        try {
+            return borrowerRepository.patch(id, changes.getName(), changes.getEmail())
+                    .orElseThrow(() -> new BorrowerNotFoundException("Borrower not found with id: " + id));
+        } catch (DataIntegrityViolationException e) {
+            LOGGER.error("A borrower with the same email already exists: {}", changes.getEmail());
+            throw new DuplicateRegistrationException("A borrower with the same email already exists.");
+        }
+    }
+
+    /**
+     * Delete a borrower by ID, leaving a tombstone so syncing clients learn
+     * about the deletion.
      * 
      * @param id The ID of the borrower to delete.
      */
+    @Transactional
     public void deleteBorrower(Long id) {
         LOGGER.info("Deleting borrower with ID: {}", id);
-        borrowerRepository.deleteById(id);
+        changeSequence.checkWritable();
+        if (borrowerRepository.removeById(id) > 0) {
+            deletedRecordRepository.save(new DeletedRecord(DeletedRecord.BORROWER, id));
+        }
     }
 
     /**
@@ -128,4 +248,22 @@ public class BorrowerServiceImpl implements BorrowerService {
             throw new DuplicateRegistrationException("Email address is required.");
         }
     }
+
+    /**
+     * Add an email written outside registration to the registration filter, so
+     * a later registration with it is still checked.
+     * 
+     * @param email The email address, may be null.
+     */
+    private void rememberEmail(String email) {
+        if (email != null) {
+            registeredEmails.put(email);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        borrowerByIdLoads.bindTo(registry);
+        registeredEmails.bindTo(registry);
+    }
 }
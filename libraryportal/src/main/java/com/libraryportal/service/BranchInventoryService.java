@@ -0,0 +1,14 @@
+package com.libraryportal.service;
+
+import java.util.List;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BranchSummary;
+
+public interface BranchInventoryService {
+
+    List<BranchSummary> getBranches();
+
+    List<Book> getBooks(String branchCode, long after, int limit);
+
+}
@@ -0,0 +1,109 @@
+package com.libraryportal.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BranchSummary;
+import com.libraryportal.event.BookAvailabilityChanged;
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.util.BranchCode;
+import com.libraryportal.util.PartitionedCache;
+
+/**
+ * Service class listing the books of one branch at a time.
+ * <p>
+ * Pages of a branch's books are read through the branch index and cached in a
+ * {@link PartitionedCache} with one bounded partition per branch, so a busy
+ * branch can only evict its own pages. A registration, borrow or return
+ * invalidates only the partition of the book's branch once it commits, and a
+ * restored snapshot invalidates them all.
+ */
+@Service
+public class BranchInventoryServiceImpl implements BranchInventoryService, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BranchInventoryService.class);
+
+    private final BookRepository bookRepository;
+    private final PartitionedCache<String, List<Book>> cache;
+
+    @Autowired
+    public BranchInventoryServiceImpl(BookRepository bookRepository,
+            @Value("${libraryportal.branch-cache.max-branches:256}") int maxBranches,
+            @Value("${libraryportal.branch-cache.pages-per-branch:200}") long pagesPerBranch,
+            @Value("${libraryportal.branch-cache.expire-seconds:300}") long expireSeconds) {
+        this.bookRepository = bookRepository;
+        this.cache = new PartitionedCache<>("branch-books", maxBranches, pagesPerBranch,
+                Duration.ofSeconds(expireSeconds));
+    }
+
+    /**
+     * Get the branches with books and the number of books at each.
+     * 
+     * @return The branches in branch code order.
+     */
+    public List<BranchSummary> getBranches() {
+        List<BranchSummary> branches = new ArrayList<>();
+        for (Object[] row : bookRepository.countByBranch()) {
+            branches.add(new BranchSummary((String) row[0], (Long) row[1]));
+        }
+        return branches;
+    }
+
+    /**
+     * Get a page of the books of a branch, in ID order.
+     * 
+     * @param branchCode The code of the branch, in any case.
+     * @param after      The exclusive lower bound of the IDs.
+     * @param limit      The maximum number of books to return.
+     * @return The next books of the branch.
+     * @throws IllegalArgumentException If the branch code is not valid.
+     */
+    public List<Book> getBooks(String branchCode, long after, int limit) {
+        String branch = BranchCode.normalise(branchCode);
+        return cache.get(branch, after + ":" + limit, key -> {
+            LOGGER.info("Fetching {} books of branch {} after {}", limit, branch, after);
+            return List.copyOf(bookRepository.findBranchPageAfter(branch, after, PageRequest.of(0, limit)));
+        });
+    }
+
+    /**
+     * Invalidate the cached pages of the changed book's branch once its
+     * transaction has committed.
+     * 
+     * @param event The availability change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChanged event) {
+        if (event.getBranchCode() != null) {
+            cache.invalidate(event.getBranchCode());
+        }
+    }
+
+    /**
+     * Invalidate the cached pages of every branch once a snapshot is restored.
+     */
+    @EventListener(DatasetRestored.class)
+    public void onDatasetRestored() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        cache.bindTo(registry);
+    }
+}
@@ -0,0 +1,9 @@
+package com.libraryportal.service;
+
+import com.libraryportal.repository.CatalogFile;
+
+public interface CatalogStoreService {
+
+    CatalogFile getCatalog();
+
+}
@@ -0,0 +1,287 @@
+package com.libraryportal.service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.libraryportal.entity.Book;
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.repository.CatalogFile;
+import com.libraryportal.repository.ChangeSequence;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class maintaining the read-only, memory-mapped catalog that browse
+ * traffic is served from.
+ * <p>
+ * A background thread pages through the books in id order, writes their JSON
+ * to a new {@link CatalogFile}, and swaps it in atomically once it is
+ * complete. Readers keep the catalog they started with. The rebuild is
+ * skipped while the change sequence watermark has not moved, so an idle
+ * catalog is not rewritten.
+ * <p>
+ * After the first build, only the books written since the last build are
+ * read back, through the change sequence index, and merged by id with the
+ * previous catalog, whose other books are copied over without serializing
+ * them again. The whole catalog is only read again when more than a set
+ * share of it changed, or after a snapshot restore, whose books keep the
+ * change sequence numbers of the snapshot.
+ */
+@Service
+public class CatalogStoreServiceImpl implements CatalogStoreService, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CatalogStoreService.class);
+
+    private static final String FILE_PREFIX = "catalog-";
+
+    private final BookRepository bookRepository;
+    private final ChangeSequence changeSequence;
+    private final ObjectWriter bookWriter;
+    private final Path directory;
+    private final int refreshSeconds;
+    private final int batchSize;
+    private final double fullRebuildRatio;
+    private final AtomicReference<CatalogFile> current = new AtomicReference<>();
+    private final ScheduledExecutorService builder = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-store-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long builtAtWatermark = -1;
+    private volatile boolean fullRebuildRequested = true;
+    private Timer buildTimer;
+
+    @Autowired
+    public CatalogStoreServiceImpl(BookRepository bookRepository, ChangeSequence changeSequence,
+            ObjectMapper objectMapper,
+            @Value("${libraryportal.catalog-store.directory:${java.io.tmpdir}/libraryportal-catalog}") String directory,
+            @Value("${libraryportal.catalog-store.refresh-seconds:60}") int refreshSeconds,
+            @Value("${libraryportal.catalog-store.batch-size:1000}") int batchSize,
+            @Value("${libraryportal.catalog-store.full-rebuild-ratio:0.1}") double fullRebuildRatio) {
+        this.bookRepository = bookRepository;
+        this.changeSequence = changeSequence;
+        this.bookWriter = objectMapper.writerFor(Book.class);
+        this.directory = Paths.get(directory);
+        this.refreshSeconds = refreshSeconds;
+        this.batchSize = batchSize;
+        this.fullRebuildRatio = fullRebuildRatio;
+    }
+
+    /**
+     * Start building the catalog once the application has started, and rebuild
+     * it periodically after that.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            Files.createDirectories(directory);
+            deleteLeftoverFiles();
+        } catch (IOException e) {
+            LOGGER.error("Cannot prepare the catalog store directory {}", directory, e);
+            return;
+        }
+        builder.scheduleWithFixedDelay(this::refresh, 0, refreshSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Read the whole catalog again on the next refresh, as the restored books
+     * are not found by their change sequence numbers.
+     */
+    @EventListener(DatasetRestored.class)
+    public void onDatasetRestored() {
+        fullRebuildRequested = true;
+    }
+
+    /**
+     * Get the current catalog.
+     *
+     * @return The catalog last built.
+     * @throws IllegalStateException If the first catalog is not built yet.
+     */
+    public CatalogFile getCatalog() {
+        CatalogFile catalog = current.get();
+        if (catalog == null) {
+            throw new IllegalStateException("The catalog is being built.");
+        }
+        return catalog;
+    }
+
+    /**
+     * Update the catalog if anything was written since the last build.
+     */
+    void refresh() {
+        long watermark = changeSequence.watermark();
+        boolean full = fullRebuildRequested;
+        if (watermark == builtAtWatermark && !full) {
+            return;
+        }
+        fullRebuildRequested = false;
+        try {
+            long start = System.nanoTime();
+            CatalogFile previous = current.get();
+            CatalogFile catalog = full || previous == null ? null : update(previous, builtAtWatermark, watermark);
+            if (catalog == null) {
+                full = true;
+                catalog = build(watermark);
+            }
+            builtAtWatermark = watermark;
+            if (catalog == previous) {
+                // Only borrowers changed, and the catalog being served is kept
+                return;
+            }
+            current.set(catalog);
+            if (buildTimer != null) {
+                buildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            LOGGER.info("Catalog store {} with {} books up to change {}", full ? "rebuilt" : "updated",
+                    catalog.size(), watermark);
+            if (previous != null) {
+                previous.delete();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (full) {
+                fullRebuildRequested = true;
+            }
+            LOGGER.error("Catalog store rebuild failed, still serving the previous catalog", e);
+        }
+    }
+
+    /**
+     * Merge the books written since the previous catalog was built into a copy
+     * of it.
+     *
+     * @return The new catalog, the previous one if no book changed, or null if
+     *         too many books changed for a merge to pay off.
+     */
+    private CatalogFile update(CatalogFile previous, long since, long watermark) throws IOException {
+        long limit = (long) (previous.size() * fullRebuildRatio);
+        NavigableMap<Long, byte[]> changed = new TreeMap<>();
+        long after = since;
+        List<Book> page;
+        do {
+            page = bookRepository.findChangedBetween(after, watermark, PageRequest.of(0, batchSize));
+            for (Book book : page) {
+                changed.put(book.getId(), bookWriter.writeValueAsBytes(book));
+                after = book.getChangeSeq();
+            }
+            if (changed.size() > limit) {
+                return null;
+            }
+        } while (page.size() == batchSize);
+        if (changed.isEmpty()) {
+            // The watermark also moves on borrower writes
+            return previous;
+        }
+
+        return write(watermark, writer -> {
+            for (int position = 0; position < previous.size(); position++) {
+                long id = previous.idAt(position);
+                while (!changed.isEmpty() && changed.firstKey() < id) {
+                    Map.Entry<Long, byte[]> book = changed.pollFirstEntry();
+                    writer.append(book.getKey(), book.getValue());
+                }
+                byte[] json = changed.remove(id);
+                if (json == null) {
+                    writer.append(previous, position);
+                } else {
+                    writer.append(id, json);
+                }
+            }
+            for (Map.Entry<Long, byte[]> book : changed.entrySet()) {
+                writer.append(book.getKey(), book.getValue());
+            }
+        });
+    }
+
+    private CatalogFile build(long watermark) throws IOException {
+        return write(watermark, writer -> {
+            long after = 0;
+            List<Book> page;
+            do {
+                // Each page is loaded in its own persistence context, so
+                // only one page of books is on the heap at a time.
+                page = bookRepository.findPageAfter(after, PageRequest.of(0, batchSize));
+                for (Book book : page) {
+                    writer.append(book.getId(), bookWriter.writeValueAsBytes(book));
+                    after = book.getId();
+                }
+            } while (page.size() == batchSize);
+        });
+    }
+
+    private CatalogFile write(long watermark, BookAppender books) throws IOException {
+        String name = FILE_PREFIX + watermark + "-" + System.nanoTime();
+        Path dataFile = directory.resolve(name + ".data");
+        Path indexFile = directory.resolve(name + ".index");
+        try {
+            try (CatalogFile.Writer writer = CatalogFile.create(dataFile, indexFile)) {
+                books.appendTo(writer);
+            }
+            return CatalogFile.open(dataFile, indexFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(dataFile);
+            Files.deleteIfExists(indexFile);
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface BookAppender {
+        void appendTo(CatalogFile.Writer writer) throws IOException;
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws IOException {
+        builder.shutdownNow();
+        CatalogFile catalog = current.getAndSet(null);
+        if (catalog != null) {
+            catalog.delete();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        buildTimer = Timer.builder("libraryportal.catalog.store.build")
+                .description("Time to rebuild the memory-mapped catalog").register(registry);
+        Gauge.builder("libraryportal.catalog.store.books", current, c -> {
+            CatalogFile catalog = c.get();
+            return catalog == null ? 0 : catalog.size();
+        })
+                .description("Books in the memory-mapped catalog").register(registry);
+    }
+}
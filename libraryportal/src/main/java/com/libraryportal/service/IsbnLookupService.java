@@ -0,0 +1,13 @@
+package com.libraryportal.service;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookAvailability;
+import com.libraryportal.exception.BookNotFoundException;
+
+public interface IsbnLookupService {
+
+    Book getBookByIsbn(String branchCode, String isbn) throws BookNotFoundException;
+
+    BookAvailability getAvailabilityByIsbn(String branchCode, String isbn) throws BookNotFoundException;
+
+}
@@ -0,0 +1,169 @@
+package com.libraryportal.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookAvailability;
+import com.libraryportal.event.BookAvailabilityChanged;
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.exception.BookNotFoundException;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.util.BookStatus;
+import com.libraryportal.util.BranchCode;
+import com.libraryportal.util.Isbn;
+import com.libraryportal.util.IsbnIndex;
+
+/**
+ * Service class looking books and their availability up by branch and ISBN
+ * through in-memory indexes, one per branch, keyed by the normalised ISBN-13.
+ * <p>
+ * The indexes are loaded once the application has started, and kept coherent
+ * with writes through the {@link BookAvailabilityChanged} events published
+ * after every registration, borrow and return commits. Books registered with
+ * an ISBN that is not valid are not indexed. If several books of a branch
+ * share an ISBN, the one changed most recently is indexed. Each entry keeps
+ * the change sequence number it was written at, so the load and the events
+ * can be applied in any order without an older state replacing a newer one.
+ */
+@Service
+public class IsbnLookupServiceImpl implements IsbnLookupService, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IsbnLookupService.class);
+
+    /** The initial size of the index of a branch other than the default one. */
+    private static final int BRANCH_EXPECTED_SIZE = 1024;
+
+    private final BookRepository bookRepository;
+    private final int expectedSize;
+    private final ConcurrentMap<String, IsbnIndex> indexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IsbnLookupServiceImpl(BookRepository bookRepository,
+            @Value("${libraryportal.isbn-index.expected-size:100000}") int expectedSize) {
+        this.bookRepository = bookRepository;
+        this.expectedSize = expectedSize;
+    }
+
+    /**
+     * Load the availability of all books into the indexes once the application
+     * has started, and again once a snapshot is restored. Books already indexed
+     * from a change that committed meanwhile are only replaced by a more recent
+     * row.
+     */
+    @EventListener({ ApplicationReadyEvent.class, DatasetRestored.class })
+    public void loadIndex() {
+        List<Object[]> rows = bookRepository.findAllAvailability();
+        int skipped = 0;
+        for (Object[] row : rows) {
+            long isbn13 = Isbn.tryParse((String) row[1]);
+            if (isbn13 < 0) {
+                skipped++;
+                continue;
+            }
+            Long changeSeq = (Long) row[5];
+            indexFor((String) row[4]).put(isbn13, (Long) row[0], (Integer) row[2], (BookStatus) row[3],
+                    changeSeq == null ? 0 : changeSeq);
+        }
+        LOGGER.info("Indexed {} ISBNs in {} branches, skipped {} books without a valid ISBN", size(),
+                indexes.size(), skipped);
+    }
+
+    /**
+     * Apply an availability change to the index once its transaction has
+     * committed, unless a more recent change of the ISBN was applied first.
+     * 
+     * @param event The availability change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAvailabilityChanged(BookAvailabilityChanged event) {
+        long isbn13 = Isbn.tryParse(event.getIsbn());
+        if (isbn13 < 0 || event.getId() == null) {
+            return;
+        }
+        indexFor(event.getBranchCode()).put(isbn13, event.getId(), event.getNoOfCopies(), event.getStatus(),
+                event.getChangeSeq());
+    }
+
+    /**
+     * Get the book registered under an ISBN in a branch. The index resolves the
+     * ISBN to the book's id, so the book itself comes from the entity cache.
+     * 
+     * @param branchCode The branch code, or null for the default branch.
+     * @param isbn       The ISBN-10 or ISBN-13, with or without hyphens.
+     * @return The book registered under the ISBN.
+     * @throws IllegalArgumentException If the branch code or ISBN is not valid.
+     * @throws BookNotFoundException    If no book is registered under the ISBN
+     *                                  in the branch.
+     */
+    public Book getBookByIsbn(String branchCode, String isbn) throws BookNotFoundException {
+        String branch = BranchCode.normalise(branchCode);
+        long isbn13 = Isbn.parse(isbn);
+        IsbnIndex index = indexes.get(branch);
+        long bookId = index == null ? IsbnIndex.NO_BOOK : index.bookId(isbn13);
+        if (bookId == IsbnIndex.NO_BOOK) {
+            throw new BookNotFoundException("Book not found with ISBN: " + isbn);
+        }
+        LOGGER.info("Fetching book {} by ISBN {}", bookId, isbn);
+        return bookRepository.findById(bookId)
+                .orElseThrow(() -> new BookNotFoundException("Book not found with ISBN: " + isbn));
+    }
+
+    /**
+     * Get the availability of the book registered under an ISBN in a branch,
+     * straight from the index.
+     * 
+     * @param branchCode The branch code, or null for the default branch.
+     * @param isbn       The ISBN-10 or ISBN-13, with or without hyphens.
+     * @return The availability of the book.
+     * @throws IllegalArgumentException If the branch code or ISBN is not valid.
+     * @throws BookNotFoundException    If no book is registered under the ISBN
+     *                                  in the branch.
+     */
+    public BookAvailability getAvailabilityByIsbn(String branchCode, String isbn) throws BookNotFoundException {
+        String branch = BranchCode.normalise(branchCode);
+        long isbn13 = Isbn.parse(isbn);
+        IsbnIndex index = indexes.get(branch);
+        BookAvailability availability = new BookAvailability();
+        if (index == null || !index.get(isbn13, availability)) {
+            throw new BookNotFoundException("Book not found with ISBN: " + isbn);
+        }
+        availability.setIsbn(Isbn.format(isbn13));
+        availability.setBranchCode(branch);
+        return availability;
+    }
+
+    /**
+     * Get the index of a branch, creating it on the first book of the branch.
+     * The default branch's index is sized for the expected number of books.
+     */
+    private IsbnIndex indexFor(String branchCode) {
+        String branch = branchCode == null ? Book.DEFAULT_BRANCH : branchCode;
+        return indexes.computeIfAbsent(branch,
+                b -> new IsbnIndex(Book.DEFAULT_BRANCH.equals(b) ? expectedSize : BRANCH_EXPECTED_SIZE));
+    }
+
+    private int size() {
+        return indexes.values().stream().mapToInt(IsbnIndex::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("libraryportal.isbn.index.size", this, IsbnLookupServiceImpl::size)
+                .description("ISBNs in the in-memory ISBN indexes of all branches").register(registry);
+    }
+}
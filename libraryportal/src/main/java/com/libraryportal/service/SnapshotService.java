@@ -0,0 +1,15 @@
+package com.libraryportal.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.libraryportal.event.DatasetRestored;
+
+public interface SnapshotService {
+
+    void writeSnapshot(OutputStream out) throws IOException;
+
+    DatasetRestored restore(InputStream in) throws IOException;
+
+}
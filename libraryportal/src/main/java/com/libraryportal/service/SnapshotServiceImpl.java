@@ -0,0 +1,247 @@
+package com.libraryportal.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.hibernate.Cache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.repository.DatasetRepository;
+import com.libraryportal.repository.DatasetSnapshot;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Service class writing the books and borrowers to a {@link DatasetSnapshot}
+ * and restoring one into an empty library.
+ * <p>
+ * A snapshot is read in one repeatable-read transaction, so it is consistent
+ * even while the library is written to. A restore suspends writes in the
+ * {@link ChangeSequence} for its whole duration, so the library stays empty
+ * between the check and the load and no other row can be written until the
+ * restore ends. Each chunk is inserted as one JDBC batch in its own
+ * transaction, after continuing the identity columns past its IDs. Once every
+ * row is in, the change sequence continues after the restored rows, the
+ * second-level cache is cleared and a {@link DatasetRestored} event is
+ * published for the in-memory indexes. A failed restore deletes the ID ranges
+ * it inserted.
+ * <p>
+ * The secondary indexes are only dropped during the load if
+ * {@code libraryportal.snapshot.defer-indexes} is set, for a restore into an
+ * instance that does not serve reads yet.
+ */
+@Service
+public class SnapshotServiceImpl implements SnapshotService, MeterBinder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SnapshotService.class);
+
+    private final DatasetRepository datasetRepository;
+    private final ChangeSequence changeSequence;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final int chunkRows;
+    private final boolean deferIndexes;
+    private final long writeDrainMillis;
+    private final AtomicBoolean restoring = new AtomicBoolean();
+    private Timer writeTimer;
+    private Timer restoreTimer;
+
+    @Autowired
+    public SnapshotServiceImpl(DatasetRepository datasetRepository, ChangeSequence changeSequence,
+            EntityManagerFactory entityManagerFactory, ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${libraryportal.snapshot.chunk-rows:10000}") int chunkRows,
+            @Value("${libraryportal.snapshot.defer-indexes:false}") boolean deferIndexes,
+            @Value("${libraryportal.snapshot.write-drain-ms:10000}") long writeDrainMillis) {
+        this.datasetRepository = datasetRepository;
+        this.changeSequence = changeSequence;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.chunkRows = chunkRows;
+        this.deferIndexes = deferIndexes;
+        this.writeDrainMillis = writeDrainMillis;
+    }
+
+    /**
+     * Write a snapshot of all books and borrowers, a chunk at a time.
+     *
+     * @param out The stream to write to, left open.
+     * @throws IOException If writing fails.
+     */
+    public void writeSnapshot(OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long[] counts = new long[2];
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                try (DatasetSnapshot.Writer writer = DatasetSnapshot.write(out)) {
+                    long after = 0;
+                    List<Book> books;
+                    do {
+                        books = datasetRepository.findBooksAfter(after, chunkRows);
+                        if (!books.isEmpty()) {
+                            writer.writeBooks(books);
+                            after = books.get(books.size() - 1).getId();
+                            counts[0] += books.size();
+                        }
+                    } while (books.size() == chunkRows);
+                    after = 0;
+                    List<Borrower> borrowers;
+                    do {
+                        borrowers = datasetRepository.findBorrowersAfter(after, chunkRows);
+                        if (!borrowers.isEmpty()) {
+                            writer.writeBorrowers(borrowers);
+                            after = borrowers.get(borrowers.size() - 1).getId();
+                            counts[1] += borrowers.size();
+                        }
+                    } while (borrowers.size() == chunkRows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (writeTimer != null) {
+            writeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        LOGGER.info("Wrote a snapshot of {} books and {} borrowers in {} ms", counts[0], counts[1],
+                TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Restore a snapshot into an empty library, with writes suspended.
+     *
+     * @param in The stream to read the snapshot from.
+     * @return The numbers of books and borrowers restored.
+     * @throws IOException           If reading fails or the stream is not a
+     *                               snapshot.
+     * @throws IllegalStateException If the library is not empty, another
+     *                               restore is running or the writes in
+     *                               progress do not end in time.
+     */
+    public DatasetRestored restore(InputStream in) throws IOException {
+        if (!restoring.compareAndSet(false, true)) {
+            throw new IllegalStateException("A snapshot is already being restored.");
+        }
+        try {
+            if (!changeSequence.suspendWrites(writeDrainMillis)) {
+                throw new IllegalStateException("Writes in progress did not end in time, please retry the restore.");
+            }
+            try {
+                return restoreSuspended(in);
+            } finally {
+                changeSequence.resumeWrites();
+            }
+        } finally {
+            restoring.set(false);
+        }
+    }
+
+    private DatasetRestored restoreSuspended(InputStream in) throws IOException {
+        if (!datasetRepository.isEmpty()) {
+            throw new IllegalStateException("A snapshot can only be restored into an empty library.");
+        }
+        long start = System.nanoTime();
+        long books = 0;
+        long borrowers = 0;
+        // The ID ranges inserted so far, to delete if the restore fails
+        long[] bookIds = { Long.MAX_VALUE, Long.MIN_VALUE };
+        long[] borrowerIds = { Long.MAX_VALUE, Long.MIN_VALUE };
+        if (deferIndexes) {
+            datasetRepository.dropDeferredIndexes();
+        }
+        try {
+            DatasetSnapshot.Reader reader = DatasetSnapshot.read(in);
+            for (byte section = reader.next(); section != 0; section = reader.next()) {
+                if (section == DatasetSnapshot.BOOKS) {
+                    List<Book> chunk = reader.readBooks();
+                    if (chunk.isEmpty()) {
+                        continue;
+                    }
+                    long first = chunk.stream().mapToLong(Book::getId).min().getAsLong();
+                    long last = chunk.stream().mapToLong(Book::getId).max().getAsLong();
+                    if (last > bookIds[1]) {
+                        datasetRepository.continueBookIdsAfter(last);
+                    }
+                    writeTransaction.executeWithoutResult(status -> datasetRepository.insertBooks(chunk));
+                    bookIds[0] = Math.min(bookIds[0], first);
+                    bookIds[1] = Math.max(bookIds[1], last);
+                    books += chunk.size();
+                } else {
+                    List<Borrower> chunk = reader.readBorrowers();
+                    if (chunk.isEmpty()) {
+                        continue;
+                    }
+                    long first = chunk.stream().mapToLong(Borrower::getId).min().getAsLong();
+                    long last = chunk.stream().mapToLong(Borrower::getId).max().getAsLong();
+                    if (last > borrowerIds[1]) {
+                        datasetRepository.continueBorrowerIdsAfter(last);
+                    }
+                    writeTransaction.executeWithoutResult(status -> datasetRepository.insertBorrowers(chunk));
+                    borrowerIds[0] = Math.min(borrowerIds[0], first);
+                    borrowerIds[1] = Math.max(borrowerIds[1], last);
+                    borrowers += chunk.size();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Restore failed after {} books and {} borrowers, deleting them", books, borrowers);
+            if (books > 0) {
+                datasetRepository.deleteBooks(bookIds[0], bookIds[1]);
+            }
+            if (borrowers > 0) {
+                datasetRepository.deleteBorrowers(borrowerIds[0], borrowerIds[1]);
+            }
+            throw e;
+        } finally {
+            if (deferIndexes) {
+                datasetRepository.createDeferredIndexes();
+            }
+        }
+        changeSequence.advanceTo(datasetRepository.maxChangeSeq());
+        entityManagerFactory.getCache().unwrap(Cache.class).evictAllRegions();
+
+        long elapsed = System.nanoTime() - start;
+        if (restoreTimer != null) {
+            restoreTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        DatasetRestored restored = new DatasetRestored(books, borrowers, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        LOGGER.info("Restored {} books and {} borrowers in {} ms", books, borrowers, restored.getMillis());
+        eventPublisher.publishEvent(restored);
+        return restored;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        writeTimer = Timer.builder("libraryportal.snapshot").description("Time to write or restore a snapshot")
+                .tag("operation", "write").register(registry);
+        restoreTimer = Timer.builder("libraryportal.snapshot").description("Time to write or restore a snapshot")
+                .tag("operation", "restore").register(registry);
+    }
+}
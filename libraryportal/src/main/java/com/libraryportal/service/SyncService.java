@@ -0,0 +1,9 @@
+package com.libraryportal.service;
+
+import com.libraryportal.entity.ChangeSet;
+
+public interface SyncService {
+
+    ChangeSet getChangesSince(long since, int limit);
+
+}
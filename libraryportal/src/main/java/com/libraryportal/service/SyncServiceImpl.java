@@ -0,0 +1,92 @@
+package com.libraryportal.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.ChangeSet;
+import com.libraryportal.entity.ChangeTracked;
+import com.libraryportal.entity.DeletedRecord;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.repository.DeletedRecordRepository;
+
+/**
+ * Service class providing the changes to the catalog since a client last
+ * synced, so clients poll for deltas instead of reloading everything.
+ */
+@Service
+public class SyncServiceImpl implements SyncService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyncService.class);
+
+    private final BookRepository bookRepository;
+    private final BorrowerRepository borrowerRepository;
+    private final DeletedRecordRepository deletedRecordRepository;
+    private final ChangeSequence changeSequence;
+
+    @Autowired
+    public SyncServiceImpl(BookRepository bookRepository, BorrowerRepository borrowerRepository,
+            DeletedRecordRepository deletedRecordRepository, ChangeSequence changeSequence) {
+        this.bookRepository = bookRepository;
+        this.borrowerRepository = borrowerRepository;
+        this.deletedRecordRepository = deletedRecordRepository;
+        this.changeSequence = changeSequence;
+    }
+
+    /**
+     * Get the books, borrowers and deletions written after a sync token. Only
+     * committed writes are returned, up to the change sequence watermark. When
+     * there are more than {@code limit} changes of a type, the returned token
+     * stops at the last complete change and {@code hasMore} is set.
+     * 
+     * @param since The token returned by the previous sync, or 0 for a full sync.
+     * @param limit The maximum number of changes of each type to return.
+     * @return The changes and the token to continue from.
+     * @throws IllegalArgumentException If the token was not issued by this
+     *                                  catalog.
+     */
+    public ChangeSet getChangesSince(long since, int limit) {
+        long upTo = changeSequence.watermark();
+        if (since < 0 || since > upTo) {
+            LOGGER.error("Unknown sync token {}, the catalog is at {}", since, upTo);
+            throw new IllegalArgumentException("Unknown sync token " + since + ", reload the catalog.");
+        }
+        LOGGER.info("Fetching changes after {} up to {}", since, upTo);
+        Pageable page = PageRequest.of(0, limit);
+        List<Book> books = bookRepository.findChangedBetween(since, upTo, page);
+        List<Borrower> borrowers = borrowerRepository.findChangedBetween(since, upTo, page);
+        List<DeletedRecord> deletions = deletedRecordRepository.findChangedBetween(since, upTo, page);
+
+        // A full page may have been cut short: continue from the lowest change
+        // that is certainly complete, and drop anything past it from the others.
+        long token = upTo;
+        token = Math.min(token, lastIfFull(books, limit));
+        token = Math.min(token, lastIfFull(borrowers, limit));
+        token = Math.min(token, lastIfFull(deletions, limit));
+        boolean hasMore = token < upTo;
+        if (hasMore) {
+            books = upTo(books, token);
+            borrowers = upTo(borrowers, token);
+            deletions = upTo(deletions, token);
+        }
+        return new ChangeSet(token, hasMore, books, borrowers, deletions);
+    }
+
+    private static long lastIfFull(List<? extends ChangeTracked> changes, int limit) {
+        return changes.size() < limit ? Long.MAX_VALUE : changes.get(changes.size() - 1).getChangeSeq();
+    }
+
+    private static <T extends ChangeTracked> List<T> upTo(List<T> changes, long token) {
+        return changes.stream().filter(change -> change.getChangeSeq() <= token).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,80 @@
+package com.libraryportal.tracing;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.libraryportal.repository.StatementCounter;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Data source proxy listener observing each SQL statement executed within an
+ * observation, so that JDBC time shows as spans of its own. Statements
+ * flushed when a transaction commits appear directly below the service span,
+ * outside any repository span. The statement is recorded without its
+ * parameters.
+ */
+public class JdbcTracingListener implements QueryExecutionListener {
+
+    static final String OBSERVATION_NAME = "libraryportal.jdbc";
+
+    private static final String OBSERVATION_KEY = JdbcTracingListener.class.getName();
+
+    private final ObjectProvider<ObservationRegistry> observationRegistryProvider;
+    private volatile ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new JdbcTracingListener. The registry is looked up on first
+     * use, as the data source is created before it.
+     * 
+     * @param observationRegistryProvider The provider of the observation
+     *                                    registry.
+     */
+    public JdbcTracingListener(ObjectProvider<ObservationRegistry> observationRegistryProvider) {
+        this.observationRegistryProvider = observationRegistryProvider;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        ObservationRegistry observationRegistry = registry();
+        if (observationRegistry.getCurrentObservation() == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        String sql = queryInfoList.get(0).getQuery();
+        String type = StatementCounter.typeOf(sql).name().toLowerCase(Locale.ROOT);
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName("jdbc " + type)
+                .lowCardinalityKeyValue("statement", type)
+                .lowCardinalityKeyValue("batch", Boolean.toString(execInfo.isBatch()))
+                .highCardinalityKeyValue("sql", sql)
+                .start();
+        execInfo.addCustomValue(OBSERVATION_KEY, observation);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Observation observation = execInfo.getCustomValue(OBSERVATION_KEY, Observation.class);
+        if (observation == null) {
+            return;
+        }
+        if (execInfo.getThrowable() != null) {
+            observation.error(execInfo.getThrowable());
+        }
+        observation.stop();
+    }
+
+    private ObservationRegistry registry() {
+        ObservationRegistry registry = observationRegistry;
+        if (registry == null) {
+            registry = observationRegistryProvider.getIfAvailable(() -> ObservationRegistry.NOOP);
+            observationRegistry = registry;
+        }
+        return registry;
+    }
+}
@@ -0,0 +1,85 @@
+package com.libraryportal.tracing;
+
+import java.util.concurrent.CompletionStage;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Aspect observing the public methods of the controllers, the services and
+ * the repositories, so that each call becomes a span nested in the span of
+ * the call that made it, below the span of the HTTP request.
+ * <p>
+ * A controller handler that returns a {@link CompletionStage} is observed
+ * until the stage completes, so its span covers the work done on the
+ * bulkhead. Service and repository calls made outside any observation, such
+ * as background rebuilds, are not observed.
+ */
+@Aspect
+@Component
+public class LayerTracingAspect {
+
+    static final String OBSERVATION_NAME = "libraryportal.layer";
+
+    private final ObservationRegistry observationRegistry;
+
+    public LayerTracingAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Around("execution(public * com.libraryportal.controller..*(..))")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return observe(joinPoint, "controller");
+    }
+
+    @Around("execution(public * com.libraryportal.service..*(..)) && !execution(* bindTo(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.getCurrentObservation() == null) {
+            return joinPoint.proceed();
+        }
+        return observe(joinPoint, "service");
+    }
+
+    @Around("target(org.springframework.data.repository.Repository) && execution(public * *(..))")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (observationRegistry.getCurrentObservation() == null) {
+            return joinPoint.proceed();
+        }
+        return observe(joinPoint, "repository");
+    }
+
+    private Object observe(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        String type = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Observation observation = Observation.createNotStarted(OBSERVATION_NAME, observationRegistry)
+                .contextualName(type + "." + method)
+                .lowCardinalityKeyValue("layer", layer)
+                .lowCardinalityKeyValue("class", type)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+        Object result;
+        try (Observation.Scope scope = observation.openScope()) {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            observation.error(e);
+            observation.stop();
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, error) -> {
+                if (error != null) {
+                    observation.error(error);
+                }
+                observation.stop();
+            });
+        } else {
+            observation.stop();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,260 @@
+package com.libraryportal.tracing;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Span handler writing finished, sampled spans to local files for offline
+ * analysis, one JSON object per line in the Zipkin v2 span format.
+ * <p>
+ * Spans are queued and written by a background thread, so a request never
+ * waits for the disk; when the queue is full further spans are dropped and
+ * counted. The current file is {@code spans.jsonl}. Once it reaches the size
+ * limit it is renamed to {@code spans.jsonl.1}, older files move up by one,
+ * and the oldest beyond the file limit is deleted.
+ */
+public class RotatingFileSpanHandler extends SpanHandler implements MeterBinder, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RotatingFileSpanHandler.class);
+
+    static final String FILE_NAME = "spans.jsonl";
+
+    private static final long POLL_MILLIS = 200;
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<String> queue;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean closed;
+    private BufferedWriter out;
+    private long fileBytes;
+
+    /**
+     * Constructs a new RotatingFileSpanHandler and starts its writer thread.
+     * 
+     * @param directory     The directory the span files are written to.
+     * @param maxFileBytes  The size at which the current file is rotated.
+     * @param maxFiles      The number of files kept, including the current one.
+     * @param queueCapacity The number of spans that may wait to be written.
+     * @throws UncheckedIOException If the directory cannot be created.
+     */
+    public RotatingFileSpanHandler(Path directory, long maxFileBytes, int maxFiles, int queueCapacity) {
+        if (maxFileBytes < 1 || maxFiles < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Span file size, file count and queue capacity must be positive");
+        }
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create the span directory " + directory, e);
+        }
+        this.writer = new Thread(this::writeLoop, "span-file-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        if (cause == Cause.ABANDONED || closed) {
+            return true;
+        }
+        String line;
+        try {
+            line = objectMapper.writeValueAsString(toZipkin(span));
+        } catch (JsonProcessingException e) {
+            dropped.increment();
+            return true;
+        }
+        if (!queue.offer(line)) {
+            dropped.increment();
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of spans written to the files.
+     * 
+     * @return The number of spans written.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Get the number of spans dropped because the queue was full.
+     * 
+     * @return The number of spans dropped.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stop accepting spans, write the queued ones and close the current file.
+     */
+    @Override
+    public void close() {
+        // Not interrupted: an interrupt would close the file channel mid-write
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Object> toZipkin(MutableSpan span) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.traceId());
+        if (span.parentId() != null) {
+            json.put("parentId", span.parentId());
+        }
+        json.put("id", span.id());
+        if (span.kind() != null) {
+            json.put("kind", span.kind().name());
+        }
+        json.put("name", span.name());
+        json.put("timestamp", span.startTimestamp());
+        json.put("duration", Math.max(1, span.finishTimestamp() - span.startTimestamp()));
+        if (span.localServiceName() != null) {
+            json.put("localEndpoint", Map.of("serviceName", span.localServiceName()));
+        }
+        Map<String, String> tags = new LinkedHashMap<>();
+        span.forEachTag(Map::put, tags);
+        if (span.error() != null && !tags.containsKey("error")) {
+            String message = span.error().getMessage();
+            tags.put("error", message != null ? message : span.error().getClass().getSimpleName());
+        }
+        if (!tags.isEmpty()) {
+            json.put("tags", tags);
+        }
+        return json;
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>();
+        try {
+            while (!closed || !queue.isEmpty()) {
+                String line;
+                try {
+                    line = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (line == null) {
+                    continue;
+                }
+                batch.add(line);
+                queue.drainTo(batch);
+                write(batch);
+                batch.clear();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Cannot write spans to {}, spans are no longer recorded", directory, e);
+            closed = true;
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(List<String> lines) throws IOException {
+        for (String line : lines) {
+            if (out == null) {
+                open();
+            }
+            out.write(line);
+            out.write('\n');
+            fileBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            written.increment();
+            if (fileBytes >= maxFileBytes) {
+                rotate();
+            }
+        }
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    private void open() throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        out.close();
+        out = null;
+        Files.deleteIfExists(directory.resolve(FILE_NAME + "." + (maxFiles - 1)));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path older = directory.resolve(FILE_NAME + "." + i);
+            if (Files.exists(older)) {
+                Files.move(older, directory.resolve(FILE_NAME + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(directory.resolve(FILE_NAME), directory.resolve(FILE_NAME + ".1"),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(directory.resolve(FILE_NAME));
+        }
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                LOGGER.warn("Cannot close the span file in {}", directory, e);
+            }
+            out = null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("libraryportal.tracing.spans", written, LongAdder::sum)
+                .description("Spans written to the span files").tag("result", "written").register(registry);
+        FunctionCounter.builder("libraryportal.tracing.spans", dropped, LongAdder::sum)
+                .description("Spans written to the span files").tag("result", "dropped").register(registry);
+        Gauge.builder("libraryportal.tracing.queue.depth", queue, BlockingQueue::size)
+                .description("Spans waiting to be written").register(registry);
+    }
+}
@@ -0,0 +1,131 @@
+package com.libraryportal.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limiter whose limit follows the measured latency, in the style of
+ * a gradient limiter. A long-term moving average of the request latency serves
+ * as the no-load baseline. While recent samples stay within a tolerance of it,
+ * the limit grows by roughly its square root per sample. Once the samples
+ * exceed it, the limit shrinks in proportion to the slowdown, by at most
+ * half. Requests beyond the limit are not queued but rejected immediately, so
+ * a slow database sheds load instead of piling up threads.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double LONG_WINDOW_SAMPLES = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    private double longRttNanos; // guarded by this
+
+    /**
+     * Constructs a new AdaptiveConcurrencyLimiter.
+     *
+     * @param initialLimit The limit to start with.
+     * @param minLimit     The lowest the limit may fall to.
+     * @param maxLimit     The highest the limit may grow to.
+     * @param tolerance    How much slower than the baseline a sample may be
+     *                     before the limit shrinks, e.g. 1.5.
+     * @param smoothing    How strongly each sample moves the limit, between 0 and
+     *                     1.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double smoothing) {
+        if (minLimit < 1 || minLimit > maxLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max.");
+        }
+        if (tolerance < 1.0 || smoothing <= 0.0 || smoothing > 1.0) {
+            throw new IllegalArgumentException("Tolerance must be at least 1 and smoothing in (0, 1].");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Try to admit a request.
+     *
+     * @return true if the request may proceed, in which case exactly one of the
+     *         release methods must be called when it completes.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Release an admitted request and feed its latency into the limit.
+     *
+     * @param rttNanos The latency of the request in nanoseconds.
+     */
+    public void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        sample(rttNanos, inFlightAtCompletion);
+    }
+
+    /**
+     * Release an admitted request without sampling its latency, e.g. when it
+     * failed before doing representative work.
+     */
+    public void releaseIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void sample(long rttNanos, int inFlightAtCompletion) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW_SAMPLES;
+        }
+        // After a sustained slowdown the baseline lags far behind; pull it back so
+        // the limit can recover once latency is normal again.
+        if (longRttNanos > 2 * rttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        double current = limit;
+        if (inFlightAtCompletion < current / 2) {
+            // The limit was not the bottleneck, so the sample says nothing about it.
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current + (target - current) * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    /**
+     * Get the current concurrency limit.
+     *
+     * @return The current limit.
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Get the number of admitted requests that have not been released yet.
+     *
+     * @return The number of requests in flight.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
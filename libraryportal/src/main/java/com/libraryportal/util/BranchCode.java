@@ -0,0 +1,38 @@
+package com.libraryportal.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import com.libraryportal.entity.Book;
+
+/**
+ * Validates and normalises the codes of the branches books belong to. Codes
+ * are upper case letters, digits, hyphens and underscores, at most 32
+ * characters long, and start with a letter or digit.
+ */
+public final class BranchCode {
+
+    private static final Pattern VALID = Pattern.compile("[A-Z0-9][A-Z0-9_-]{0,31}");
+
+    private BranchCode() {
+    }
+
+    /**
+     * Normalise a branch code to upper case.
+     * 
+     * @param branchCode The branch code, may be null or blank for the default
+     *                   branch.
+     * @return The normalised branch code.
+     * @throws IllegalArgumentException If the branch code is not valid.
+     */
+    public static String normalise(String branchCode) {
+        if (branchCode == null || branchCode.isBlank()) {
+            return Book.DEFAULT_BRANCH;
+        }
+        String normalised = branchCode.trim().toUpperCase(Locale.ROOT);
+        if (!VALID.matcher(normalised).matches()) {
+            throw new IllegalArgumentException("Invalid branch code: " + branchCode);
+        }
+        return normalised;
+    }
+}
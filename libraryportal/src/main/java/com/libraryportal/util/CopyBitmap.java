@@ -0,0 +1,192 @@
+package com.libraryportal.util;
+
+/**
+ * The lending state of every copy of a title, one bit per copy: a set bit is a
+ * copy on loan. The number of copies available is kept alongside for constant
+ * time availability checks.
+ * <p>
+ * A bitmap is not thread-safe. Each borrow or return reads the book row with a
+ * pessimistic write lock and builds its own bitmap from it, so the row lock
+ * already serializes every change to the copies of a title.
+ * <p>
+ * A bitmap is stored as little-endian bytes, bit {@code i % 8} of byte
+ * {@code i / 8} being copy {@code i}, trimmed after the last copy on loan. A
+ * title with no copy on loan is stored as null.
+ */
+public final class CopyBitmap {
+
+    /** The most copies of one title, 8 KiB when stored. */
+    public static final int MAX_COPIES = 1 << 16;
+
+    /** Returned when no copy can be claimed or released. */
+    public static final int NO_COPY = -1;
+
+    private final int copies;
+    private final long[] words;
+    private int available;
+
+    /**
+     * Constructs a new CopyBitmap with every copy available.
+     *
+     * @param copies The number of copies of the title.
+     * @throws IllegalArgumentException If the number of copies is negative or
+     *                                  greater than {@link #MAX_COPIES}.
+     */
+    public CopyBitmap(int copies) {
+        if (copies < 0 || copies > MAX_COPIES) {
+            throw new IllegalArgumentException("Number of copies out of range: " + copies);
+        }
+        this.copies = copies;
+        this.words = new long[(copies + 63) >>> 6];
+        this.available = copies;
+        // The bits past the last copy are set, so they are never claimed
+        if ((copies & 63) != 0) {
+            words[words.length - 1] = -1L << (copies & 63);
+        }
+    }
+
+    /**
+     * Read a stored bitmap. Bits past the last copy are ignored.
+     *
+     * @param copies The number of copies of the title.
+     * @param bytes  The stored bitmap, or null if no copy is on loan.
+     * @return The bitmap.
+     * @throws IllegalArgumentException If the number of copies is negative or
+     *                                  greater than {@link #MAX_COPIES}.
+     */
+    public static CopyBitmap fromBytes(int copies, byte[] bytes) {
+        CopyBitmap bitmap = new CopyBitmap(copies);
+        if (bytes != null) {
+            int onLoan = 0;
+            for (int i = 0; i < bytes.length && i << 3 < copies; i++) {
+                long bits = bytes[i] & 0xFFL & validBits(copies, i << 3);
+                if (bits != 0) {
+                    bitmap.words[i >>> 3] |= bits << ((i & 7) << 3);
+                    onLoan += Long.bitCount(bits);
+                }
+            }
+            bitmap.available -= onLoan;
+        }
+        return bitmap;
+    }
+
+    private static long validBits(int copies, int first) {
+        int valid = copies - first;
+        return valid >= 8 ? 0xFFL : (1L << valid) - 1;
+    }
+
+    /**
+     * Get the number of copies of the title.
+     *
+     * @return The number of copies.
+     */
+    public int copies() {
+        return copies;
+    }
+
+    /**
+     * Get the number of copies not on loan.
+     *
+     * @return The number of copies available.
+     */
+    public int available() {
+        return available;
+    }
+
+    /**
+     * Check whether a copy is on loan.
+     *
+     * @param copy The index of the copy, from 0.
+     * @return True if the copy exists and is on loan.
+     */
+    public boolean isOnLoan(int copy) {
+        return copy >= 0 && copy < copies && (words[copy >>> 6] & 1L << copy) != 0;
+    }
+
+    /**
+     * Claim the lowest-numbered available copy.
+     *
+     * @return The index of the claimed copy, or {@link #NO_COPY} if every copy
+     *         is on loan.
+     */
+    public int claim() {
+        for (int i = 0; i < words.length && available > 0; i++) {
+            if (words[i] != -1L) {
+                long bit = Long.lowestOneBit(~words[i]);
+                words[i] |= bit;
+                available--;
+                return (i << 6) + Long.numberOfTrailingZeros(bit);
+            }
+        }
+        return NO_COPY;
+    }
+
+    /**
+     * Release a copy on loan.
+     *
+     * @param copy The index of the copy, from 0.
+     * @return True if the copy was on loan, false if it was available or does
+     *         not exist.
+     */
+    public boolean release(int copy) {
+        if (copy < 0 || copy >= copies) {
+            return false;
+        }
+        int i = copy >>> 6;
+        long bit = 1L << copy;
+        if ((words[i] & bit) == 0) {
+            return false;
+        }
+        words[i] &= ~bit;
+        available++;
+        return true;
+    }
+
+    /**
+     * Release the lowest-numbered copy on loan.
+     *
+     * @return The index of the released copy, or {@link #NO_COPY} if no copy is
+     *         on loan.
+     */
+    public int releaseAny() {
+        for (int i = 0; i < words.length && available < copies; i++) {
+            long onLoan = words[i] & validMask(i);
+            if (onLoan != 0) {
+                long bit = Long.lowestOneBit(onLoan);
+                words[i] &= ~bit;
+                available++;
+                return (i << 6) + Long.numberOfTrailingZeros(bit);
+            }
+        }
+        return NO_COPY;
+    }
+
+    private long validMask(int word) {
+        int valid = copies - (word << 6);
+        return valid >= 64 ? -1L : (1L << valid) - 1;
+    }
+
+    /**
+     * Store the bitmap, trimmed after the last copy on loan.
+     *
+     * @return The stored bitmap, or null if no copy is on loan.
+     */
+    public byte[] toBytes() {
+        int last = -1;
+        long[] onLoan = new long[words.length];
+        for (int i = 0; i < onLoan.length; i++) {
+            onLoan[i] = words[i] & validMask(i);
+            if (onLoan[i] != 0) {
+                last = (i << 3) + 7 - (Long.numberOfLeadingZeros(onLoan[i]) >>> 3);
+            }
+        }
+        if (last < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[last + 1];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (onLoan[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+}
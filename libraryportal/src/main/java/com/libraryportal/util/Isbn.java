@@ -0,0 +1,113 @@
+package com.libraryportal.util;
+
+/**
+ * Parses, validates and normalises ISBNs. Every valid ISBN, whether written as
+ * an ISBN-10 or an ISBN-13, with or without hyphens and spaces, normalises to
+ * the ISBN-13 it denotes, held as a {@code long}.
+ */
+public final class Isbn {
+
+    private static final long ISBN_10_PREFIX = 978_000_000_000_0L;
+
+    private Isbn() {
+    }
+
+    /**
+     * Parse an ISBN-10 or ISBN-13 into its ISBN-13 value.
+     * 
+     * @param isbn The ISBN, with or without hyphens and spaces.
+     * @return The ISBN-13 as a number.
+     * @throws IllegalArgumentException If the ISBN is malformed or its check digit
+     *                                  is wrong.
+     */
+    public static long parse(String isbn) {
+        long value = tryParse(isbn);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+        }
+        return value;
+    }
+
+    /**
+     * Parse an ISBN-10 or ISBN-13 into its ISBN-13 value without throwing.
+     * 
+     * @param isbn The ISBN, with or without hyphens and spaces, may be null.
+     * @return The ISBN-13 as a number, or -1 if the ISBN is not valid.
+     */
+    public static long tryParse(String isbn) {
+        if (isbn == null) {
+            return -1;
+        }
+        long digits = 0;
+        int count = 0;
+        boolean checkX = false;
+        for (int i = 0; i < isbn.length(); i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (checkX) {
+                return -1;
+            }
+            if (c >= '0' && c <= '9') {
+                if (++count > 13) {
+                    return -1;
+                }
+                digits = digits * 10 + (c - '0');
+            } else if ((c == 'X' || c == 'x') && count == 9) {
+                // The check digit of an ISBN-10 may be 10, written as X.
+                checkX = true;
+                count++;
+            } else {
+                return -1;
+            }
+        }
+        if (count == 10) {
+            return fromIsbn10(checkX ? digits : digits / 10, checkX ? 10 : (int) (digits % 10));
+        }
+        if (count == 13 && checkDigit13(digits / 10) == digits % 10 && isBookland(digits)) {
+            return digits;
+        }
+        return -1;
+    }
+
+    /**
+     * Format an ISBN-13 value as its 13 digits.
+     * 
+     * @param isbn13 The ISBN-13 as a number.
+     * @return The ISBN-13 without hyphens.
+     */
+    public static String format(long isbn13) {
+        return String.format("%013d", isbn13);
+    }
+
+    private static long fromIsbn10(long first9, int check) {
+        int sum = 0;
+        long rest = first9;
+        for (int weight = 2; weight <= 10; weight++) {
+            sum += (int) (rest % 10) * weight;
+            rest /= 10;
+        }
+        if ((sum + check) % 11 != 0) {
+            return -1;
+        }
+        long first12 = ISBN_10_PREFIX / 10 + first9;
+        return first12 * 10 + checkDigit13(first12);
+    }
+
+    private static int checkDigit13(long first12) {
+        int sum = 0;
+        long rest = first12;
+        for (int i = 0; i < 12; i++) {
+            // Weights alternate 3, 1 from the rightmost of the twelve digits.
+            sum += (int) (rest % 10) * (i % 2 == 0 ? 3 : 1);
+            rest /= 10;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static boolean isBookland(long isbn13) {
+        long prefix = isbn13 / 10_000_000_000L;
+        return prefix == 978 || prefix == 979;
+    }
+}
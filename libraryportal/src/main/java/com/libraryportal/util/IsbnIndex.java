@@ -0,0 +1,237 @@
+package com.libraryportal.util;
+
+import java.util.concurrent.locks.StampedLock;
+
+import com.libraryportal.entity.BookAvailability;
+
+/**
+ * Open-addressing hash index from ISBN-13 values to the id, number of copies
+ * and status of a book, held in primitive arrays so that neither keys nor
+ * values are boxed and a lookup allocates nothing.
+ * <p>
+ * Each entry keeps the change sequence number of the write it came from, and a
+ * write only replaces an entry with an older one. Writes can therefore arrive
+ * in any order, and the most recent write of any book with the ISBN wins.
+ * <p>
+ * Slots are probed linearly and the table doubles when half full. Writes take
+ * the write lock of a {@link StampedLock}; reads are optimistic and only fall
+ * back to the read lock when they raced with a write.
+ */
+public class IsbnIndex {
+
+    /** Returned by {@link #bookId(long)} for an ISBN that is not indexed. */
+    public static final long NO_BOOK = -1;
+
+    private static final long EMPTY = 0; // Never a valid ISBN-13
+    private static final BookStatus[] STATUSES = BookStatus.values();
+
+    private final StampedLock lock = new StampedLock();
+    private Table table;
+    private int size;
+
+    /**
+     * Constructs a new IsbnIndex.
+     *
+     * @param expectedSize The number of ISBNs to size the table for.
+     */
+    public IsbnIndex(int expectedSize) {
+        this.table = new Table(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Index the availability of a book, unless the entry for its ISBN comes
+     * from a write at least as recent.
+     *
+     * @param isbn13     The ISBN-13 of the book.
+     * @param bookId     The ID of the book.
+     * @param noOfCopies The number of copies available.
+     * @param status     The status of the book, may be null.
+     * @param changeSeq  The change sequence number of the write, 0 if unknown.
+     * @return true if the entry was written.
+     */
+    public boolean put(long isbn13, long bookId, int noOfCopies, BookStatus status, long changeSeq) {
+        if (isbn13 <= EMPTY) {
+            throw new IllegalArgumentException("Invalid ISBN-13: " + isbn13);
+        }
+        long stamp = lock.writeLock();
+        try {
+            Table t = table;
+            int slot = t.find(isbn13);
+            if (slot < 0) {
+                if ((size + 1) * 2 > t.keys.length) {
+                    t = resize(t);
+                }
+                slot = ~t.find(isbn13);
+                t.keys[slot] = isbn13;
+                size++;
+            } else if (t.changeSeqs[slot] >= changeSeq) {
+                return false;
+            }
+            t.bookIds[slot] = bookId;
+            t.copies[slot] = noOfCopies;
+            t.statuses[slot] = encode(status);
+            t.changeSeqs[slot] = changeSeq;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Get the ID of the book indexed under an ISBN.
+     *
+     * @param isbn13 The ISBN-13 to look up.
+     * @return The ID of the book, or {@link #NO_BOOK} if the ISBN is not indexed.
+     */
+    public long bookId(long isbn13) {
+        long stamp = lock.tryOptimisticRead();
+        long bookId = readBookId(table, isbn13);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                bookId = readBookId(table, isbn13);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return bookId;
+    }
+
+    /**
+     * Copy the availability indexed under an ISBN into a caller's object.
+     *
+     * @param isbn13 The ISBN-13 to look up.
+     * @param into   The object receiving the book id, copies and status.
+     * @return true if the ISBN is indexed, in which case the object was filled.
+     */
+    public boolean get(long isbn13, BookAvailability into) {
+        long stamp = lock.tryOptimisticRead();
+        boolean found = read(table, isbn13, into);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = read(table, isbn13, into);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get the number of indexed ISBNs.
+     *
+     * @return The number of ISBNs.
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Table resize(Table old) {
+        Table grown = new Table(old.keys.length * 2);
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.keys[i] != EMPTY) {
+                int slot = ~grown.find(old.keys[i]);
+                grown.keys[slot] = old.keys[i];
+                grown.bookIds[slot] = old.bookIds[i];
+                grown.copies[slot] = old.copies[i];
+                grown.statuses[slot] = old.statuses[i];
+                grown.changeSeqs[slot] = old.changeSeqs[i];
+            }
+        }
+        table = grown;
+        return grown;
+    }
+
+    /**
+     * Reads may race with a write when optimistic, so every value read is only
+     * trusted once the stamp validates, and probing is bounded by the table
+     * size.
+     */
+    private static long readBookId(Table t, long isbn13) {
+        int slot = t.find(isbn13);
+        return slot < 0 ? NO_BOOK : t.bookIds[slot];
+    }
+
+    private static boolean read(Table t, long isbn13, BookAvailability into) {
+        int slot = t.find(isbn13);
+        if (slot < 0) {
+            return false;
+        }
+        into.setBookId(t.bookIds[slot]);
+        into.setNoOfCopies(t.copies[slot]);
+        into.setStatus(decode(t.statuses[slot]));
+        return true;
+    }
+
+    /**
+     * Statuses are stored as their ordinal plus one, leaving 0 for none.
+     */
+    private static byte encode(BookStatus status) {
+        return status == null ? 0 : (byte) (status.ordinal() + 1);
+    }
+
+    private static BookStatus decode(byte status) {
+        return status <= 0 || status > STATUSES.length ? null : STATUSES[status - 1];
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity < expectedSize * 2L && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * The arrays of one table generation. A resize publishes a new generation,
+     * so a reader always sees arrays of matching length.
+     */
+    private static final class Table {
+        final long[] keys;
+        final long[] bookIds;
+        final int[] copies;
+        final byte[] statuses;
+        final long[] changeSeqs;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            bookIds = new long[capacity];
+            copies = new int[capacity];
+            statuses = new byte[capacity];
+            changeSeqs = new long[capacity];
+        }
+
+        /**
+         * Find the slot of a key.
+         *
+         * @return The slot holding the key, or the complement of the empty slot
+         *         where it would be inserted.
+         */
+        int find(long key) {
+            int mask = keys.length - 1;
+            int slot = mix(key) & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                long k = keys[slot];
+                if (k == key) {
+                    return slot;
+                }
+                if (k == EMPTY) {
+                    return ~slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return ~0; // Only reachable by a racing optimistic read
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9e3779b97f4a7c15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
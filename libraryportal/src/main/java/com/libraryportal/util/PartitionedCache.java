@@ -0,0 +1,173 @@
+package com.libraryportal.util;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * A cache split into independently bounded partitions, so that heavy traffic
+ * on one partition can only evict that partition's entries.
+ * <p>
+ * Each partition is a Caffeine cache with its own size bound, created on first
+ * use. Once the maximum number of partitions exists, values of further
+ * partitions are loaded without caching. Invalidating a partition bumps its
+ * generation, and a value loaded under an older generation is not kept, so a
+ * load that raced with an invalidation cannot leave a stale value behind.
+ *
+ * @param <K> The type of the keys within a partition.
+ * @param <V> The type of the cached values.
+ */
+public class PartitionedCache<K, V> implements MeterBinder {
+
+    private final String name;
+    private final int maxPartitions;
+    private final long maximumSizePerPartition;
+    private final Duration expireAfterWrite;
+    private final ConcurrentMap<String, Partition<K, V>> partitions = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncached = new LongAdder();
+
+    /**
+     * Constructs a new PartitionedCache.
+     *
+     * @param name                    The name of the cache, used to tag metrics.
+     * @param maxPartitions           The maximum number of partitions.
+     * @param maximumSizePerPartition The maximum number of entries of each
+     *                                partition.
+     * @param expireAfterWrite        How long an entry is kept after it is
+     *                                loaded.
+     */
+    public PartitionedCache(String name, int maxPartitions, long maximumSizePerPartition,
+            Duration expireAfterWrite) {
+        this.name = name;
+        this.maxPartitions = maxPartitions;
+        this.maximumSizePerPartition = maximumSizePerPartition;
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    /**
+     * Get a value from a partition, loading and caching it if absent.
+     *
+     * @param partition The partition.
+     * @param key       The key within the partition.
+     * @param loader    The load of an absent value, which must not return null.
+     * @return The cached or loaded value.
+     */
+    public V get(String partition, K key, Function<K, V> loader) {
+        Partition<K, V> p = partitions.get(partition);
+        if (p == null) {
+            p = createPartition(partition);
+            if (p == null) {
+                uncached.increment();
+                return loader.apply(key);
+            }
+        }
+        V value = p.cache.getIfPresent(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        long generation = p.generation.get();
+        value = loader.apply(key);
+        if (p.generation.get() == generation) {
+            p.cache.put(key, value);
+            if (p.generation.get() != generation) {
+                // Invalidated while the value was being put
+                p.cache.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Remove every entry of a partition.
+     *
+     * @param partition The partition.
+     */
+    public void invalidate(String partition) {
+        Partition<K, V> p = partitions.get(partition);
+        if (p != null) {
+            p.generation.incrementAndGet();
+            p.cache.invalidateAll();
+        }
+    }
+
+    /**
+     * Remove every entry of every partition.
+     */
+    public void invalidateAll() {
+        for (String partition : partitions.keySet()) {
+            invalidate(partition);
+        }
+    }
+
+    /**
+     * Get the number of entries of a partition.
+     *
+     * @param partition The partition.
+     * @return The approximate number of entries.
+     */
+    public long size(String partition) {
+        Partition<K, V> p = partitions.get(partition);
+        return p == null ? 0 : p.cache.estimatedSize();
+    }
+
+    /**
+     * Perform the pending maintenance of every partition, such as evicting the
+     * entries over its bound.
+     */
+    public void cleanUp() {
+        for (Partition<K, V> p : partitions.values()) {
+            p.cache.cleanUp();
+        }
+    }
+
+    private synchronized Partition<K, V> createPartition(String partition) {
+        Partition<K, V> p = partitions.get(partition);
+        if (p == null && partitions.size() < maxPartitions) {
+            p = new Partition<>(Caffeine.newBuilder().maximumSize(maximumSizePerPartition)
+                    .expireAfterWrite(expireAfterWrite).build());
+            partitions.put(partition, p);
+        }
+        return p;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("libraryportal.partitioned.cache.requests", hits, LongAdder::sum)
+                .description("Partitioned cache lookups").tag("cache", name).tag("result", "hit").register(registry);
+        FunctionCounter.builder("libraryportal.partitioned.cache.requests", misses, LongAdder::sum)
+                .description("Partitioned cache lookups").tag("cache", name).tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("libraryportal.partitioned.cache.requests", uncached, LongAdder::sum)
+                .description("Partitioned cache lookups").tag("cache", name).tag("result", "uncached")
+                .register(registry);
+        Gauge.builder("libraryportal.partitioned.cache.partitions", partitions, ConcurrentMap::size)
+                .description("Partitions of the cache").tag("cache", name).register(registry);
+        Gauge.builder("libraryportal.partitioned.cache.size", partitions,
+                ps -> ps.values().stream().mapToLong(p -> p.cache.estimatedSize()).sum())
+                .description("Entries over all partitions").tag("cache", name).register(registry);
+    }
+
+    private static final class Partition<K, V> {
+        final Cache<K, V> cache;
+        final AtomicLong generation = new AtomicLong();
+
+        Partition(Cache<K, V> cache) {
+            this.cache = cache;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.libraryportal.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * A Bloom filter over string keys that grows with the number of keys added,
+ * used as a negative cache in front of duplicate checks: a key it has never
+ * seen is certainly not registered, so the database lookup can be skipped.
+ * <p>
+ * The filter is a chain of stages. When the newest stage is full, a stage
+ * twice its size with half its false positive rate is added, so the compound
+ * false positive rate stays below the configured rate however many keys are
+ * added. Keys are never removed; a deleted key only costs a false positive.
+ * <p>
+ * Until {@link #markLoaded()} is called every key might be contained, so
+ * lookups are checked against the database while the filter is being built.
+ * {@link #recordLookup(boolean)} reports the outcome of those checks, from
+ * which the observed false positive rate is derived.
+ */
+public class ScalableBloomFilter implements MeterBinder {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final String name;
+    private final double falsePositiveRate;
+    private volatile Stage[] stages;
+    private volatile boolean loaded;
+    private long size;
+    private final LongAdder negatives = new LongAdder();
+    private final LongAdder truePositives = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Constructs a new ScalableBloomFilter.
+     *
+     * @param name              The name of the filter, used to tag metrics.
+     * @param initialCapacity   The number of keys the first stage holds.
+     * @param falsePositiveRate The upper bound of the compound false positive
+     *                          rate, between 0 and 1.
+     */
+    public ScalableBloomFilter(String name, int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter capacity or false positive rate");
+        }
+        this.name = name;
+        this.falsePositiveRate = falsePositiveRate;
+        // The stage rates form a geometric series summing to below the target.
+        this.stages = new Stage[] { new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)) };
+    }
+
+    /**
+     * Add a key to the filter.
+     *
+     * @param key The key to add.
+     */
+    public synchronized void put(String key) {
+        long hash = hash(key);
+        Stage current = stages[stages.length - 1];
+        if (current.count >= current.capacity) {
+            Stage[] grown = new Stage[stages.length + 1];
+            System.arraycopy(stages, 0, grown, 0, stages.length);
+            current = new Stage(current.capacity * GROWTH_FACTOR, current.falsePositiveRate * TIGHTENING_RATIO);
+            grown[stages.length] = current;
+            stages = grown;
+        }
+        current.put(hash);
+        size++;
+    }
+
+    /**
+     * Check whether a key might have been added. A negative answer is
+     * definite once the filter is loaded.
+     *
+     * @param key The key to check.
+     * @return false if the key was certainly never added, true otherwise.
+     */
+    public boolean mightContain(String key) {
+        if (!loaded) {
+            return true;
+        }
+        long hash = hash(key);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash)) {
+                return true;
+            }
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * Mark the filter as holding every existing key, so negative answers can be
+     * trusted from now on.
+     */
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    /**
+     * Check whether the filter holds every existing key.
+     *
+     * @return true once the filter is loaded.
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Record the outcome of the lookup made after a positive answer.
+     *
+     * @param found Whether the key was actually found.
+     */
+    public void recordLookup(boolean found) {
+        if (!loaded) {
+            return;
+        }
+        if (found) {
+            truePositives.increment();
+        } else {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Get the number of keys added.
+     *
+     * @return The number of keys.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Get the number of lookups skipped because the key was certainly absent.
+     *
+     * @return The number of negative answers.
+     */
+    public long getNegatives() {
+        return negatives.sum();
+    }
+
+    /**
+     * Get the fraction of absent keys the filter wrongly reported as possibly
+     * present.
+     *
+     * @return The observed false positive rate, between 0 and 1.
+     */
+    public double getObservedFalsePositiveRate() {
+        long wrong = falsePositives.sum();
+        long absent = negatives.sum() + wrong;
+        return absent == 0 ? 0.0 : (double) wrong / absent;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("libraryportal.bloom.lookups", negatives, LongAdder::sum)
+                .description("Duplicate checks answered by the Bloom filter").tag("filter", name)
+                .tag("result", "negative").register(registry);
+        FunctionCounter.builder("libraryportal.bloom.lookups", truePositives, LongAdder::sum)
+                .description("Duplicate checks answered by the Bloom filter").tag("filter", name)
+                .tag("result", "true_positive").register(registry);
+        FunctionCounter.builder("libraryportal.bloom.lookups", falsePositives, LongAdder::sum)
+                .description("Duplicate checks answered by the Bloom filter").tag("filter", name)
+                .tag("result", "false_positive").register(registry);
+        Gauge.builder("libraryportal.bloom.false.positive.rate", this,
+                ScalableBloomFilter::getObservedFalsePositiveRate)
+                .description("Fraction of absent keys reported as possibly present").tag("filter", name)
+                .register(registry);
+        Gauge.builder("libraryportal.bloom.false.positive.rate.bound", () -> falsePositiveRate)
+                .description("Configured upper bound of the false positive rate").tag("filter", name)
+                .register(registry);
+        Gauge.builder("libraryportal.bloom.keys", this, ScalableBloomFilter::size)
+                .description("Keys added to the Bloom filter").tag("filter", name).register(registry);
+    }
+
+    /**
+     * 64-bit FNV-1a over the characters of the key, finished with the
+     * MurmurHash3 mixer so that both halves are well distributed.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * A fixed-size Bloom filter. Bits are only set under the filter's lock, and
+     * are published through an atomic array so lookups never need the lock.
+     */
+    private static final class Stage {
+
+        private final long capacity;
+        private final double falsePositiveRate;
+        private final long numBits;
+        private final int numHashes;
+        private final AtomicLongArray bits;
+        private long count;
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            double ln2 = Math.log(2);
+            this.numBits = Math.max(64, (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2)));
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * ln2));
+            this.bits = new AtomicLongArray((int) ((numBits + 63) >>> 6));
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+                int word = (int) (bit >>> 6);
+                bits.set(word, bits.get(word) | (1L << bit));
+            }
+            count++;
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= numHashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, numBits);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
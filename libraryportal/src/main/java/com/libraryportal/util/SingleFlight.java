@@ -0,0 +1,141 @@
+package com.libraryportal.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Coalesces concurrent loads of the same key: the first caller for a key runs
+ * the load, and every caller that arrives while it is still in flight waits for
+ * and shares its result or exception instead of running its own. Once the load
+ * completes the next call starts a fresh one, so results are never cached.
+ * <p>
+ * Shared results are handed to several callers at once and must be treated as
+ * read-only.
+ *
+ * @param <K> The type of the keys identifying identical loads.
+ * @param <V> The type of the loaded values.
+ */
+public class SingleFlight<K, V> implements MeterBinder {
+
+    /**
+     * A load that may throw a checked exception.
+     *
+     * @param <V> The type of the loaded value.
+     * @param <X> The type of the checked exception.
+     */
+    @FunctionalInterface
+    public interface Loader<V, X extends Exception> {
+        V load() throws X;
+    }
+
+    private final String operation;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Constructs a new SingleFlight.
+     *
+     * @param operation The name of the coalesced operation, used to tag metrics.
+     */
+    public SingleFlight(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Load the value for a key, joining a load of the same key that is already in
+     * flight.
+     *
+     * @param key    The key identifying identical loads.
+     * @param loader The load to run if none is in flight for the key.
+     * @return The loaded value.
+     * @throws X If the load throws a checked exception.
+     */
+    public <X extends Exception> V execute(K key, Loader<V, X> loader) throws X {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        calls.increment();
+        if (existing != null) {
+            return await(existing);
+        }
+
+        loads.increment();
+        try {
+            V value = loader.load();
+            call.complete(value);
+            return value;
+        } catch (Exception | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <X extends Exception> V await(CompletableFuture<V> call) throws X {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight " + operation, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw (X) cause;
+        }
+    }
+
+    /**
+     * Get the number of calls made, including the coalesced ones.
+     *
+     * @return The number of calls.
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the number of loads actually run.
+     *
+     * @return The number of loads.
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * Get the fraction of calls that were served by another caller's load.
+     *
+     * @return The coalescing ratio, between 0 and 1.
+     */
+    public double getCoalescingRatio() {
+        long total = calls.sum();
+        return total == 0 ? 0.0 : 1.0 - (double) loads.sum() / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("libraryportal.singleflight.calls", this, SingleFlight::getCalls)
+                .description("Calls made, including coalesced ones").tag("operation", operation)
+                .register(registry);
+        FunctionCounter.builder("libraryportal.singleflight.loads", this, SingleFlight::getLoads)
+                .description("Loads actually run").tag("operation", operation).register(registry);
+        Gauge.builder("libraryportal.singleflight.coalescing.ratio", this, SingleFlight::getCoalescingRatio)
+                .description("Fraction of calls served by another caller's load").tag("operation", operation)
+                .register(registry);
+    }
+}
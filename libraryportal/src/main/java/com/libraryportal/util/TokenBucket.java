@@ -0,0 +1,64 @@
+package com.libraryportal.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The bucket is kept in its GCRA (generic cell rate
+ * algorithm) form: instead of a token count and a refill timestamp it stores a
+ * single "theoretical arrival time", which lets a request be admitted or
+ * rejected with one compare-and-set and yields the exact wait time on
+ * rejection.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Constructs a new TokenBucket that starts full.
+     *
+     * @param tokensPerSecond The rate at which tokens are added to the bucket.
+     * @param capacity        The maximum number of tokens, i.e. the burst size.
+     */
+    public TokenBucket(double tokensPerSecond, int capacity) {
+        if (tokensPerSecond <= 0 || capacity < 1) {
+            throw new IllegalArgumentException("Token rate and capacity must be positive.");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstNanos = emissionIntervalNanos * capacity;
+    }
+
+    /**
+     * Try to take one token.
+     *
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until
+     *         the next token becomes available.
+     */
+    public long tryAcquire() {
+        return tryAcquire(System.nanoTime());
+    }
+
+    /**
+     * Try to take one token at the given time.
+     *
+     * @param nowNanos The current {@link System#nanoTime()} value.
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until
+     *         the next token becomes available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrivalTime.get();
+            long start = current == Long.MIN_VALUE || current - nowNanos < 0 ? nowNanos : current;
+            long next = start + emissionIntervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+-- Schema as of the first file-backed release. Matches the entity mappings,
+-- which Hibernate validates on startup; later changes go in new migrations.
+
+CREATE TABLE book (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    author VARCHAR(255),
+    change_seq BIGINT,
+    isbn VARCHAR(255),
+    no_of_copies INTEGER NOT NULL,
+    status ENUM('AVAILABLE', 'BORROWED'),
+    title VARCHAR(255),
+    CONSTRAINT uk_book_isbn_title_author UNIQUE (isbn, title, author)
+);
+
+CREATE INDEX idx_book_change_seq ON book (change_seq);
+
+CREATE TABLE borrower (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    change_seq BIGINT,
+    email VARCHAR(255) UNIQUE,
+    name VARCHAR(255)
+);
+
+CREATE INDEX idx_borrower_change_seq ON borrower (change_seq);
+
+CREATE TABLE deleted_record (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    change_seq BIGINT,
+    entity_id BIGINT,
+    entity_type VARCHAR(255)
+);
+
+CREATE INDEX idx_deleted_record_change_seq ON deleted_record (change_seq);
@@ -0,0 +1,11 @@
+-- Books belong to a branch. Existing books go to the default branch, and the
+-- same book may be registered once per branch. The branch index serves the
+-- branch-scoped listings in id order without touching other branches' rows.
+
+ALTER TABLE book ADD COLUMN branch_code VARCHAR(32) DEFAULT 'MAIN' NOT NULL;
+
+ALTER TABLE book DROP CONSTRAINT uk_book_isbn_title_author;
+
+ALTER TABLE book ADD CONSTRAINT uk_book_branch_isbn_title_author UNIQUE (branch_code, isbn, title, author);
+
+CREATE INDEX idx_book_branch ON book (branch_code, id);
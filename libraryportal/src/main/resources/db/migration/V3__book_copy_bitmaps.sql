@@ -0,0 +1,10 @@
+-- Books track the lending state of every copy in a bitmap, one bit per copy,
+-- next to the total number of copies. Before this, a borrowed book had exactly
+-- one copy on loan, taken off its available copies; that copy becomes copy 0.
+
+ALTER TABLE book ADD COLUMN total_copies INTEGER DEFAULT 0 NOT NULL;
+
+ALTER TABLE book ADD COLUMN copy_bitmap VARBINARY(8192);
+
+UPDATE book SET total_copies = no_of_copies + CASE WHEN status = 'BORROWED' THEN 1 ELSE 0 END,
+    copy_bitmap = CASE WHEN status = 'BORROWED' THEN X'01' END;
@@ -0,0 +1,12 @@
+-- Titles and authors are optional, and nulls never collide in a unique
+-- constraint, so two concurrent first registrations of a book without a title
+-- or author could both insert. The constraint moves to generated key columns
+-- holding a missing title or author as the empty string.
+
+ALTER TABLE book ADD COLUMN title_key VARCHAR(255) GENERATED ALWAYS AS (COALESCE(title, ''));
+
+ALTER TABLE book ADD COLUMN author_key VARCHAR(255) GENERATED ALWAYS AS (COALESCE(author, ''));
+
+ALTER TABLE book DROP CONSTRAINT uk_book_branch_isbn_title_author;
+
+ALTER TABLE book ADD CONSTRAINT uk_book_branch_isbn_title_author UNIQUE (branch_code, isbn, title_key, author_key);
@@ -0,0 +1,426 @@
+package com.libraryportal.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.repository.DatasetSnapshot;
+import com.libraryportal.service.SnapshotService;
+import com.libraryportal.util.CopyBitmap;
+
+/**
+ * Generates a large, realistic library for benchmarks and load tests, the same
+ * for the same seed and settings.
+ * <p>
+ * Every book is an edition of a work, picked with a Zipf distribution. The
+ * most popular works have many editions and many copies, and the long tail has
+ * a single copy of a single edition. A share of the books is registered under
+ * the ISBN of an earlier book, as catalogue errors leave them. Borrowers have
+ * distinct emails. The loan history is a sequence of borrows and returns with
+ * Zipf-distributed books and borrowers. The books are generated in the state
+ * the history leaves them in.
+ * <p>
+ * The dataset is written as a {@link DatasetSnapshot}. It can be restored
+ * through {@link SnapshotService}, which inserts it in JDBC batches, or posted
+ * to a running application. Books, borrowers and loans each draw from their own
+ * random stream, so changing the number of loans leaves the books and borrowers
+ * as they were. A load test can generate a dataset without loans and replay the
+ * history with {@link #forEachLoan(LoanVisitor)}.
+ */
+public class DatasetGenerator {
+
+	private static final String[] ADJECTIVES = { "Silent", "Crimson", "Hidden", "Last", "Broken", "Golden",
+			"Distant", "Secret", "Burning", "Frozen", "Forgotten", "Wandering", "Iron", "Glass", "Midnight", "Quiet",
+			"Endless", "Hollow", "Bright", "Lonely", "Wild", "Ancient", "Shattered", "Velvet", "Northern", "Paper",
+			"Restless", "Sunken", "Scarlet", "Invisible", "Little", "Final" };
+	private static final String[] NOUNS = { "River", "Garden", "Empire", "Lighthouse", "Orchard", "Kingdom",
+			"Archive", "Harbour", "Mountain", "Forest", "Library", "Station", "Voyage", "Winter", "Mirror", "Island",
+			"Tower", "Letter", "Sea", "Map", "Circus", "Crown", "Bridge", "City", "Storm", "Compass", "House",
+			"Shadow", "Clockmaker", "Witness", "Season", "Road" };
+	private static final String[] FIRST_NAMES = { "Ada", "Ben", "Clara", "David", "Elena", "Farid", "Grace", "Hugo",
+			"Ines", "Jonas", "Keiko", "Liam", "Maya", "Nikolai", "Olivia", "Pablo", "Quinn", "Rosa", "Samuel",
+			"Tara", "Umar", "Vera", "Wei", "Yara" };
+	private static final String[] LAST_NAMES = { "Anders", "Brooks", "Castillo", "Dubois", "Eriksen", "Fischer",
+			"Garcia", "Haddad", "Ibrahim", "Jensen", "Kowalski", "Larsen", "Moreau", "Novak", "Okafor", "Petrov",
+			"Quist", "Rossi", "Sato", "Tanaka", "Ueda", "Varga", "Weber", "Zhang" };
+	private static final String[] DOMAINS = { "example.com", "example.org", "example.net" };
+
+	private static final int CHUNK_ROWS = 10_000;
+	private static final int DUPLICATE_WINDOW = 100_000;
+	private static final int MAX_COPIES = 500;
+	private static final double BORROWER_SKEW = 0.8;
+	private static final long STRIDE = 2_147_483_647L; // Prime, so scrambling is a bijection
+
+	private final long seed;
+	private final int books;
+	private final int works;
+	private final int borrowers;
+	private final int loans;
+	private final double titleSkew;
+	private final double duplicateIsbnRate;
+
+	/**
+	 * Constructs a new DatasetGenerator.
+	 *
+	 * @param seed              The seed of every random choice.
+	 * @param books             The number of books.
+	 * @param works             The number of distinct works the books are
+	 *                          editions of.
+	 * @param borrowers         The number of borrowers.
+	 * @param loans             The number of borrows and returns in the loan
+	 *                          history.
+	 * @param titleSkew         The exponent of the Zipf distribution of work and
+	 *                          book popularity, greater than 0.
+	 * @param duplicateIsbnRate The share of books registered under the ISBN of
+	 *                          an earlier book, between 0 and 1.
+	 */
+	public DatasetGenerator(long seed, int books, int works, int borrowers, int loans, double titleSkew,
+			double duplicateIsbnRate) {
+		if (books < 1 || works < 1 || borrowers < 1 || loans < 0 || titleSkew <= 0 || duplicateIsbnRate < 0
+				|| duplicateIsbnRate >= 1) {
+			throw new IllegalArgumentException("Invalid dataset settings");
+		}
+		this.seed = seed;
+		this.books = books;
+		this.works = works;
+		this.borrowers = borrowers;
+		this.loans = loans;
+		this.titleSkew = titleSkew;
+		this.duplicateIsbnRate = duplicateIsbnRate;
+	}
+
+	/**
+	 * Create a generator from the {@code dataset.*} system properties:
+	 * {@code seed}, {@code books}, {@code works}, {@code borrowers},
+	 * {@code loans}, {@code title-skew} and {@code duplicate-isbn-rate}. By
+	 * default it generates 2 million books of 500,000 works, 200,000 borrowers
+	 * and 1 million loans.
+	 *
+	 * @return The generator.
+	 */
+	public static DatasetGenerator fromSystemProperties() {
+		return fromSystemProperties(2_000_000, 200_000);
+	}
+
+	/**
+	 * Create a generator from the {@code dataset.*} system properties, with
+	 * other default sizes. There are four books per work and half as many loans
+	 * as books unless set otherwise.
+	 *
+	 * @param defaultBooks     The number of books unless set.
+	 * @param defaultBorrowers The number of borrowers unless set.
+	 * @return The generator.
+	 */
+	public static DatasetGenerator fromSystemProperties(int defaultBooks, int defaultBorrowers) {
+		int books = Integer.getInteger("dataset.books", defaultBooks);
+		return new DatasetGenerator(Long.getLong("dataset.seed", 42), books,
+				Integer.getInteger("dataset.works", Math.max(1, books / 4)),
+				Integer.getInteger("dataset.borrowers", defaultBorrowers),
+				Integer.getInteger("dataset.loans", books / 2),
+				Double.parseDouble(System.getProperty("dataset.title-skew", "1.07")),
+				Double.parseDouble(System.getProperty("dataset.duplicate-isbn-rate", "0.02")));
+	}
+
+	/**
+	 * Get the number of books generated. Their ids run from 1 to this number.
+	 *
+	 * @return The number of books.
+	 */
+	public int getBooks() {
+		return books;
+	}
+
+	/**
+	 * Get the number of borrowers generated. Their ids run from 1 to this number.
+	 *
+	 * @return The number of borrowers.
+	 */
+	public int getBorrowers() {
+		return borrowers;
+	}
+
+	/**
+	 * Write the dataset as a snapshot, a chunk at a time.
+	 *
+	 * @param out The stream to write to, left open.
+	 * @throws IOException If writing fails.
+	 */
+	public void writeSnapshot(OutputStream out) throws IOException {
+		BitSet onLoan = new BitSet(books + 1);
+		forEachLoan(new LoanVisitor() {
+			@Override
+			public void borrowed(long borrowerId, long bookId) {
+				onLoan.set((int) bookId);
+			}
+
+			@Override
+			public void returned(long bookId) {
+				onLoan.clear((int) bookId);
+			}
+		});
+
+		SplittableRandom root = new SplittableRandom(seed);
+		SplittableRandom bookRandom = root.split();
+		SplittableRandom borrowerRandom = root.split();
+		ZipfSampler workPopularity = new ZipfSampler(works, titleSkew);
+		try (DatasetSnapshot.Writer writer = DatasetSnapshot.write(out)) {
+			List<Book> chunk = new ArrayList<>(CHUNK_ROWS);
+			for (int id = 1; id <= books; id++) {
+				chunk.add(book(id, workPopularity.sample(bookRandom), bookRandom, onLoan.get(id)));
+				if (chunk.size() == CHUNK_ROWS) {
+					writer.writeBooks(chunk);
+					chunk.clear();
+				}
+			}
+			if (!chunk.isEmpty()) {
+				writer.writeBooks(chunk);
+			}
+			List<Borrower> borrowerChunk = new ArrayList<>(CHUNK_ROWS);
+			for (int id = 1; id <= borrowers; id++) {
+				borrowerChunk.add(borrower(id, borrowerRandom));
+				if (borrowerChunk.size() == CHUNK_ROWS) {
+					writer.writeBorrowers(borrowerChunk);
+					borrowerChunk.clear();
+				}
+			}
+			if (!borrowerChunk.isEmpty()) {
+				writer.writeBorrowers(borrowerChunk);
+			}
+		}
+	}
+
+	/**
+	 * Generate the dataset straight into an empty library, without holding it in
+	 * memory or on disk.
+	 *
+	 * @param snapshotService The service restoring the generated snapshot.
+	 * @return The numbers of books and borrowers loaded.
+	 * @throws IOException If generating or restoring fails.
+	 */
+	public DatasetRestored load(SnapshotService snapshotService) throws IOException {
+		PipedInputStream in = new PipedInputStream(1 << 16);
+		PipedOutputStream out = new PipedOutputStream(in);
+		AtomicReference<IOException> failure = new AtomicReference<>();
+		Thread generator = new Thread(() -> {
+			try (OutputStream o = out) {
+				writeSnapshot(o);
+			} catch (IOException e) {
+				failure.set(e);
+			}
+		}, "dataset-generator");
+		generator.start();
+		DatasetRestored restored;
+		try {
+			restored = snapshotService.restore(in);
+		} finally {
+			// Unblocks the generator if the restore stopped reading early
+			in.close();
+			try {
+				generator.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		if (failure.get() != null) {
+			throw failure.get();
+		}
+		return restored;
+	}
+
+	/**
+	 * Replay the loan history. A book picked while it is on loan is returned,
+	 * otherwise it is borrowed, so the history follows the circulation rules.
+	 *
+	 * @param visitor The visitor receiving each borrow and return in order.
+	 */
+	public void forEachLoan(LoanVisitor visitor) {
+		SplittableRandom root = new SplittableRandom(seed);
+		root.split();
+		root.split();
+		SplittableRandom random = root.split();
+		ZipfSampler bookPopularity = new ZipfSampler(books, titleSkew);
+		ZipfSampler borrowerActivity = new ZipfSampler(borrowers, BORROWER_SKEW);
+		BitSet onLoan = new BitSet(books + 1);
+		for (int i = 0; i < loans; i++) {
+			int bookId = (int) scramble(bookPopularity.sample(random), books);
+			if (onLoan.get(bookId)) {
+				onLoan.clear(bookId);
+				visitor.returned(bookId);
+			} else {
+				onLoan.set(bookId);
+				visitor.borrowed(scramble(borrowerActivity.sample(random), borrowers), bookId);
+			}
+		}
+	}
+
+	private Book book(long id, long work, SplittableRandom random, boolean onLoan) {
+		Book book = new Book();
+		book.setId(id);
+		String title = title(work);
+		if (id > 1 && id < books && random.nextDouble() < duplicateIsbnRate) {
+			// The distance to the original makes each duplicate's title unique
+			long original = id - 1 - random.nextInt((int) Math.min(id - 1, DUPLICATE_WINDOW));
+			book.setIsbn(isbn13(original));
+			title += " (copy " + (id - original) + ")";
+		} else {
+			book.setIsbn(isbn13(id));
+		}
+		book.setTitle(title);
+		book.setAuthor(author(work));
+		// Popular works have more copies on average
+		double meanExtraCopies = 1 + 20 / Math.sqrt(work);
+		int copies = 1 + (int) Math.min(MAX_COPIES, -Math.log(1 - random.nextDouble()) * meanExtraCopies);
+		CopyBitmap bitmap = new CopyBitmap(copies);
+		if (onLoan) {
+			bitmap.claim();
+		}
+		book.applyCopies(bitmap);
+		book.setChangeSeq(id);
+		return book;
+	}
+
+	private Borrower borrower(long id, SplittableRandom random) {
+		String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+		String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+		Borrower borrower = new Borrower();
+		borrower.setId(id);
+		borrower.setName(first + " " + last);
+		borrower.setEmail((first + "." + last).toLowerCase(Locale.ROOT) + id + "@"
+				+ DOMAINS[random.nextInt(DOMAINS.length)]);
+		borrower.setChangeSeq(books + id);
+		return borrower;
+	}
+
+	/**
+	 * Get the title of a work. Every work has a distinct title.
+	 *
+	 * @param work The rank of the work, from 1.
+	 * @return The title.
+	 */
+	static String title(long work) {
+		long index = work - 1;
+		String title = "The " + ADJECTIVES[(int) (index % ADJECTIVES.length)] + " "
+				+ NOUNS[(int) (index / ADJECTIVES.length % NOUNS.length)];
+		long part = index / ((long) ADJECTIVES.length * NOUNS.length);
+		return part == 0 ? title : title + ", Part " + (part + 1);
+	}
+
+	private static String author(long work) {
+		long h = work * 0x9e3779b97f4a7c15L;
+		h ^= h >>> 32;
+		int index = (int) Math.floorMod(h, (long) FIRST_NAMES.length * LAST_NAMES.length);
+		return FIRST_NAMES[index % FIRST_NAMES.length] + " " + LAST_NAMES[index / FIRST_NAMES.length];
+	}
+
+	/**
+	 * Get the ISBN-13 a book is generated with, unless it is a duplicate. The
+	 * first and the last book are never duplicates, so the last book can be
+	 * looked up to check that everything is loaded.
+	 *
+	 * @param id The ID of the book, at most 999,999,999.
+	 * @return A valid ISBN-13.
+	 */
+	public static String isbn13(long id) {
+		String digits = String.format("978%09d", id);
+		int sum = 0;
+		for (int i = 0; i < digits.length(); i++) {
+			sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+		}
+		return digits + (10 - sum % 10) % 10;
+	}
+
+	/**
+	 * Spread popularity ranks over the ids, so the popular books are not all
+	 * registered first.
+	 */
+	private static long scramble(long rank, long n) {
+		return (rank - 1) * STRIDE % n + 1;
+	}
+
+	/**
+	 * Receives the loan history.
+	 */
+	public interface LoanVisitor {
+
+		/**
+		 * A book is borrowed.
+		 *
+		 * @param borrowerId The ID of the borrower.
+		 * @param bookId     The ID of the book.
+		 */
+		void borrowed(long borrowerId, long bookId);
+
+		/**
+		 * A book is returned.
+		 *
+		 * @param bookId The ID of the book.
+		 */
+		void returned(long bookId);
+	}
+
+	/**
+	 * Samples ranks from 1 to n with probability proportional to 1 / rank^s, in
+	 * constant memory, by rejection-inversion (Hormann and Derflinger, 1996).
+	 */
+	static final class ZipfSampler {
+
+		private final long n;
+		private final double exponent;
+		private final double hIntegralX1;
+		private final double hIntegralN;
+		private final double s;
+
+		ZipfSampler(long n, double exponent) {
+			this.n = n;
+			this.exponent = exponent;
+			this.hIntegralX1 = hIntegral(1.5) - 1.0;
+			this.hIntegralN = hIntegral(n + 0.5);
+			this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+		}
+
+		long sample(SplittableRandom random) {
+			while (true) {
+				double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+				double x = hIntegralInverse(u);
+				long k = Math.max(1, Math.min(n, (long) (x + 0.5)));
+				if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+					return k;
+				}
+			}
+		}
+
+		private double h(double x) {
+			return Math.exp(-exponent * Math.log(x));
+		}
+
+		private double hIntegral(double x) {
+			double logX = Math.log(x);
+			return helper2((1 - exponent) * logX) * logX;
+		}
+
+		private double hIntegralInverse(double x) {
+			double t = Math.max(-1, x * (1 - exponent));
+			return Math.exp(helper1(t) * x);
+		}
+
+		/** log(1 + x) / x, accurate near 0. */
+		private static double helper1(double x) {
+			return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+		}
+
+		/** (exp(x) - 1) / x, accurate near 0. */
+		private static double helper2(double x) {
+			return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+		}
+	}
+}
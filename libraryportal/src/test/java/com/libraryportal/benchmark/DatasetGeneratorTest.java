@@ -0,0 +1,122 @@
+package com.libraryportal.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.repository.DatasetSnapshot;
+import com.libraryportal.util.BookStatus;
+import com.libraryportal.util.Isbn;
+
+class DatasetGeneratorTest {
+
+	private static final int BOOKS = 20_000;
+	private static final int WORKS = 2_000;
+	private static final int BORROWERS = 1_000;
+	private static final int LOANS = 5_000;
+
+	@Test
+	void testSameSeedGeneratesTheSameDataset() throws IOException {
+		assertArrayEquals(snapshot(generator(42, LOANS)), snapshot(generator(42, LOANS)));
+		assertFalse(Arrays.equals(snapshot(generator(42, LOANS)), snapshot(generator(43, LOANS))));
+	}
+
+	@Test
+	void testBooksAreSkewedAndUniquePerIsbnTitleAndAuthor() throws IOException {
+		List<Book> books = new ArrayList<>();
+		List<Borrower> borrowers = new ArrayList<>();
+		read(snapshot(generator(42, LOANS)), books, borrowers);
+
+		assertEquals(BOOKS, books.size());
+		assertEquals(BORROWERS, borrowers.size());
+		Set<String> isbns = new HashSet<>();
+		Set<String> keys = new HashSet<>();
+		int mostPopular = 0;
+		int leastPopular = 0;
+		for (Book book : books) {
+			assertTrue(Isbn.tryParse(book.getIsbn()) > 0);
+			isbns.add(book.getIsbn());
+			assertTrue(keys.add(book.getIsbn() + "|" + book.getTitle() + "|" + book.getAuthor()));
+			mostPopular += book.getTitle().equals(DatasetGenerator.title(1)) ? 1 : 0;
+			leastPopular += book.getTitle().equals(DatasetGenerator.title(WORKS)) ? 1 : 0;
+		}
+		assertTrue(isbns.size() < BOOKS, "Some books share an ISBN");
+		assertTrue(mostPopular > 100 * Math.max(1, leastPopular), "Popular works have many more editions");
+		assertEquals(BORROWERS, borrowers.stream().map(Borrower::getEmail).distinct().count());
+	}
+
+	@Test
+	void testBooksAreInTheStateTheLoanHistoryLeaves() throws IOException {
+		List<Book> books = new ArrayList<>();
+		read(snapshot(generator(42, LOANS)), books, new ArrayList<>());
+		List<Book> unlent = new ArrayList<>();
+		read(snapshot(generator(42, 0)), unlent, new ArrayList<>());
+
+		Set<Long> onLoan = new HashSet<>();
+		generator(42, LOANS).forEachLoan(new DatasetGenerator.LoanVisitor() {
+			@Override
+			public void borrowed(long borrowerId, long bookId) {
+				assertTrue(borrowerId >= 1 && borrowerId <= BORROWERS);
+				assertTrue(onLoan.add(bookId));
+			}
+
+			@Override
+			public void returned(long bookId) {
+				assertTrue(onLoan.remove(bookId));
+			}
+		});
+
+		assertFalse(onLoan.isEmpty());
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = books.get(i);
+			Book before = unlent.get(i);
+			assertEquals(before.getIsbn(), book.getIsbn());
+			assertEquals(BookStatus.AVAILABLE, before.getStatus());
+			assertEquals(before.getTotalCopies(), book.getTotalCopies());
+			if (onLoan.contains(book.getId())) {
+				assertTrue(book.copies().isOnLoan(0));
+				assertEquals(before.getNoOfCopies() - 1, book.getNoOfCopies());
+				assertEquals(book.getNoOfCopies() == 0 ? BookStatus.BORROWED : BookStatus.AVAILABLE,
+						book.getStatus());
+			} else {
+				assertEquals(BookStatus.AVAILABLE, book.getStatus());
+				assertEquals(before.getNoOfCopies(), book.getNoOfCopies());
+			}
+		}
+	}
+
+	private static DatasetGenerator generator(long seed, int loans) {
+		return new DatasetGenerator(seed, BOOKS, WORKS, BORROWERS, loans, 1.07, 0.02);
+	}
+
+	private static byte[] snapshot(DatasetGenerator generator) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		generator.writeSnapshot(out);
+		return out.toByteArray();
+	}
+
+	private static void read(byte[] snapshot, List<Book> books, List<Borrower> borrowers) throws IOException {
+		DatasetSnapshot.Reader reader = DatasetSnapshot.read(new ByteArrayInputStream(snapshot));
+		for (byte section = reader.next(); section != 0; section = reader.next()) {
+			if (section == DatasetSnapshot.BOOKS) {
+				books.addAll(reader.readBooks());
+			} else {
+				borrowers.addAll(reader.readBorrowers());
+			}
+		}
+	}
+}
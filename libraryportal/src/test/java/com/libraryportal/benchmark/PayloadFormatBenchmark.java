@@ -0,0 +1,149 @@
+package com.libraryportal.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryportal.entity.Book;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Compares JSON, CBOR and Smile for a large {@code getBooks} result: encode
+ * time, payload size with and without gzip, and end-to-end latency through the
+ * running application. Run with {@code mvn -Pbenchmark test}; the catalog size
+ * is set with {@code -Dbenchmark.books}. Rate limiting is switched off so the
+ * measured requests are never throttled.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"libraryportal.ratelimit.enabled=false" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PayloadFormatBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PayloadFormatBenchmark.class);
+
+	private static final int BOOKS = Integer.getInteger("benchmark.books", 20_000);
+	private static final int WARMUP = 20;
+	private static final int ITERATIONS = 50;
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private ObjectMapper jsonMapper;
+
+	@Autowired
+	private MappingJackson2CborHttpMessageConverter cborConverter;
+
+	@Autowired
+	private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+	private List<Book> books;
+
+	@BeforeAll
+	void seedCatalog() {
+		List<Book> seed = new ArrayList<>(BOOKS);
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book();
+			book.setIsbn(String.format("978%010d", i));
+			book.setTitle("Benchmark Title " + i);
+			book.setAuthor("Benchmark Author " + (i % 500));
+			book.setNoOfCopies(1 + i % 5);
+			book.setStatus(i % 7 == 0 ? BookStatus.BORROWED : BookStatus.AVAILABLE);
+			seed.add(book);
+		}
+		bookRepository.saveAll(seed);
+		books = bookRepository.findAll();
+	}
+
+	@Test
+	void encodeTimeAndPayloadSize() throws IOException {
+		LOGGER.info("Encoding {} books", books.size());
+		report("json", jsonMapper);
+		report("cbor", cborConverter.getObjectMapper());
+		report("smile", smileConverter.getObjectMapper());
+	}
+
+	@Test
+	void endToEndLatency() throws Exception {
+		HttpClient client = HttpClient.newHttpClient();
+		for (String mediaType : List.of("application/json", "application/cbor", "application/x-jackson-smile")) {
+			for (boolean gzip : new boolean[] { false, true }) {
+				HttpRequest.Builder request = HttpRequest
+						.newBuilder(URI.create("http://localhost:" + port + "/libraryportal/api/books/getBooks"))
+						.header("Authorization", "Basic "
+								+ Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8)))
+						.header("Accept", mediaType);
+				if (gzip) {
+					request.header("Accept-Encoding", "gzip");
+				}
+				HttpRequest get = request.build();
+
+				for (int i = 0; i < WARMUP; i++) {
+					client.send(get, HttpResponse.BodyHandlers.discarding());
+				}
+				long bytes = 0;
+				long[] latencies = new long[ITERATIONS];
+				for (int i = 0; i < ITERATIONS; i++) {
+					long start = System.nanoTime();
+					HttpResponse<byte[]> response = client.send(get, HttpResponse.BodyHandlers.ofByteArray());
+					latencies[i] = System.nanoTime() - start;
+					assertEquals(200, response.statusCode());
+					bytes = response.body().length;
+				}
+				Arrays.sort(latencies);
+				LOGGER.info(String.format("%-28s gzip=%-5s %10d bytes on the wire  p50 %8.2f ms  p99 %8.2f ms",
+						mediaType, gzip, bytes, latencies[ITERATIONS / 2] / 1e6,
+						latencies[(int) (ITERATIONS * 0.99)] / 1e6));
+			}
+		}
+	}
+
+	private void report(String format, ObjectMapper mapper) throws IOException {
+		byte[] encoded = null;
+		for (int i = 0; i < WARMUP; i++) {
+			encoded = mapper.writeValueAsBytes(books);
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			encoded = mapper.writeValueAsBytes(books);
+		}
+		double encodeMillis = (System.nanoTime() - start) / 1e6 / ITERATIONS;
+		LOGGER.info(String.format("%-6s encode %8.2f ms  %10d bytes  %10d bytes gzipped", format, encodeMillis,
+				encoded.length, gzip(encoded).length));
+	}
+
+	private static byte[] gzip(byte[] data) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(data);
+		}
+		return out.toByteArray();
+	}
+}
@@ -0,0 +1,181 @@
+package com.libraryportal.benchmark;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures how long the application takes to come back after a restart on a
+ * large file-backed database with the prod profile: the time to the first
+ * answered request, and the time until the in-memory ISBN index answers for
+ * the last book, by which point every startup load has finished. A first
+ * launch creates the schema and restores a dataset from the
+ * {@link DatasetGenerator}, and the application is then relaunched on it.
+ * Build the jar with {@code mvn package -DskipTests}, then run
+ * {@code mvn -Pbenchmark test -Dtest=RecoveryBenchmark}. The dataset is set
+ * with the {@code -Ddataset.*} properties, by default 10 million books and 1
+ * million borrowers, and the number of restarts with
+ * {@code -Dbenchmark.launches}.
+ */
+class RecoveryBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RecoveryBenchmark.class);
+
+	private static final int LAUNCHES = Integer.getInteger("benchmark.launches", 3);
+	private static final Duration TIMEOUT = Duration.ofMinutes(30);
+	private static final Path TARGET_DIR = Paths.get("target");
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void timeToRecover() throws Exception {
+		Path jar = findJar();
+		assumeTrue(jar != null, "No application jar in " + TARGET_DIR + ", run mvn package first");
+
+		DatasetGenerator generator = DatasetGenerator.fromSystemProperties(10_000_000, 1_000_000);
+		Path storage = Files.createTempDirectory("libraryportal-recovery");
+		Path snapshot = Files.createTempFile("libraryportal-recovery", ".bin.gz");
+		try {
+			try (OutputStream out = Files.newOutputStream(snapshot)) {
+				generator.writeSnapshot(out);
+			}
+			// The first launch creates the schema and restores the dataset
+			launch(jar, storage, snapshot, "/api/borrowers/getBorrowers");
+			LOGGER.info(String.format("Restored %d books and %d borrowers, %d MB snapshot, %d MB on disk",
+					generator.getBooks(), generator.getBorrowers(), Files.size(snapshot) / (1024 * 1024),
+					directorySize(storage) / (1024 * 1024)));
+
+			long[] firstRequest = new long[LAUNCHES];
+			long[] warm = new long[LAUNCHES];
+			for (int i = 0; i < LAUNCHES; i++) {
+				long[] times = launch(jar, storage, null, "/api/borrowers/getBorrowerById/1",
+						"/api/books/isbn/" + DatasetGenerator.isbn13(generator.getBooks()) + "/availability");
+				firstRequest[i] = times[0];
+				warm[i] = times[1];
+			}
+			report("first request", firstRequest);
+			report("ISBN index warm", warm);
+		} finally {
+			Files.deleteIfExists(snapshot);
+			try (Stream<Path> files = Files.walk(storage)) {
+				files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+			}
+		}
+	}
+
+	/**
+	 * Start the application on the storage directory, wait for each path in turn
+	 * to answer 200, restore a snapshot if one is given, and shut the
+	 * application down cleanly.
+	 *
+	 * @return The nanoseconds from launch until each path answered.
+	 */
+	private long[] launch(Path jar, Path storage, Path snapshot, String... paths) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.add("-jar");
+		command.add(jar.toAbsolutePath().toString());
+		command.add("--spring.profiles.active=prod");
+		command.add("--libraryportal.storage.directory=" + storage.toAbsolutePath());
+		command.add("--libraryportal.ratelimit.enabled=false");
+		command.add("--server.port=" + port);
+		if (snapshot != null) {
+			// Nothing reads the instance until the restore is done
+			command.add("--libraryportal.snapshot.defer-indexes=true");
+		}
+
+		long[] times = new long[paths.length];
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true)
+				.redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+		try {
+			for (int i = 0; i < paths.length; i++) {
+				times[i] = waitFor(process, start, port, paths[i]) - start;
+			}
+			if (snapshot != null) {
+				HttpRequest post = request(port, "/api/admin/snapshot").timeout(TIMEOUT)
+						.header("Content-Type", "application/octet-stream")
+						.POST(HttpRequest.BodyPublishers.ofFile(snapshot)).build();
+				HttpResponse<String> response = client.send(post, HttpResponse.BodyHandlers.ofString());
+				if (response.statusCode() != 200) {
+					throw new IllegalStateException("Restore failed: " + response.body());
+				}
+			}
+			return times;
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	private long waitFor(Process process, long start, int port, String path) throws Exception {
+		HttpRequest get = request(port, path).timeout(Duration.ofSeconds(30)).build();
+		while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+			if (!process.isAlive()) {
+				throw new IllegalStateException("Application exited with " + process.exitValue());
+			}
+			try {
+				if (client.send(get, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+					return System.nanoTime();
+				}
+			} catch (ConnectException e) {
+				// not listening yet
+			}
+			Thread.sleep(10);
+		}
+		throw new IllegalStateException(path + " did not answer within " + TIMEOUT);
+	}
+
+	private static HttpRequest.Builder request(int port, String path) {
+		return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/libraryportal" + path)).header(
+				"Authorization",
+				"Basic " + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static void report(String milestone, long[] times) {
+		Arrays.sort(times);
+		LOGGER.info(String.format("%-16s min %9.0f ms  median %9.0f ms  max %9.0f ms", milestone, times[0] / 1e6,
+				times[times.length / 2] / 1e6, times[times.length - 1] / 1e6));
+	}
+
+	private static long directorySize(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+		}
+	}
+
+	private static Path findJar() {
+		File[] jars = TARGET_DIR.toFile().listFiles((dir, name) -> name.endsWith(".jar"));
+		return jars == null || jars.length != 1 ? null : jars[0].toPath();
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
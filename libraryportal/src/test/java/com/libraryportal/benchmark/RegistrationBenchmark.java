@@ -0,0 +1,154 @@
+package com.libraryportal.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.service.BookService;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Compares registering books by looking them up and then inserting or
+ * updating them, as registration used to work, against the single upsert
+ * statement it uses now. Concurrent threads register copies of a small set of
+ * titles, so most registrations contend on the same rows. Reports the
+ * throughput, the registrations that failed, and the copies lost, that is
+ * successful registrations not reflected in the stored number of copies. Run
+ * with {@code mvn -Pbenchmark test}; the load is set with
+ * {@code -Dbenchmark.threads}, {@code -Dbenchmark.titles} and
+ * {@code -Dbenchmark.registrations}.
+ */
+@SpringBootTest(properties = { "libraryportal.ratelimit.enabled=false" })
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RegistrationBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RegistrationBenchmark.class);
+
+	private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+	private static final int TITLES = Integer.getInteger("benchmark.titles", 50);
+	private static final int REGISTRATIONS = Integer.getInteger("benchmark.registrations", 20_000);
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final ExecutorService threads = Executors.newFixedThreadPool(THREADS);
+
+	@AfterAll
+	void shutdown() {
+		threads.shutdownNow();
+	}
+
+	@Test
+	void selectThenWrite() throws Exception {
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		Result result = run("select-then-write", "979", book -> transaction.executeWithoutResult(status -> {
+			Book existing = bookRepository.findByIsbnAndTitleAndAuthor(book.getIsbn(), book.getTitle(),
+					book.getAuthor());
+			if (existing != null) {
+				existing.setNoOfCopies(existing.getNoOfCopies() + 1);
+				bookRepository.save(existing);
+			} else {
+				book.setNoOfCopies(1);
+				bookRepository.save(book);
+			}
+		}));
+		// Only reported: the old path is expected to fail and lose copies.
+		LOGGER.info(result.toString());
+	}
+
+	@Test
+	void upsert() throws Exception {
+		Result result = run("upsert", "978", book -> bookService.registerBook(book));
+		LOGGER.info(result.toString());
+		assertEquals(0, result.lostCopies);
+	}
+
+	private Result run(String name, String isbnPrefix, Registration registration) throws Exception {
+		AtomicLong failed = new AtomicLong();
+		List<Callable<Void>> tasks = new ArrayList<>(REGISTRATIONS);
+		for (int i = 0; i < REGISTRATIONS; i++) {
+			int title = i % TITLES;
+			tasks.add(() -> {
+				Book book = new Book();
+				book.setIsbn(String.format("%s%010d", isbnPrefix, title));
+				book.setTitle("Benchmark Title " + title);
+				book.setAuthor("Benchmark Author " + title);
+				book.setStatus(BookStatus.AVAILABLE);
+				try {
+					registration.register(book);
+				} catch (Exception e) {
+					failed.incrementAndGet();
+				}
+				return null;
+			});
+		}
+
+		long start = System.nanoTime();
+		for (Future<Void> future : threads.invokeAll(tasks)) {
+			future.get();
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		long rows = 0;
+		long copies = 0;
+		for (Book book : bookRepository.findAll()) {
+			if (book.getIsbn().startsWith(isbnPrefix)) {
+				rows++;
+				copies += book.getNoOfCopies();
+			}
+		}
+		long succeeded = REGISTRATIONS - failed.get();
+		return new Result(name, REGISTRATIONS / seconds, failed.get(), rows, succeeded - copies);
+	}
+
+	@FunctionalInterface
+	private interface Registration {
+		void register(Book book) throws Exception;
+	}
+
+	private static final class Result {
+		final String name;
+		final double perSecond;
+		final long failed;
+		final long rows;
+		final long lostCopies;
+
+		Result(String name, double perSecond, long failed, long rows, long lostCopies) {
+			this.name = name;
+			this.perSecond = perSecond;
+			this.failed = failed;
+			this.rows = rows;
+			this.lostCopies = lostCopies;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-18s %10.0f registrations/s  %6d failed  %4d rows for %d titles  %6d copies lost",
+					name, perSecond, failed, rows, TITLES, lostCopies);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package com.libraryportal.benchmark;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Measures the time from launching the application to its first successful
+ * {@code getBooks} request, for a plain start, a start with the lazily
+ * initialising prod profile, a start with the AOT-generated bean definitions,
+ * and a start with AOT and the class-data-sharing archive. All modes run the
+ * same extracted jar, so build it first with
+ * {@code mvn -Pfast-startup package -DskipTests}, then run
+ * {@code mvn -Pbenchmark test -Dtest=StartupBenchmark}. The number of launches
+ * per mode is set with {@code -Dbenchmark.launches}.
+ */
+class StartupBenchmark {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupBenchmark.class);
+
+	private static final int LAUNCHES = Integer.getInteger("benchmark.launches", 5);
+	private static final Duration TIMEOUT = Duration.ofMinutes(2);
+	private static final Path APPLICATION_DIR = Paths.get("target", "fast-startup");
+	private static final String ARCHIVE = "application.jsa";
+
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+	@Test
+	void timeToFirstRequest() throws Exception {
+		Path jar = findJar();
+		assumeTrue(jar != null, "No extracted jar in " + APPLICATION_DIR + ", run mvn -Pfast-startup package first");
+		assumeTrue(Files.exists(APPLICATION_DIR.resolve(ARCHIVE)), "No class-data-sharing archive was recorded");
+
+		report("default", jar);
+		report("prod", jar, "-Dspring.profiles.active=prod");
+		report("aot", jar, "-Dspring.aot.enabled=true");
+		report("aot+cds", jar, "-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + ARCHIVE);
+	}
+
+	private void report(String mode, Path jar, String... jvmOptions) throws Exception {
+		long[] startups = new long[LAUNCHES];
+		for (int i = 0; i < LAUNCHES; i++) {
+			startups[i] = timeToFirstRequest(jar, jvmOptions);
+		}
+		Arrays.sort(startups);
+		LOGGER.info(String.format("%-8s time to first request  min %8.0f ms  median %8.0f ms  max %8.0f ms", mode,
+				startups[0] / 1e6, startups[LAUNCHES / 2] / 1e6, startups[LAUNCHES - 1] / 1e6));
+	}
+
+	private long timeToFirstRequest(Path jar, String... jvmOptions) throws Exception {
+		int port = freePort();
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(Arrays.asList(jvmOptions));
+		command.add("-jar");
+		command.add(jar.getFileName().toString());
+		command.add("--server.port=" + port);
+
+		HttpRequest get = HttpRequest
+				.newBuilder(URI.create("http://localhost:" + port + "/libraryportal/api/books/getBooks"))
+				.header("Authorization",
+						"Basic " + Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8)))
+				.timeout(Duration.ofSeconds(5)).build();
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).directory(APPLICATION_DIR.toFile())
+				.redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+		try {
+			while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+				if (!process.isAlive()) {
+					throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+				}
+				try {
+					if (client.send(get, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+						return System.nanoTime() - start;
+					}
+				} catch (ConnectException e) {
+					// not listening yet
+				}
+				Thread.sleep(10);
+			}
+			throw new IllegalStateException("Application did not answer within " + TIMEOUT + ": " + command);
+		} finally {
+			process.destroy();
+			process.waitFor();
+		}
+	}
+
+	private static Path findJar() {
+		File[] jars = APPLICATION_DIR.toFile().listFiles((dir, name) -> name.endsWith(".jar"));
+		return jars == null || jars.length != 1 ? null : jars[0].toPath();
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.libraryportal.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PartitionedDataSourceTest {
+
+	private Connection pooled;
+	private PartitionedDataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		DataSource pool = mock(DataSource.class);
+		pooled = mock(Connection.class);
+		when(pool.getConnection()).thenReturn(pooled);
+		dataSource = new PartitionedDataSource(pool,
+				Map.of("catalog", 2, "circulation", 1, PartitionedDataSource.BACKGROUND, 1), 10);
+	}
+
+	@Test
+	void testUsedUpShareDoesNotTakeAnotherShare() throws Exception {
+		Connection[] catalog = new Connection[2];
+		PartitionedDataSource.runIn("catalog", () -> {
+			try {
+				catalog[0] = dataSource.getConnection();
+				catalog[1] = dataSource.getConnection();
+				assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).run();
+		assertEquals(0, dataSource.available("catalog"));
+
+		// The other shares are untouched
+		PartitionedDataSource.runIn("circulation", () -> {
+			try {
+				dataSource.getConnection().close();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).run();
+		Connection background = dataSource.getConnection();
+		assertEquals(0, dataSource.available(PartitionedDataSource.BACKGROUND));
+
+		catalog[0].close();
+		catalog[0].close();
+		background.close();
+		assertEquals(1, dataSource.available("catalog"));
+		assertEquals(1, dataSource.available("circulation"));
+		assertEquals(1, dataSource.available(PartitionedDataSource.BACKGROUND));
+		verify(pooled, times(4)).close();
+	}
+
+	@Test
+	void testUnknownShareDrawsFromTheBackground() throws Exception {
+		PartitionedDataSource.runIn("reports", () -> {
+			try {
+				dataSource.getConnection();
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).run();
+
+		assertEquals(0, dataSource.available(PartitionedDataSource.BACKGROUND));
+	}
+}
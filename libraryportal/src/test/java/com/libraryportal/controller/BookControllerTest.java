@@ -5,38 +5,44 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.libraryportal.config.Bulkheads;
 import com.libraryportal.entity.Book;
 import com.libraryportal.exception.BookNotFoundException;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 import com.libraryportal.exception.ErrorResponse;
+import com.libraryportal.exception.WritesSuspendedException;
 import com.libraryportal.service.BookServiceImpl;
 
 class BookControllerTest {
 
+	private static final Bulkheads BULKHEADS = new Bulkheads(Runnable::run, Runnable::run, Runnable::run);
+
 	@Mock
 	private BookServiceImpl bookService;
 
-	@InjectMocks
 	private BookController bookController;
 
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		bookController = new BookController(bookService, BULKHEADS);
 	}
 
 	@Test
@@ -47,7 +53,7 @@ class BookControllerTest {
 
 		when(bookService.registerBook(any(Book.class))).thenReturn(book);
 
-		ResponseEntity<?> response = bookController.registerBook(book);
+		ResponseEntity<?> response = bookController.registerBook(book).join();
 
 		assertEquals(HttpStatus.CREATED, response.getStatusCode());
 		assertEquals(book, response.getBody());
@@ -61,7 +67,7 @@ class BookControllerTest {
 
 		doThrow(DuplicateRegistrationException.class).when(bookService).registerBook(any(Book.class));
 
-		ResponseEntity<?> response = bookController.registerBook(book);
+		ResponseEntity<?> response = bookController.registerBook(book).join();
 
 		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 
@@ -71,6 +77,19 @@ class BookControllerTest {
 		assertEquals(400, errorResponse.getErrorCode());
 	}
 
+	@Test
+	void testRegisterBook_WritesSuspended() throws DuplicateRegistrationException {
+		Book book = new Book();
+		book.setTitle("Test Book");
+
+		doThrow(new WritesSuspendedException("Restoring")).when(bookService).registerBook(any(Book.class));
+
+		ResponseEntity<?> response = bookController.registerBook(book).join();
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals("5", response.getHeaders().getFirst("Retry-After"));
+	}
+
 	@Test
 	void testGetAllBooks_Success() {
 		List<Book> books = new ArrayList<>();
@@ -79,31 +98,67 @@ class BookControllerTest {
 
 		when(bookService.getAllBooks()).thenReturn(books);
 
-		ResponseEntity<List<Book>> response = bookController.getAllBooks();
+		ResponseEntity<List<Book>> response = bookController.getAllBooks().join();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(books, response.getBody());
+	}
+
+	@Test
+	void testGetAllBooksWithFields_Success() {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", 1L);
+		row.put("title", "Test Book");
+		List<Map<String, Object>> books = List.of(row);
+		List<String> fields = List.of("id", "title");
+
+		when(bookService.getAllBooks(fields)).thenReturn(books);
+
+		ResponseEntity<?> response = bookController.getAllBooks(fields).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals(books, response.getBody());
 	}
 
+	@Test
+	void testGetAllBooksWithFields_UnknownField() {
+		List<String> fields = List.of("id", "publisher");
+
+		when(bookService.getAllBooks(fields)).thenThrow(new IllegalArgumentException("Unknown field: publisher"));
+
+		ResponseEntity<?> response = bookController.getAllBooks(fields).join();
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertTrue(response.getBody() instanceof ErrorResponse);
+	}
+
 	@Test
 	void testBorrowBook_Success() throws BorrowerNotFoundException {
-		ResponseEntity<?> response = bookController.borrowBook(1L, 1L);
+		ResponseEntity<?> response = bookController.borrowBook(1L, 1L).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 	}
 
 	@Test
 	void testReturnBook_Success() throws BookNotFoundException {
-		ResponseEntity<?> response = bookController.returnBook(1L);
+		ResponseEntity<?> response = bookController.returnBook(1L, null).join();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+	}
+
+	@Test
+	void testReturnBookCopy_Success() throws BookNotFoundException {
+		ResponseEntity<?> response = bookController.returnBook(1L, 2).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
+		verify(bookService).returnBook(1L, 2);
 	}
 
 	@Test
 	public void testHandleDuplicateRegistrationException() {
 		try {
 			when(bookService.registerBook(any())).thenThrow(DuplicateRegistrationException.class);
-			ResponseEntity<?> response = new BookController(bookService).registerBook(null);
+			ResponseEntity<?> response = new BookController(bookService, BULKHEADS).registerBook(null).join();
 			assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 		} catch (DuplicateRegistrationException e) {
 			e.printStackTrace();
@@ -115,7 +170,7 @@ class BookControllerTest {
 	public void testHandleBorrowerNotFoundException() {
 		try {
 			when(bookService.borrowBook(anyLong(), anyLong())).thenThrow(BorrowerNotFoundException.class);
-			ResponseEntity<?> response = new BookController(bookService).borrowBook(1L, 2L);
+			ResponseEntity<?> response = new BookController(bookService, BULKHEADS).borrowBook(1L, 2L).join();
 			assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 		} catch (BorrowerNotFoundException e) {
 			e.printStackTrace();
@@ -126,7 +181,7 @@ class BookControllerTest {
 	public void testHandleBookNotFoundException() {
 		try {
 			when(bookService.returnBook(anyLong())).thenThrow(BookNotFoundException.class);
-			ResponseEntity<?> response = new BookController(bookService).returnBook(1L);
+			ResponseEntity<?> response = new BookController(bookService, BULKHEADS).returnBook(1L, null).join();
 			assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 		} catch (BookNotFoundException e) {
 			e.printStackTrace();
@@ -137,8 +192,8 @@ class BookControllerTest {
 	@Test
 	public void testGetAllBooksCatchBlock() {
 		when(bookService.getAllBooks()).thenThrow(new RuntimeException("Test Exception"));
-		BookController bookController = new BookController(bookService);
-		ResponseEntity<List<Book>> responseEntity = bookController.getAllBooks();
+		BookController bookController = new BookController(bookService, BULKHEADS);
+		ResponseEntity<List<Book>> responseEntity = bookController.getAllBooks().join();
 		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 		assertEquals(null, responseEntity.getBody());
 	}
@@ -147,8 +202,8 @@ class BookControllerTest {
 	public void testBorrowBookCatchBlock() {
 		try {
 			when(bookService.borrowBook(anyLong(), anyLong())).thenThrow(new RuntimeException("Test Exception"));
-			BookController bookController = new BookController(bookService);
-			ResponseEntity<?> responseEntity = bookController.borrowBook(1L, 2L);
+			BookController bookController = new BookController(bookService, BULKHEADS);
+			ResponseEntity<?> responseEntity = bookController.borrowBook(1L, 2L).join();
 			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 			assertEquals("An error occurred while processing the request.", responseEntity.getBody());
 		} catch (BorrowerNotFoundException e) {
@@ -161,8 +216,8 @@ class BookControllerTest {
 	public void testReturnBookCatchBlock() {
 		try {
 			when(bookService.returnBook(anyLong())).thenThrow(new RuntimeException("Test Exception"));
-			BookController bookController = new BookController(bookService);
-			ResponseEntity<?> responseEntity = bookController.returnBook(1L);
+			BookController bookController = new BookController(bookService, BULKHEADS);
+			ResponseEntity<?> responseEntity = bookController.returnBook(1L, null).join();
 			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 			assertEquals("An error occurred while processing the request.", responseEntity.getBody());
 		} catch (BookNotFoundException e) {
@@ -174,8 +229,8 @@ class BookControllerTest {
 	public void testRegisterBookCatchBlock() {
 		try {
 			when(bookService.registerBook(Mockito.any())).thenThrow(new RuntimeException("Test Exception"));
-			BookController bookController = new BookController(bookService);
-			ResponseEntity<?> responseEntity = bookController.registerBook(new Book());
+			BookController bookController = new BookController(bookService, BULKHEADS);
+			ResponseEntity<?> responseEntity = bookController.registerBook(new Book()).join();
 			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 			assertEquals(null, responseEntity.getBody());
 		} catch (DuplicateRegistrationException e) {
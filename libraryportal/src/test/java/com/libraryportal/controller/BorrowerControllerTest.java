@@ -8,17 +8,19 @@ import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import com.libraryportal.config.Bulkheads;
 import com.libraryportal.entity.Borrower;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
@@ -26,6 +28,7 @@ import com.libraryportal.exception.ErrorResponse;
 import com.libraryportal.service.BorrowerServiceImpl;
 
 class BorrowerControllerTest {
+	private static final Bulkheads BULKHEADS = new Bulkheads(Runnable::run, Runnable::run, Runnable::run);
 	private static final String BORROWER_NAME = "Test Borrower";
 	private static final String BORROWER_MAIL_ID = "borrower@libraryportal.com";
 	private static final String UPDTD_BORROWER_NAME = "Test Updated Borrower";
@@ -34,12 +37,12 @@ class BorrowerControllerTest {
 	@Mock
 	private BorrowerServiceImpl borrowerService;
 
-	@InjectMocks
 	private BorrowerController borrowerController;
 
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
+		borrowerController = new BorrowerController(borrowerService, BULKHEADS);
 	}
 
 	@Test
@@ -50,7 +53,7 @@ class BorrowerControllerTest {
 
 		when(borrowerService.registerBorrower(any(Borrower.class))).thenReturn(borrower);
 
-		ResponseEntity<?> response = borrowerController.registerBorrower(borrower);
+		ResponseEntity<?> response = borrowerController.registerBorrower(borrower).join();
 
 		assertEquals(HttpStatus.CREATED, response.getStatusCode());
 		assertEquals(borrower, response.getBody());
@@ -64,7 +67,7 @@ class BorrowerControllerTest {
 
 		doThrow(DuplicateRegistrationException.class).when(borrowerService).registerBorrower(any(Borrower.class));
 
-		ResponseEntity<?> response = borrowerController.registerBorrower(borrower);
+		ResponseEntity<?> response = borrowerController.registerBorrower(borrower).join();
 
 		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
 		assertEquals(ErrorResponse.class, response.getBody().getClass());
@@ -78,12 +81,40 @@ class BorrowerControllerTest {
 
 		when(borrowerService.getAllBorrowers()).thenReturn(borrowers);
 
-		ResponseEntity<List<Borrower>> response = borrowerController.getAllBorrowers();
+		ResponseEntity<List<Borrower>> response = borrowerController.getAllBorrowers().join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals(borrowers, response.getBody());
 	}
 
+	@Test
+	void testGetAllBorrowersWithFields_Success() {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", 1L);
+		row.put("name", BORROWER_NAME);
+		List<Map<String, Object>> borrowers = List.of(row);
+		List<String> fields = List.of("id", "name");
+
+		when(borrowerService.getAllBorrowers(fields)).thenReturn(borrowers);
+
+		ResponseEntity<?> response = borrowerController.getAllBorrowers(fields).join();
+
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertEquals(borrowers, response.getBody());
+	}
+
+	@Test
+	void testGetAllBorrowersWithFields_UnknownField() {
+		List<String> fields = List.of("password");
+
+		when(borrowerService.getAllBorrowers(fields)).thenThrow(new IllegalArgumentException("Unknown field: password"));
+
+		ResponseEntity<?> response = borrowerController.getAllBorrowers(fields).join();
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertTrue(response.getBody() instanceof ErrorResponse);
+	}
+
 	@Test
 	void testGetBorrowerById_Success() throws BorrowerNotFoundException {
 		Long borrowerId = 1L;
@@ -94,7 +125,7 @@ class BorrowerControllerTest {
 
 		when(borrowerService.getBorrowerById(borrowerId)).thenReturn(borrower);
 
-		ResponseEntity<?> response = borrowerController.getBorrowerById(borrowerId);
+		ResponseEntity<?> response = borrowerController.getBorrowerById(borrowerId).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals(borrower, response.getBody());
@@ -106,7 +137,7 @@ class BorrowerControllerTest {
 
 		doThrow(BorrowerNotFoundException.class).when(borrowerService).getBorrowerById(borrowerId);
 
-		ResponseEntity<?> response = borrowerController.getBorrowerById(borrowerId);
+		ResponseEntity<?> response = borrowerController.getBorrowerById(borrowerId).join();
 
 		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 		assertTrue(response.getBody() instanceof ErrorResponse);
@@ -122,7 +153,7 @@ class BorrowerControllerTest {
 
 		when(borrowerService.updateBorrower(borrowerId, updatedBorrower)).thenReturn(updatedBorrower);
 
-		ResponseEntity<?> response = borrowerController.updateBorrower(borrowerId, updatedBorrower);
+		ResponseEntity<?> response = borrowerController.updateBorrower(borrowerId, updatedBorrower).join();
 
 		assertEquals(HttpStatus.OK, response.getStatusCode());
 		assertEquals(updatedBorrower, response.getBody());
@@ -138,7 +169,7 @@ class BorrowerControllerTest {
 
 		doThrow(BorrowerNotFoundException.class).when(borrowerService).updateBorrower(borrowerId, updatedBorrower);
 
-		ResponseEntity<?> response = borrowerController.updateBorrower(borrowerId, updatedBorrower);
+		ResponseEntity<?> response = borrowerController.updateBorrower(borrowerId, updatedBorrower).join();
 
 		assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
 		assertTrue(response.getBody() instanceof ErrorResponse);
@@ -148,7 +179,7 @@ class BorrowerControllerTest {
 	void testDeleteBorrower_Success() {
 		Long borrowerId = 1L;
 
-		ResponseEntity<Void> response = borrowerController.deleteBorrower(borrowerId);
+		ResponseEntity<Void> response = borrowerController.deleteBorrower(borrowerId).join();
 
 		assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
 	}
@@ -157,8 +188,8 @@ class BorrowerControllerTest {
 	public void testRegisterBorrowerCatchBlock() {
 		try {
 			when(borrowerService.registerBorrower(Mockito.any())).thenThrow(new RuntimeException("Test Exception"));
-			BorrowerController borrowerController = new BorrowerController(borrowerService);
-			ResponseEntity<?> responseEntity = borrowerController.registerBorrower(new Borrower());
+			BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+			ResponseEntity<?> responseEntity = borrowerController.registerBorrower(new Borrower()).join();
 			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 			assertEquals(null, responseEntity.getBody());
 		} catch (DuplicateRegistrationException e) {
@@ -171,8 +202,8 @@ class BorrowerControllerTest {
 		try {
 			when(borrowerService.registerBorrower(Mockito.any()))
 					.thenThrow(new DuplicateRegistrationException("Duplicate registration"));
-			BorrowerController borrowerController = new BorrowerController(borrowerService);
-			ResponseEntity<?> responseEntity = borrowerController.registerBorrower(new Borrower());
+			BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+			ResponseEntity<?> responseEntity = borrowerController.registerBorrower(new Borrower()).join();
 			assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
 			assertEquals(ErrorResponse.class, responseEntity.getBody().getClass());
 		} catch (DuplicateRegistrationException e) {
@@ -183,8 +214,8 @@ class BorrowerControllerTest {
 	@Test
 	public void testGetAllBorrowersCatchBlock() {
 		when(borrowerService.getAllBorrowers()).thenThrow(new RuntimeException("Test Exception"));
-		BorrowerController borrowerController = new BorrowerController(borrowerService);
-		ResponseEntity<List<Borrower>> responseEntity = borrowerController.getAllBorrowers();
+		BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+		ResponseEntity<List<Borrower>> responseEntity = borrowerController.getAllBorrowers().join();
 		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 		assertEquals(null, responseEntity.getBody());
 	}
@@ -193,8 +224,8 @@ class BorrowerControllerTest {
 	public void testGetBorrowerByIdCatchBlock() {
 		try {
 			when(borrowerService.getBorrowerById(anyLong())).thenThrow(new RuntimeException("Test Exception"));
-			BorrowerController borrowerController = new BorrowerController(borrowerService);
-			ResponseEntity<?> responseEntity = borrowerController.getBorrowerById(1L);
+			BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+			ResponseEntity<?> responseEntity = borrowerController.getBorrowerById(1L).join();
 			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 			assertEquals("Internal server error", responseEntity.getBody());
 		} catch (BorrowerNotFoundException e) {
@@ -207,8 +238,8 @@ class BorrowerControllerTest {
 		try {
 			when(borrowerService.getBorrowerById(anyLong()))
 					.thenThrow(new BorrowerNotFoundException("Borrower not found"));
-			BorrowerController borrowerController = new BorrowerController(borrowerService);
-			ResponseEntity<?> responseEntity = borrowerController.getBorrowerById(1L);
+			BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+			ResponseEntity<?> responseEntity = borrowerController.getBorrowerById(1L).join();
 			assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
 			assertEquals(ErrorResponse.class, responseEntity.getBody().getClass());
 		} catch (BorrowerNotFoundException e) {
@@ -220,8 +251,8 @@ class BorrowerControllerTest {
 	public void testUpdateBorrowerCatchBlock() {
 		try {
 			when(borrowerService.updateBorrower(anyLong(), any())).thenThrow(new RuntimeException("Test Exception"));
-			BorrowerController borrowerController = new BorrowerController(borrowerService);
-			ResponseEntity<?> responseEntity = borrowerController.updateBorrower(1L, new Borrower());
+			BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+			ResponseEntity<?> responseEntity = borrowerController.updateBorrower(1L, new Borrower()).join();
 			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 			assertEquals(null, responseEntity.getBody());
 		} catch (BorrowerNotFoundException e) {
@@ -235,8 +266,8 @@ class BorrowerControllerTest {
 		try {
 			when(borrowerService.updateBorrower(anyLong(), any()))
 					.thenThrow(new BorrowerNotFoundException("Borrower not found"));
-			BorrowerController borrowerController = new BorrowerController(borrowerService);
-			ResponseEntity<?> responseEntity = borrowerController.updateBorrower(1L, new Borrower());
+			BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+			ResponseEntity<?> responseEntity = borrowerController.updateBorrower(1L, new Borrower()).join();
 			assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
 			assertEquals(ErrorResponse.class, responseEntity.getBody().getClass());
 		} catch (BorrowerNotFoundException e) {
@@ -247,8 +278,8 @@ class BorrowerControllerTest {
 	@Test
 	public void testDeleteBorrowerCatchBlock() {
 		doThrow(new RuntimeException("Test Exception")).when(borrowerService).deleteBorrower(anyLong());
-		BorrowerController borrowerController = new BorrowerController(borrowerService);
-		ResponseEntity<Void> responseEntity = borrowerController.deleteBorrower(1L);
+		BorrowerController borrowerController = new BorrowerController(borrowerService, BULKHEADS);
+		ResponseEntity<Void> responseEntity = borrowerController.deleteBorrower(1L).join();
 		assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, responseEntity.getStatusCode());
 		assertEquals(null, responseEntity.getBody());
 	}
@@ -0,0 +1,79 @@
+package com.libraryportal.event;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.util.BookStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AvailabilityBroadcasterTest {
+
+	private static final int BUFFER_SIZE = 2;
+
+	private SimpleMeterRegistry meterRegistry;
+	private ScheduledExecutorService sender;
+	private AvailabilityBroadcaster broadcaster;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		// A sender that never runs, so the subscriber buffers only fill up.
+		sender = mock(ScheduledExecutorService.class);
+		broadcaster = new AvailabilityBroadcaster(sender, BUFFER_SIZE, 2, 60_000, meterRegistry);
+	}
+
+	@Test
+	void testEventsAreScheduledForEverySubscriber() {
+		broadcaster.subscribe();
+		broadcaster.subscribe();
+
+		broadcaster.onAvailabilityChanged(event());
+
+		verify(sender, times(2)).execute(any());
+		assertEquals(1.0, meterRegistry.get("libraryportal.availability.published").counter().count());
+	}
+
+	@Test
+	void testSubscriberIsEvictedWhenItsBufferOverflows() {
+		broadcaster.subscribe();
+
+		for (int i = 0; i < BUFFER_SIZE; i++) {
+			broadcaster.onAvailabilityChanged(event());
+		}
+		assertEquals(1, broadcaster.getSubscriberCount());
+
+		broadcaster.onAvailabilityChanged(event());
+
+		assertEquals(0, broadcaster.getSubscriberCount());
+		assertEquals(1.0, meterRegistry.get("libraryportal.availability.evicted").counter().count());
+	}
+
+	@Test
+	void testSubscribersAreLimited() {
+		broadcaster.subscribe();
+		broadcaster.subscribe();
+
+		assertThrows(RejectedExecutionException.class, () -> broadcaster.subscribe());
+		assertEquals(2.0, meterRegistry.get("libraryportal.availability.subscribers").gauge().value());
+	}
+
+	private static BookAvailabilityChanged event() {
+		Book book = new Book();
+		book.setId(1L);
+		book.setNoOfCopies(2);
+		book.setStatus(BookStatus.AVAILABLE);
+		return new BookAvailabilityChanged(book);
+	}
+}
@@ -0,0 +1,108 @@
+package com.libraryportal.filter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimitingFilterTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private RateLimitingFilter rateLimitingFilter;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		rateLimitingFilter = new RateLimitingFilter(true, 1, 2, 1, 1, 100, 600, new ObjectMapper(), meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testReadsOverBurstAreRejected() throws Exception {
+		assertEquals(HttpStatus.OK.value(), filter("GET", "/api/books/getBooks", "10.0.0.1").getStatus());
+		assertEquals(HttpStatus.OK.value(), filter("GET", "/api/books/getBooks", "10.0.0.1").getStatus());
+
+		MockHttpServletResponse rejected = filter("GET", "/api/books/getBooks", "10.0.0.1");
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), rejected.getStatus());
+		assertEquals("1", rejected.getHeader("Retry-After"));
+		assertEquals(1.0, meterRegistry.get("libraryportal.ratelimit.rejected").tag("type", "read").counter().count());
+	}
+
+	@Test
+	void testReadsAndWritesHaveSeparateLimits() throws Exception {
+		assertEquals(HttpStatus.OK.value(), filter("PUT", "/api/books/1/return", "10.0.0.1").getStatus());
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), filter("PUT", "/api/books/1/return", "10.0.0.1").getStatus());
+
+		assertEquals(HttpStatus.OK.value(), filter("GET", "/api/books/getBooks", "10.0.0.1").getStatus());
+	}
+
+	@Test
+	void testClientsAreLimitedIndependently() throws Exception {
+		filter("PUT", "/api/books/1/return", "10.0.0.1");
+
+		assertEquals(HttpStatus.OK.value(), filter("PUT", "/api/books/1/return", "10.0.0.2").getStatus());
+	}
+
+	@Test
+	void testAuthenticatedPrincipalIsTheKey() throws Exception {
+		SecurityContextHolder.getContext().setAuthentication(
+				new UsernamePasswordAuthenticationToken("user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+		filter("PUT", "/api/books/1/return", "10.0.0.1");
+
+		assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), filter("PUT", "/api/books/1/return", "10.0.0.2").getStatus());
+	}
+
+	@Test
+	void testNonApiRequestsAreNotLimited() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			MockFilterChain chain = new MockFilterChain();
+			MockHttpServletRequest request = request("GET", "/swagger-ui/index.html", "10.0.0.1");
+			rateLimitingFilter.doFilter(request, new MockHttpServletResponse(), chain);
+			assertNotNull(chain.getRequest());
+		}
+	}
+
+	@Test
+	void testRejectedRequestDoesNotReachTheChain() throws Exception {
+		filter("PUT", "/api/books/1/return", "10.0.0.1");
+		MockFilterChain chain = new MockFilterChain();
+
+		rateLimitingFilter.doFilter(request("PUT", "/api/books/1/return", "10.0.0.1"), new MockHttpServletResponse(),
+				chain);
+
+		assertNull(chain.getRequest());
+	}
+
+	private MockHttpServletResponse filter(String method, String path, String remoteAddress) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		rateLimitingFilter.doFilter(request(method, path, remoteAddress), response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String method, String path, String remoteAddress) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setServletPath(path);
+		request.setRemoteAddr(remoteAddress);
+		return request;
+	}
+}
@@ -0,0 +1,95 @@
+package com.libraryportal.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CatalogFileTest {
+
+	// Small enough that books are padded across several segments.
+	private static final long SEGMENT_BYTES = 64;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testBooksAreFoundAndStreamedAcrossSegments() throws IOException {
+		CatalogFile catalog = write(10);
+
+		assertEquals(10, catalog.size());
+		assertEquals(4, catalog.indexOf(50));
+		assertEquals(-1, catalog.indexOf(55));
+		assertEquals(json(50), book(catalog, 4));
+		assertEquals("[" + json(30) + "," + json(40) + "," + json(50) + "]", books(catalog, 2, 5));
+	}
+
+	@Test
+	void testEmptyRange() throws IOException {
+		CatalogFile catalog = write(0);
+
+		assertEquals(0, catalog.size());
+		assertEquals("[]", books(catalog, 0, 0));
+	}
+
+	@Test
+	void testBooksMustBeAppendedInIdOrder() throws IOException {
+		try (CatalogFile.Writer writer = CatalogFile.create(directory.resolve("c.data"), directory.resolve("c.index"),
+				SEGMENT_BYTES)) {
+			writer.append(2, json(2).getBytes(StandardCharsets.UTF_8));
+			assertThrows(IllegalArgumentException.class,
+					() -> writer.append(1, json(1).getBytes(StandardCharsets.UTF_8)));
+		}
+	}
+
+	@Test
+	void testBooksAreCopiedFromAnotherCatalog() throws IOException {
+		CatalogFile previous = write(5);
+		Path dataFile = directory.resolve("d.data");
+		Path indexFile = directory.resolve("d.index");
+		try (CatalogFile.Writer writer = CatalogFile.create(dataFile, indexFile, SEGMENT_BYTES)) {
+			writer.append(previous, 0);
+			writer.append(15, json(15).getBytes(StandardCharsets.UTF_8));
+			writer.append(previous, 3);
+		}
+		CatalogFile catalog = CatalogFile.open(dataFile, indexFile);
+
+		assertEquals(3, catalog.size());
+		assertEquals(40, catalog.idAt(2));
+		assertEquals("[" + json(10) + "," + json(15) + "," + json(40) + "]", books(catalog, 0, 3));
+	}
+
+	private CatalogFile write(int books) throws IOException {
+		Path dataFile = directory.resolve("c.data");
+		Path indexFile = directory.resolve("c.index");
+		try (CatalogFile.Writer writer = CatalogFile.create(dataFile, indexFile, SEGMENT_BYTES)) {
+			for (int i = 1; i <= books; i++) {
+				writer.append(i * 10, json(i * 10).getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		return CatalogFile.open(dataFile, indexFile);
+	}
+
+	private static String json(long id) {
+		return "{\"id\":" + id + ",\"title\":\"Title-" + id + "\"}";
+	}
+
+	private static String book(CatalogFile catalog, int position) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		catalog.writeBook(position, Channels.newChannel(out));
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private static String books(CatalogFile catalog, int from, int to) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		catalog.writeBooks(from, to, Channels.newChannel(out));
+		return out.toString(StandardCharsets.UTF_8).replaceAll("\\s", "");
+	}
+}
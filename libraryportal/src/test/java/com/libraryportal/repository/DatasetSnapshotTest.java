@@ -0,0 +1,143 @@
+package com.libraryportal.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.util.BookStatus;
+import com.libraryportal.util.CopyBitmap;
+
+class DatasetSnapshotTest {
+
+	@Test
+	void testChunksAreReadBackAsWritten() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DatasetSnapshot.Writer writer = DatasetSnapshot.write(out)) {
+			writer.writeBooks(List.of(book(1, "9780306406157", BookStatus.AVAILABLE), book(2, null, null)));
+			Book branchBook = book(5, "9780306406164", BookStatus.BORROWED);
+			branchBook.setBranchCode("EAST");
+			CopyBitmap copies = new CopyBitmap(70);
+			for (int i = 0; i < 66; i++) {
+				copies.claim();
+			}
+			copies.release(3);
+			branchBook.applyCopies(copies);
+			writer.writeBooks(List.of(branchBook));
+			writer.writeBorrowers(List.of(borrower(3)));
+		}
+
+		DatasetSnapshot.Reader reader = DatasetSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(DatasetSnapshot.BOOKS, reader.next());
+		List<Book> books = reader.readBooks();
+		assertEquals(2, books.size());
+		assertEquals("9780306406157", books.get(0).getIsbn());
+		assertEquals(BookStatus.AVAILABLE, books.get(0).getStatus());
+		assertEquals(Long.valueOf(10), books.get(0).getChangeSeq());
+		assertEquals(Book.DEFAULT_BRANCH, books.get(0).getBranchCode());
+		assertNull(books.get(1).getIsbn());
+		assertNull(books.get(1).getStatus());
+		assertEquals(DatasetSnapshot.BOOKS, reader.next());
+		Book branchBook = reader.readBooks().get(0);
+		assertEquals(Long.valueOf(5), branchBook.getId());
+		assertEquals("EAST", branchBook.getBranchCode());
+		assertEquals(70, branchBook.getTotalCopies());
+		assertEquals(5, branchBook.getNoOfCopies());
+		assertFalse(branchBook.copies().isOnLoan(3));
+		assertTrue(branchBook.copies().isOnLoan(65));
+		assertFalse(branchBook.copies().isOnLoan(66));
+		assertEquals(DatasetSnapshot.BORROWERS, reader.next());
+		Borrower borrower = reader.readBorrowers().get(0);
+		assertEquals("borrower3@example.com", borrower.getEmail());
+		assertNull(borrower.getChangeSeq());
+		assertEquals(0, reader.next());
+	}
+
+	@Test
+	void testChunksMustBeReadInTheirSection() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DatasetSnapshot.Writer writer = DatasetSnapshot.write(out)) {
+			writer.writeBooks(List.of(book(1, "9780306406157", BookStatus.AVAILABLE)));
+		}
+
+		DatasetSnapshot.Reader reader = DatasetSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+		reader.next();
+		assertThrows(IllegalStateException.class, reader::readBorrowers);
+		assertThrows(IllegalStateException.class, reader::next);
+	}
+
+	@Test
+	void testVersion1BooksGetTheDefaultBranchAndCopies() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (DataOutputStream data = new DataOutputStream(new GZIPOutputStream(out))) {
+			data.writeInt(0x4C50_4453);
+			data.writeInt(1);
+			data.writeByte(DatasetSnapshot.BOOKS);
+			data.writeInt(1);
+			data.writeLong(7);
+			data.writeBoolean(true);
+			data.writeUTF("9780306406157");
+			data.writeBoolean(true);
+			data.writeUTF("Version 1 Title");
+			data.writeBoolean(false);
+			data.writeInt(2);
+			data.writeByte(BookStatus.AVAILABLE.ordinal() + 1);
+			data.writeLong(70);
+			data.writeByte(0);
+		}
+
+		DatasetSnapshot.Reader reader = DatasetSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(DatasetSnapshot.BOOKS, reader.next());
+		Book book = reader.readBooks().get(0);
+		assertEquals("Version 1 Title", book.getTitle());
+		assertNull(book.getAuthor());
+		assertEquals(2, book.getNoOfCopies());
+		assertEquals(Book.DEFAULT_BRANCH, book.getBranchCode());
+		assertEquals(2, book.getTotalCopies());
+		assertNull(book.getCopyBitmap());
+		assertEquals(0, reader.next());
+	}
+
+	@Test
+	void testOtherStreamsAreRejected() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+			gzip.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		}
+
+		assertThrows(IOException.class, () -> DatasetSnapshot.read(new ByteArrayInputStream(out.toByteArray())));
+		assertThrows(IOException.class, () -> DatasetSnapshot.read(new ByteArrayInputStream(new byte[] { 1, 2 })));
+	}
+
+	private static Book book(long id, String isbn, BookStatus status) {
+		Book book = new Book();
+		book.setId(id);
+		book.setIsbn(isbn);
+		book.setTitle("Snapshot Title " + id);
+		book.setAuthor("Snapshot Author " + id);
+		book.setNoOfCopies((int) id);
+		book.setStatus(status);
+		book.setChangeSeq(id * 10);
+		return book;
+	}
+
+	private static Borrower borrower(long id) {
+		Borrower borrower = new Borrower();
+		borrower.setId(id);
+		borrower.setName("Snapshot Borrower " + id);
+		borrower.setEmail("borrower" + id + "@example.com");
+		return borrower;
+	}
+}
@@ -0,0 +1,85 @@
+package com.libraryportal.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.exception.DuplicateRegistrationException;
+import com.libraryportal.service.BookService;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Starts the application with the schema created by the Flyway migrations and
+ * only validated by Hibernate, as the prod profile does, so a mapping change
+ * without a migration fails the build instead of the next deployment.
+ */
+@SpringBootTest(properties = { "spring.flyway.enabled=true", "spring.jpa.hibernate.ddl-auto=validate" })
+class SchemaMigrationTest {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private BookService bookService;
+
+	@Test
+	void testMigrationsMatchTheEntities() {
+		assertEquals(0, flyway.info().pending().length);
+
+		Book book = bookRepository.upsert(Book.DEFAULT_BRANCH, "9780306406157", "Migrated Title", "Migrated Author");
+		assertEquals(BookStatus.AVAILABLE, bookRepository.findById(book.getId()).orElseThrow().getStatus());
+		Book copy = bookRepository.upsert(Book.DEFAULT_BRANCH, "9780306406157", "Migrated Title", "Migrated Author");
+		assertEquals(2, copy.getNoOfCopies());
+		assertEquals(2, copy.getTotalCopies());
+		assertEquals(1,
+				bookRepository.upsert("EAST", "9780306406157", "Migrated Title", "Migrated Author").getNoOfCopies());
+
+		bookRepository.upsert(Book.DEFAULT_BRANCH, "9781861972712", null, "Untitled Author");
+		assertEquals(2,
+				bookRepository.upsert(Book.DEFAULT_BRANCH, "9781861972712", null, "Untitled Author").getNoOfCopies());
+		// A second row without a title is rejected, as a concurrent first registration would be
+		Book untitled = new Book();
+		untitled.setIsbn("9781861972712");
+		untitled.setAuthor("Untitled Author");
+		untitled.setNoOfCopies(1);
+		untitled.setStatus(BookStatus.AVAILABLE);
+		assertThrows(DataIntegrityViolationException.class, () -> bookRepository.saveAndFlush(untitled));
+
+		Borrower borrower = new Borrower();
+		borrower.setName("Migrated Borrower");
+		borrower.setEmail("migrated@example.com");
+		Long borrowerId = borrowerRepository.save(borrower).getId();
+		assertEquals(borrowerId, borrowerRepository.findByEmail("migrated@example.com").getId());
+	}
+
+	@Test
+	void testRegisteredBookIsAvailable() throws DuplicateRegistrationException {
+		Book book = new Book();
+		book.setIsbn("9780131103627");
+		book.setTitle("Registered Borrowed");
+		book.setAuthor("Registered Author");
+		book.setStatus(BookStatus.BORROWED);
+
+		Book registered = bookService.registerBook(book);
+
+		// The status is derived from the copies, not taken from the request
+		Book stored = bookRepository.findById(registered.getId()).orElseThrow();
+		assertEquals(BookStatus.AVAILABLE, registered.getStatus());
+		assertEquals(BookStatus.AVAILABLE, stored.getStatus());
+		assertEquals(1, stored.getNoOfCopies());
+		assertEquals(1, stored.getTotalCopies());
+	}
+}
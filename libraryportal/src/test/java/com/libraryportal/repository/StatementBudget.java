@@ -0,0 +1,35 @@
+package com.libraryportal.repository;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * The most SQL statements of each type a test method may execute, counted by
+ * the {@link StatementCounter} from just before the method body runs until it
+ * returns, so set-up in {@code @BeforeEach} methods is not charged. A test
+ * going over its budget fails, which catches N+1 selects and redundant writes
+ * as they are introduced.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+
+	/** The most selects, including locking reads and delta table queries. */
+	int select() default 0;
+
+	/** The most inserts. */
+	int insert() default 0;
+
+	/** The most updates. */
+	int update() default 0;
+
+	/** The most deletes. */
+	int delete() default 0;
+}
@@ -0,0 +1,61 @@
+package com.libraryportal.repository;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.libraryportal.repository.StatementCounter.Counts;
+import com.libraryportal.repository.StatementCounter.Type;
+
+/**
+ * Enforces the {@link StatementBudget} of a test method. The statements are
+ * counted across all threads, so calls handed to a bulkhead are charged too;
+ * the application must otherwise be idle while the method runs.
+ */
+public class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace
+			.create(StatementBudgetExtension.class);
+
+	@Override
+	public void beforeTestExecution(ExtensionContext context) {
+		context.getStore(NAMESPACE).put(context.getUniqueId(), counter(context).snapshot());
+	}
+
+	@Override
+	public void afterTestExecution(ExtensionContext context) {
+		StatementBudget budget = context.getRequiredTestMethod().getAnnotation(StatementBudget.class);
+		Counts before = context.getStore(NAMESPACE).remove(context.getUniqueId(), Counts.class);
+		if (budget == null || before == null) {
+			return;
+		}
+		Counts used = counter(context).snapshot().since(before);
+
+		List<String> exceeded = new ArrayList<>();
+		check(exceeded, Type.SELECT, used, budget.select());
+		check(exceeded, Type.INSERT, used, budget.insert());
+		check(exceeded, Type.UPDATE, used, budget.update());
+		check(exceeded, Type.DELETE, used, budget.delete());
+		if (!exceeded.isEmpty()) {
+			fail(context.getDisplayName() + " exceeded its statement budget: " + String.join(", ", exceeded)
+					+ " (executed " + used + ")");
+		}
+	}
+
+	private static void check(List<String> exceeded, Type type, Counts used, int allowed) {
+		if (used.get(type) > allowed) {
+			exceeded.add(used.get(type) + " " + type.name().toLowerCase(Locale.ROOT) + " statements, at most " + allowed);
+		}
+	}
+
+	private static StatementCounter counter(ExtensionContext context) {
+		return SpringExtension.getApplicationContext(context).getBean(StatementCounter.class);
+	}
+}
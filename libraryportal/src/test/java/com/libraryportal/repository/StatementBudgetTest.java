@@ -0,0 +1,200 @@
+package com.libraryportal.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import com.libraryportal.controller.BookController;
+import com.libraryportal.controller.BorrowerController;
+import com.libraryportal.controller.SyncController;
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.service.BookService;
+import com.libraryportal.service.BorrowerService;
+import com.libraryportal.service.CatalogStoreService;
+import com.libraryportal.util.CopyBitmap;
+
+/**
+ * Holds the service methods and endpoints to the SQL statements they need.
+ * Endpoints are called through their controllers, so the statements run on
+ * the bulkhead threads as in production. The catalog store is only built at
+ * startup, and each test waits for that build so it is not charged for it.
+ */
+@SpringBootTest(properties = { "libraryportal.ratelimit.enabled=false",
+		"libraryportal.catalog-store.refresh-seconds=3600" })
+class StatementBudgetTest {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BorrowerService borrowerService;
+
+	@Autowired
+	private BookController bookController;
+
+	@Autowired
+	private BorrowerController borrowerController;
+
+	@Autowired
+	private SyncController syncController;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private CatalogStoreService catalogStoreService;
+
+	private Book available;
+	private Book borrowed;
+	private Borrower borrower;
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		awaitCatalog();
+		long unique = System.nanoTime();
+		available = bookRepository.save(book("978" + unique % 10_000_000_000L, 2, 0));
+		borrowed = bookRepository.save(book("979" + unique % 10_000_000_000L, 2, 1));
+		Borrower seed = new Borrower();
+		seed.setName("Budget Borrower");
+		seed.setEmail("budget-" + unique + "@example.com");
+		borrower = borrowerRepository.save(seed);
+	}
+
+	@Test
+	@StatementBudget(select = 1)
+	void testRegisterBook() throws Exception {
+		Book book = book(available.getIsbn(), 1, 0);
+
+		assertEquals(3, bookService.registerBook(book).getNoOfCopies());
+	}
+
+	@Test
+	@StatementBudget(select = 2, update = 1)
+	void testBorrowBook() throws Exception {
+		bookService.borrowBook(borrower.getId(), available.getId());
+	}
+
+	@Test
+	@StatementBudget(select = 1, update = 1)
+	void testReturnBook() throws Exception {
+		bookService.returnBook(borrowed.getId());
+	}
+
+	@Test
+	@StatementBudget(insert = 1)
+	void testRegisterBorrower() throws Exception {
+		Borrower newBorrower = new Borrower();
+		newBorrower.setName("New Borrower");
+		newBorrower.setEmail("new-" + System.nanoTime() + "@example.com");
+
+		borrowerService.registerBorrower(newBorrower);
+	}
+
+	@Test
+	@StatementBudget(select = 1, update = 1)
+	void testUpdateBorrower() throws Exception {
+		Borrower changes = new Borrower();
+		changes.setName("Renamed Borrower");
+		changes.setEmail(borrower.getEmail());
+
+		borrowerService.updateBorrower(borrower.getId(), changes);
+	}
+
+	@Test
+	@StatementBudget(select = 1)
+	void testPatchBorrower() throws Exception {
+		Borrower changes = new Borrower();
+		changes.setName("Patched Borrower");
+
+		borrowerService.patchBorrower(borrower.getId(), changes);
+	}
+
+	@Test
+	@StatementBudget(insert = 1, delete = 1)
+	void testDeleteBorrower() {
+		borrowerService.deleteBorrower(borrower.getId());
+	}
+
+	@Test
+	@StatementBudget(select = 1)
+	void testGetBooksEndpoint() {
+		assertEquals(HttpStatus.OK, bookController.getAllBooks().join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(select = 1)
+	void testGetBookSummariesEndpoint() {
+		assertEquals(HttpStatus.OK, bookController.getBookSummaries().join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(select = 1)
+	void testGetBookFieldsEndpoint() {
+		assertEquals(HttpStatus.OK, bookController.getAllBooks(List.of("id", "title")).join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(select = 2, update = 1)
+	void testBorrowEndpoint() {
+		assertEquals(HttpStatus.OK,
+				bookController.borrowBook(available.getId(), borrower.getId()).join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(select = 1, update = 1)
+	void testReturnEndpoint() {
+		assertEquals(HttpStatus.OK, bookController.returnBook(borrowed.getId(), null).join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(select = 1)
+	void testGetBorrowersEndpoint() {
+		assertEquals(HttpStatus.OK, borrowerController.getAllBorrowers().join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(insert = 1, delete = 1)
+	void testDeleteBorrowerEndpoint() {
+		assertEquals(HttpStatus.NO_CONTENT, borrowerController.deleteBorrower(borrower.getId()).join().getStatusCode());
+	}
+
+	@Test
+	@StatementBudget(select = 3)
+	void testSyncEndpoint() {
+		assertEquals(HttpStatus.OK, syncController.getChanges(0, 500).join().getStatusCode());
+	}
+
+	private void awaitCatalog() throws InterruptedException {
+		for (int attempt = 0; attempt < 300; attempt++) {
+			try {
+				catalogStoreService.getCatalog();
+				return;
+			} catch (IllegalStateException e) {
+				Thread.sleep(100);
+			}
+		}
+	}
+
+	private static Book book(String isbn, int copies, int onLoan) {
+		Book book = new Book();
+		book.setIsbn(isbn);
+		book.setTitle("Budget Title");
+		book.setAuthor("Budget Author");
+		CopyBitmap bitmap = new CopyBitmap(copies);
+		for (int i = 0; i < onLoan; i++) {
+			bitmap.claim();
+		}
+		book.applyCopies(bitmap);
+		return book;
+	}
+}
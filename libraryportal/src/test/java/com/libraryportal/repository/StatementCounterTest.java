@@ -0,0 +1,46 @@
+package com.libraryportal.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.libraryportal.repository.StatementCounter.Type;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+
+class StatementCounterTest {
+
+	@Test
+	void testStatementsAreClassifiedByFirstKeyword() {
+		assertEquals(Type.SELECT, StatementCounter.typeOf("select b1_0.id from book b1_0"));
+		assertEquals(Type.INSERT, StatementCounter.typeOf("insert into borrower (email,name) values (?,?)"));
+		assertEquals(Type.UPDATE, StatementCounter.typeOf("  UPDATE book SET no_of_copies=? WHERE id=?"));
+		assertEquals(Type.DELETE, StatementCounter.typeOf("delete from borrower where id=?"));
+		assertEquals(Type.OTHER, StatementCounter.typeOf("call next value for seq"));
+	}
+
+	@Test
+	void testDeltaTableAndParenthesizedQueriesCountAsSelects() {
+		assertEquals(Type.SELECT, StatementCounter.typeOf("SELECT id FROM FINAL TABLE (UPDATE borrower SET name = ?)"));
+		assertEquals(Type.SELECT, StatementCounter.typeOf("(select id from book) union (select id from book)"));
+		assertEquals(Type.SELECT, StatementCounter.typeOf("with recent as (select id from book) select * from recent"));
+	}
+
+	@Test
+	void testExecutedStatementsAreCountedSinceSnapshot() {
+		StatementCounter counter = new StatementCounter();
+		counter.afterQuery(new ExecutionInfo(), List.of(new QueryInfo("select 1")));
+		StatementCounter.Counts before = counter.snapshot();
+
+		counter.afterQuery(new ExecutionInfo(), List.of(new QueryInfo("select 2")));
+		counter.afterQuery(new ExecutionInfo(), List.of(new QueryInfo("update book set title = 'x'")));
+
+		StatementCounter.Counts used = counter.snapshot().since(before);
+		assertEquals(1, used.get(Type.SELECT));
+		assertEquals(1, used.get(Type.UPDATE));
+		assertEquals("1 select, 0 insert, 1 update, 0 delete, 0 other", used.toString());
+	}
+}
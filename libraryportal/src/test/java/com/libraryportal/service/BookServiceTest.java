@@ -1,12 +1,21 @@
 package com.libraryportal.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,15 +23,22 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BorrowedBookDetails;
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.event.BookAvailabilityChanged;
 import com.libraryportal.exception.BookNotFoundException;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
+import com.libraryportal.exception.WritesSuspendedException;
 import com.libraryportal.repository.BookRepository;
 import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.repository.ChangeSequence;
 import com.libraryportal.util.BookStatus;
+import com.libraryportal.util.CopyBitmap;
 
 class BookServiceTest {
 
@@ -32,6 +48,12 @@ class BookServiceTest {
 	@Mock
 	private BorrowerRepository borrowerRepository;
 
+	@Mock
+	private ApplicationEventPublisher eventPublisher;
+
+	@Mock
+	private ChangeSequence changeSequence;
+
 	@InjectMocks
 	private BookServiceImpl bookService;
 
@@ -48,8 +70,8 @@ class BookServiceTest {
 		book.setAuthor("Test Author");
 		book.setStatus(BookStatus.AVAILABLE);
 
-		when(bookRepository.findByIsbnAndTitleAndAuthor(any(), any(), any())).thenReturn(null);
-		when(bookRepository.save(any())).thenReturn(book);
+		when(bookRepository.upsert(Book.DEFAULT_BRANCH, "1234567890", "Test Book", "Test Author"))
+				.thenReturn(registered(1));
 
 		Book registeredBook = bookService.registerBook(book);
 
@@ -61,6 +83,62 @@ class BookServiceTest {
 		assertEquals(BookStatus.AVAILABLE, registeredBook.getStatus());
 	}
 
+	@Test
+	void testRegisterBook_SingleUpsert() throws DuplicateRegistrationException {
+		Book book = new Book();
+		book.setTitle("Test Book");
+		book.setIsbn("1234567890");
+		book.setAuthor("Test Author");
+
+		when(bookRepository.upsert(any(), any(), any(), any())).thenReturn(registered(3));
+
+		Book registeredBook = bookService.registerBook(book);
+
+		assertEquals(3, registeredBook.getNoOfCopies());
+		verify(bookRepository, times(1)).upsert(any(), any(), any(), any());
+		verify(bookRepository, never()).findByIsbnAndTitleAndAuthor(any(), any(), any());
+		verify(bookRepository, never()).save(any());
+		verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BookAvailabilityChanged changed
+				&& changed.getNoOfCopies() == 3));
+	}
+
+	@Test
+	void testRegisterBook_RetriesConcurrentInsert() throws DuplicateRegistrationException {
+		Book book = new Book();
+		book.setTitle("Test Book");
+		book.setIsbn("1234567890");
+		book.setAuthor("Test Author");
+
+		when(bookRepository.upsert(any(), any(), any(), any()))
+				.thenThrow(new DataIntegrityViolationException("uk_book_isbn_title_author"))
+				.thenReturn(registered(2));
+
+		Book registeredBook = bookService.registerBook(book);
+
+		assertEquals(2, registeredBook.getNoOfCopies());
+		verify(bookRepository, times(2)).upsert(any(), any(), any(), any());
+	}
+
+	@Test
+	void testRegisterBook_MissingIsbn() {
+		Book book = new Book();
+		book.setTitle("Test Book");
+
+		assertThrows(DuplicateRegistrationException.class, () -> bookService.registerBook(book));
+		verify(bookRepository, never()).upsert(any(), any(), any(), any());
+	}
+
+	@Test
+	void testRegisterBook_InvalidBranch() {
+		Book book = new Book();
+		book.setIsbn("1234567890");
+		book.setTitle("Test Book");
+		book.setBranchCode("north branch");
+
+		assertThrows(DuplicateRegistrationException.class, () -> bookService.registerBook(book));
+		verify(bookRepository, never()).upsert(any(), any(), any(), any());
+	}
+
 	@Test
 	void testGetAllBooks() {
 		List<Book> books = new ArrayList<>();
@@ -75,34 +153,111 @@ class BookServiceTest {
 		assertEquals(2, result.size());
 	}
 
+	@Test
+	void testGetAllBooksWithFields() {
+		List<String> fields = List.of("id", "title");
+		List<Map<String, Object>> books = List.of(Map.of("id", 1L, "title", "Test Book"));
+
+		when(bookRepository.findAllFields(fields)).thenReturn(books);
+
+		List<Map<String, Object>> result = bookService.getAllBooks(fields);
+
+		assertEquals(books, result);
+	}
+
 	@Test
 	void testBorrowBook_Success() throws BorrowerNotFoundException {
 		Long borrowerId = 1L;
 		Long bookId = 1L;
 		Book book = new Book();
-		book.setStatus(BookStatus.AVAILABLE);
+		book.applyCopies(new CopyBitmap(1));
 
 		Borrower borrower = new Borrower();
 
-		when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+		when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
 		when(borrowerRepository.findById(borrowerId)).thenReturn(Optional.of(borrower));
 
-		bookService.borrowBook(borrowerId, bookId);
+		BorrowedBookDetails details = bookService.borrowBook(borrowerId, bookId);
 
+		assertEquals(1, details.getCopyNumber());
 		assertEquals(BookStatus.BORROWED, book.getStatus());
+		verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof BookAvailabilityChanged changed
+				&& changed.getStatus() == BookStatus.BORROWED));
+	}
+
+	@Test
+	void testBorrowBook_WritesSuspended() {
+		doThrow(new WritesSuspendedException("Restoring")).when(changeSequence).checkWritable();
+
+		assertThrows(WritesSuspendedException.class, () -> bookService.borrowBook(1L, 1L));
+		verify(bookRepository, never()).findByIdForUpdate(any());
+	}
+
+	@Test
+	void testBorrowBook_UntilEveryCopyIsOut() throws BorrowerNotFoundException {
+		Long borrowerId = 1L;
+		Long bookId = 1L;
+		Book book = new Book();
+		book.applyCopies(new CopyBitmap(2));
+
+		when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
+		when(borrowerRepository.findById(borrowerId)).thenReturn(Optional.of(new Borrower()));
+
+		assertEquals(1, bookService.borrowBook(borrowerId, bookId).getCopyNumber());
+		assertEquals(BookStatus.AVAILABLE, book.getStatus());
+		assertEquals(1, book.getNoOfCopies());
+		assertEquals(2, bookService.borrowBook(borrowerId, bookId).getCopyNumber());
+		assertEquals(BookStatus.BORROWED, book.getStatus());
+		assertEquals(0, book.getNoOfCopies());
+		assertThrows(BorrowerNotFoundException.class, () -> bookService.borrowBook(borrowerId, bookId));
+		assertEquals(2, book.getTotalCopies());
 	}
 
 	@Test
 	void testReturnBook_Success() throws BookNotFoundException {
 		Long bookId = 1L;
 		Book book = new Book();
-		book.setStatus(BookStatus.BORROWED);
+		CopyBitmap copies = new CopyBitmap(1);
+		copies.claim();
+		book.applyCopies(copies);
 
-		when(bookRepository.findById(bookId)).thenReturn(Optional.of(book));
+		when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
 
 		bookService.returnBook(bookId);
 
 		assertEquals(BookStatus.AVAILABLE, book.getStatus());
+		assertEquals(1, book.getNoOfCopies());
+		assertThrows(BookNotFoundException.class, () -> bookService.returnBook(bookId));
+	}
+
+	@Test
+	void testReturnBook_Copy() throws BookNotFoundException {
+		Long bookId = 1L;
+		Book book = new Book();
+		CopyBitmap copies = new CopyBitmap(3);
+		copies.claim();
+		copies.claim();
+		book.applyCopies(copies);
+
+		when(bookRepository.findByIdForUpdate(bookId)).thenReturn(Optional.of(book));
+
+		bookService.returnBook(bookId, 2);
+
+		assertTrue(book.copies().isOnLoan(0));
+		assertFalse(book.copies().isOnLoan(1));
+		assertEquals(2, book.getNoOfCopies());
+		assertThrows(BookNotFoundException.class, () -> bookService.returnBook(bookId, 2));
+		assertThrows(BookNotFoundException.class, () -> bookService.returnBook(bookId, 4));
 	}
 
+	private static Book registered(int noOfCopies) {
+		Book book = new Book();
+		book.setId(1L);
+		book.setTitle("Test Book");
+		book.setIsbn("1234567890");
+		book.setAuthor("Test Author");
+		book.setNoOfCopies(noOfCopies);
+		book.setStatus(BookStatus.AVAILABLE);
+		return book;
+	}
 }
@@ -1,21 +1,28 @@
 package com.libraryportal.service;
 
 import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.DeletedRecord;
 import com.libraryportal.exception.BorrowerNotFoundException;
 import com.libraryportal.exception.DuplicateRegistrationException;
 import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.repository.DeletedRecordRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,6 +37,12 @@ class BorrowerServiceTest {
 	@Mock
 	private BorrowerRepository borrowerRepository;
 
+	@Mock
+	private DeletedRecordRepository deletedRecordRepository;
+
+	@Mock
+	private ChangeSequence changeSequence;
+
 	@InjectMocks
 	private BorrowerServiceImpl borrowerService;
 
@@ -45,7 +58,7 @@ class BorrowerServiceTest {
 		borrower.setEmail(BORROWER_MAIL_ID);
 
 		when(borrowerRepository.findByEmail(any())).thenReturn(null);
-		when(borrowerRepository.save(any())).thenReturn(borrower);
+		when(borrowerRepository.saveAndFlush(any())).thenReturn(borrower);
 
 		Borrower registeredBorrower = borrowerService.registerBorrower(borrower);
 
@@ -65,6 +78,50 @@ class BorrowerServiceTest {
 		assertThrows(DuplicateRegistrationException.class, () -> borrowerService.registerBorrower(borrower));
 	}
 
+	@Test
+	void testRegisterBorrower_ConcurrentDuplicateEmail() {
+		Borrower borrower = new Borrower();
+		borrower.setName(BORROWER_NAME);
+		borrower.setEmail(BORROWER_MAIL_ID);
+
+		// The filter rules the email out, so only the unique constraint sees the duplicate
+		when(borrowerRepository.findAllEmails()).thenReturn(List.of());
+		when(borrowerRepository.saveAndFlush(any()))
+				.thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+		borrowerService.loadRegistrationFilter();
+
+		assertThrows(DuplicateRegistrationException.class, () -> borrowerService.registerBorrower(borrower));
+		verify(borrowerRepository, never()).findByEmail(any());
+	}
+
+	@Test
+	void testRegisterBorrower_NewEmailSkipsLookup() throws DuplicateRegistrationException {
+		Borrower borrower = new Borrower();
+		borrower.setName(BORROWER_NAME);
+		borrower.setEmail(BORROWER_MAIL_ID);
+
+		when(borrowerRepository.findAllEmails()).thenReturn(List.of(UPDTD_BORROWER_MAIL_ID));
+		when(borrowerRepository.saveAndFlush(any())).thenReturn(borrower);
+		borrowerService.loadRegistrationFilter();
+
+		borrowerService.registerBorrower(borrower);
+
+		verify(borrowerRepository, never()).findByEmail(any());
+	}
+
+	@Test
+	void testRegisterBorrower_KnownEmailIsChecked() {
+		Borrower borrower = new Borrower();
+		borrower.setName(BORROWER_NAME);
+		borrower.setEmail(BORROWER_MAIL_ID);
+
+		when(borrowerRepository.findAllEmails()).thenReturn(List.of(BORROWER_MAIL_ID));
+		when(borrowerRepository.findByEmail(BORROWER_MAIL_ID)).thenReturn(borrower);
+		borrowerService.loadRegistrationFilter();
+
+		assertThrows(DuplicateRegistrationException.class, () -> borrowerService.registerBorrower(borrower));
+	}
+
 	@Test
 	void testGetAllBorrowers() {
 		List<Borrower> borrowers = new ArrayList<>();
@@ -79,6 +136,18 @@ class BorrowerServiceTest {
 		assertEquals(2, result.size());
 	}
 
+	@Test
+	void testGetAllBorrowersWithFields() {
+		List<String> fields = List.of("id", "name");
+		List<Map<String, Object>> borrowers = List.of(Map.of("id", 1L, "name", BORROWER_NAME));
+
+		when(borrowerRepository.findAllFields(fields)).thenReturn(borrowers);
+
+		List<Map<String, Object>> result = borrowerService.getAllBorrowers(fields);
+
+		assertEquals(borrowers, result);
+	}
+
 	@Test
 	void testGetBorrowerById_Success() throws BorrowerNotFoundException {
 		Long borrowerId = 1L;
@@ -155,10 +224,76 @@ class BorrowerServiceTest {
 				() -> borrowerService.updateBorrower(borrowerId, updatedBorrowerData));
 	}
 
+	@Test
+	void testPatchBorrower_Success() throws BorrowerNotFoundException, DuplicateRegistrationException {
+		Borrower changes = new Borrower();
+		changes.setEmail(UPDTD_BORROWER_MAIL_ID);
+
+		Borrower patchedBorrower = new Borrower();
+		patchedBorrower.setId(1L);
+		patchedBorrower.setName(BORROWER_NAME);
+		patchedBorrower.setEmail(UPDTD_BORROWER_MAIL_ID);
+
+		when(borrowerRepository.patch(1L, null, UPDTD_BORROWER_MAIL_ID)).thenReturn(Optional.of(patchedBorrower));
+
+		Borrower result = borrowerService.patchBorrower(1L, changes);
+
+		assertEquals(BORROWER_NAME, result.getName());
+		assertEquals(UPDTD_BORROWER_MAIL_ID, result.getEmail());
+		verify(borrowerRepository, never()).findById(any());
+	}
+
+	@Test
+	void testPatchBorrower_BorrowerNotFound() {
+		Borrower changes = new Borrower();
+		changes.setName(UPDTD_BORROWER_NAME);
+
+		when(borrowerRepository.patch(1L, UPDTD_BORROWER_NAME, null)).thenReturn(Optional.empty());
+
+		assertThrows(BorrowerNotFoundException.class, () -> borrowerService.patchBorrower(1L, changes));
+	}
+
+	@Test
+	void testPatchBorrower_DuplicateEmail() {
+		Borrower changes = new Borrower();
+		changes.setEmail(BORROWER_MAIL_ID);
+
+		when(borrowerRepository.patch(1L, null, BORROWER_MAIL_ID))
+				.thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+
+		assertThrows(DuplicateRegistrationException.class, () -> borrowerService.patchBorrower(1L, changes));
+	}
+
+	@Test
+	void testPatchBorrower_NothingToUpdate() {
+		assertThrows(IllegalArgumentException.class, () -> borrowerService.patchBorrower(1L, new Borrower()));
+	}
+
 	@Test
 	void testDeleteBorrower() {
 		Long borrowerId = 1L;
 		borrowerService.deleteBorrower(borrowerId);
-		verify(borrowerRepository, times(1)).deleteById(borrowerId);
+		verify(borrowerRepository, times(1)).removeById(borrowerId);
+		verify(borrowerRepository, never()).deleteById(any());
+	}
+
+	@Test
+	void testDeleteBorrower_LeavesTombstone() {
+		Long borrowerId = 1L;
+		when(borrowerRepository.removeById(borrowerId)).thenReturn(1);
+
+		borrowerService.deleteBorrower(borrowerId);
+
+		verify(deletedRecordRepository).save(argThat((DeletedRecord deletion) -> DeletedRecord.BORROWER
+				.equals(deletion.getEntityType()) && borrowerId.equals(deletion.getEntityId())));
+	}
+
+	@Test
+	void testDeleteBorrower_UnknownBorrowerLeavesNoTombstone() {
+		when(borrowerRepository.removeById(1L)).thenReturn(0);
+
+		borrowerService.deleteBorrower(1L);
+
+		verify(deletedRecordRepository, never()).save(any());
 	}
 }
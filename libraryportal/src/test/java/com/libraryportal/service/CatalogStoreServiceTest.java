@@ -0,0 +1,100 @@
+package com.libraryportal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryportal.entity.Book;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.repository.CatalogFile;
+import com.libraryportal.repository.ChangeSequence;
+
+class CatalogStoreServiceTest {
+
+	@Mock
+	private BookRepository bookRepository;
+
+	@Mock
+	private ChangeSequence changeSequence;
+
+	@TempDir
+	Path directory;
+
+	private CatalogStoreServiceImpl catalogStoreService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		catalogStoreService = new CatalogStoreServiceImpl(bookRepository, changeSequence, new ObjectMapper(),
+				directory.toString(), 60, 1000, 0.5);
+	}
+
+	@Test
+	void testBorrowerOnlyWriteKeepsTheCatalog() throws IOException {
+		when(changeSequence.watermark()).thenReturn(1L, 2L);
+		when(bookRepository.findPageAfter(anyLong(), any())).thenReturn(List.of(book(1, 1), book(2, 1)));
+		when(bookRepository.findChangedBetween(eq(1L), eq(2L), any())).thenReturn(List.of());
+
+		catalogStoreService.refresh();
+		CatalogFile built = catalogStoreService.getCatalog();
+		catalogStoreService.refresh();
+
+		assertSame(built, catalogStoreService.getCatalog());
+		assertEquals(2, catalogFiles());
+		verify(bookRepository, times(1)).findPageAfter(anyLong(), any());
+	}
+
+	@Test
+	void testBookWriteIsMergedIntoANewCatalog() throws IOException {
+		when(changeSequence.watermark()).thenReturn(1L, 3L);
+		when(bookRepository.findPageAfter(anyLong(), any())).thenReturn(List.of(book(1, 1), book(2, 1)));
+		when(bookRepository.findChangedBetween(eq(1L), eq(3L), any())).thenReturn(List.of(book(3, 3)));
+
+		catalogStoreService.refresh();
+		CatalogFile built = catalogStoreService.getCatalog();
+		catalogStoreService.refresh();
+
+		CatalogFile updated = catalogStoreService.getCatalog();
+		assertNotSame(built, updated);
+		assertEquals(3, updated.size());
+		assertEquals(3, updated.idAt(2));
+		// The previous catalog is deleted once replaced
+		assertEquals(2, catalogFiles());
+		verify(bookRepository, times(1)).findPageAfter(anyLong(), any());
+	}
+
+	private long catalogFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+
+	private static Book book(long id, long changeSeq) {
+		Book book = new Book();
+		book.setId(id);
+		book.setIsbn("978000000000" + id);
+		book.setTitle("Catalog Book " + id);
+		book.setNoOfCopies(1);
+		book.setChangeSeq(changeSeq);
+		return book;
+	}
+}
@@ -0,0 +1,190 @@
+package com.libraryportal.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.exception.BookNotFoundException;
+import com.libraryportal.exception.BorrowerNotFoundException;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.util.BookStatus;
+
+/**
+ * Interleaves borrows and returns of a few books from many threads against the
+ * embedded database, and checks the circulation invariants while it runs and
+ * once it stops: the number of copies is never negative, no more copies of a
+ * book are lent than it has, and a book is borrowed only while every copy is
+ * out.
+ * Throughput is logged every second. The load is set with
+ * {@code -Dstress.threads}, {@code -Dstress.books} and {@code -Dstress.seconds}.
+ */
+@SpringBootTest(properties = { "libraryportal.ratelimit.enabled=false" })
+class CirculationStressTest {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(CirculationStressTest.class);
+
+	private static final int THREADS = Integer.getInteger("stress.threads", 8);
+	private static final int BOOKS = Integer.getInteger("stress.books", 4);
+	private static final int SECONDS = Integer.getInteger("stress.seconds", 5);
+	private static final int COPIES = 3;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Test
+	void testBorrowsAndReturnsKeepInvariants() throws Exception {
+		List<Long> bookIds = new ArrayList<>(BOOKS);
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book();
+			book.setIsbn(String.format("977%010d", i));
+			book.setTitle("Stress Title " + i);
+			book.setAuthor("Stress Author " + i);
+			book.setNoOfCopies(COPIES);
+			book.setStatus(BookStatus.AVAILABLE);
+			bookIds.add(bookRepository.save(book).getId());
+		}
+		List<Long> borrowerIds = new ArrayList<>(THREADS);
+		for (int i = 0; i < THREADS; i++) {
+			Borrower borrower = new Borrower();
+			borrower.setName("Stress Borrower " + i);
+			borrower.setEmail("stress-" + i + "-" + System.nanoTime() + "@example.com");
+			borrowerIds.add(borrowerRepository.save(borrower).getId());
+		}
+
+		// Successful borrows and returns per book, and the operations by outcome
+		AtomicLongArray borrows = new AtomicLongArray(BOOKS);
+		AtomicLongArray returns = new AtomicLongArray(BOOKS);
+		LongAdder operations = new LongAdder();
+		LongAdder rejected = new LongAdder();
+		List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+		List<String> violations = Collections.synchronizedList(new ArrayList<>());
+		Map<Long, Integer> positions = new HashMap<>();
+		for (int i = 0; i < BOOKS; i++) {
+			positions.put(bookIds.get(i), i);
+		}
+
+		ExecutorService workers = Executors.newFixedThreadPool(THREADS + 1);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			Long borrowerId = borrowerIds.get(t);
+			SplittableRandom random = new SplittableRandom(t);
+			futures.add(workers.submit(() -> {
+				start.await();
+				while (System.nanoTime() < deadline) {
+					int position = random.nextInt(BOOKS);
+					Long bookId = bookIds.get(position);
+					try {
+						if (random.nextBoolean()) {
+							bookService.borrowBook(borrowerId, bookId);
+							borrows.incrementAndGet(position);
+						} else {
+							bookService.returnBook(bookId);
+							returns.incrementAndGet(position);
+						}
+					} catch (BorrowerNotFoundException | BookNotFoundException e) {
+						// Every copy out, or none out: the expected refusals
+						rejected.increment();
+					} catch (RuntimeException e) {
+						errors.add(e);
+					}
+					operations.increment();
+				}
+				return null;
+			}));
+		}
+		futures.add(workers.submit(() -> {
+			start.await();
+			long last = 0;
+			while (System.nanoTime() < deadline) {
+				Thread.sleep(1000);
+				long total = operations.sum();
+				LOGGER.info(String.format("%8d operations/s  %8d rejected  %4d errors", total - last, rejected.sum(),
+						errors.size()));
+				last = total;
+				for (Object[] row : bookRepository.findAllAvailability()) {
+					if (positions.containsKey(((Number) row[0]).longValue())) {
+						check(violations, "while running", row);
+					}
+				}
+			}
+			return null;
+		}));
+
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		workers.shutdown();
+		double seconds = (System.nanoTime() - begin) / 1e9;
+		LOGGER.info(String.format("%d operations in %.1f s, %.0f operations/s, %d rejected, %d errors",
+				operations.sum(), seconds, operations.sum() / seconds, rejected.sum(), errors.size()));
+
+		for (Object[] row : bookRepository.findAllAvailability()) {
+			Integer position = positions.get(((Number) row[0]).longValue());
+			if (position == null) {
+				continue;
+			}
+			check(violations, "after the run", row);
+			long outstanding = borrows.get(position) - returns.get(position);
+			if (outstanding < 0 || outstanding > COPIES) {
+				violations.add("Book " + row[0] + " has " + outstanding + " copies lent at once");
+			}
+			if (((Number) row[2]).intValue() != COPIES - outstanding) {
+				violations.add("Book " + row[0] + " has " + row[2] + " copies after " + borrows.get(position)
+						+ " borrows and " + returns.get(position) + " returns");
+			}
+		}
+
+		assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+		assertTrue(violations.isEmpty(), () -> String.join("\n", violations));
+		assertTrue(operations.sum() > rejected.sum(), "No borrow or return succeeded");
+	}
+
+	/**
+	 * Check one row of ID, ISBN, number of copies and status: every book starts
+	 * with {@link #COPIES} copies, all of which can be lent at once.
+	 */
+	private static void check(List<String> violations, String when, Object[] row) {
+		int copies = ((Number) row[2]).intValue();
+		BookStatus status = (BookStatus) row[3];
+		if (copies < 0) {
+			violations.add("Book " + row[0] + " has " + copies + " copies " + when);
+		}
+		if (copies > COPIES) {
+			violations.add("Book " + row[0] + " has more than " + COPIES + " copies " + when);
+		}
+		if ((status == BookStatus.BORROWED) != (copies == 0)) {
+			violations.add("Book " + row[0] + " is " + status + " with " + copies + " copies " + when);
+		}
+	}
+}
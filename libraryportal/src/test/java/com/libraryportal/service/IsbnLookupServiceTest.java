@@ -0,0 +1,86 @@
+package com.libraryportal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.BookAvailability;
+import com.libraryportal.event.BookAvailabilityChanged;
+import com.libraryportal.exception.BookNotFoundException;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.util.BookStatus;
+
+class IsbnLookupServiceTest {
+
+	private static final String ISBN = "9780306406157";
+
+	@Mock
+	private BookRepository bookRepository;
+
+	private IsbnLookupServiceImpl isbnLookupService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		isbnLookupService = new IsbnLookupServiceImpl(bookRepository, 16);
+	}
+
+	@Test
+	void testLoadIndex_KeepsTheMostRecentlyChangedBook() throws Exception {
+		when(bookRepository.findAllAvailability()).thenReturn(List.of(
+				new Object[] { 1L, ISBN, 0, BookStatus.BORROWED, Book.DEFAULT_BRANCH, 4L },
+				new Object[] { 2L, ISBN, 3, BookStatus.AVAILABLE, Book.DEFAULT_BRANCH, 7L }));
+
+		isbnLookupService.loadIndex();
+
+		BookAvailability availability = isbnLookupService.getAvailabilityByIsbn(null, ISBN);
+		assertEquals(2L, availability.getBookId());
+		assertEquals(3, availability.getNoOfCopies());
+	}
+
+	@Test
+	void testLoadIndex_KeepsTheSameIsbnInEveryBranch() throws Exception {
+		when(bookRepository.findAllAvailability()).thenReturn(List.of(
+				new Object[] { 2L, ISBN, 3, BookStatus.AVAILABLE, "EAST", 7L },
+				new Object[] { 1L, ISBN, 0, BookStatus.BORROWED, Book.DEFAULT_BRANCH, 4L }));
+
+		isbnLookupService.loadIndex();
+
+		assertEquals(1L, isbnLookupService.getAvailabilityByIsbn(null, ISBN).getBookId());
+		BookAvailability east = isbnLookupService.getAvailabilityByIsbn("east", ISBN);
+		assertEquals(2L, east.getBookId());
+		assertEquals("EAST", east.getBranchCode());
+		assertThrows(BookNotFoundException.class, () -> isbnLookupService.getAvailabilityByIsbn("WEST", ISBN));
+	}
+
+	@Test
+	void testOnAvailabilityChanged_IgnoresAnOlderChangeAppliedLate() throws Exception {
+		when(bookRepository.findAllAvailability()).thenReturn(List.of());
+		isbnLookupService.loadIndex();
+
+		// Two borrows of the same book whose listeners ran out of order
+		isbnLookupService.onAvailabilityChanged(new BookAvailabilityChanged(book(1, 9)));
+		isbnLookupService.onAvailabilityChanged(new BookAvailabilityChanged(book(2, 8)));
+
+		assertEquals(1, isbnLookupService.getAvailabilityByIsbn(null, ISBN).getNoOfCopies());
+	}
+
+	private static Book book(int noOfCopies, long changeSeq) {
+		Book book = new Book();
+		book.setId(1L);
+		book.setIsbn(ISBN);
+		book.setBranchCode(Book.DEFAULT_BRANCH);
+		book.setNoOfCopies(noOfCopies);
+		book.setStatus(BookStatus.AVAILABLE);
+		book.setChangeSeq(changeSeq);
+		return book;
+	}
+}
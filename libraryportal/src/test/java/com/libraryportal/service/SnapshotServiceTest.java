@@ -0,0 +1,116 @@
+package com.libraryportal.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.event.DatasetRestored;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.repository.DatasetRepository;
+import com.libraryportal.util.BookStatus;
+import com.libraryportal.util.CopyBitmap;
+
+/**
+ * Writes a snapshot of a small library in chunks of two rows, empties the
+ * library and restores it. The chunk size gives the test its own application
+ * context, and so its own in-memory database.
+ */
+@SpringBootTest(properties = { "libraryportal.snapshot.chunk-rows=2" })
+class SnapshotServiceTest {
+
+	private static final int BOOKS = 5;
+	private static final int BORROWERS = 3;
+
+	@Autowired
+	private SnapshotService snapshotService;
+
+	@Autowired
+	private DatasetRepository datasetRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private BorrowerRepository borrowerRepository;
+
+	@Autowired
+	private ChangeSequence changeSequence;
+
+	@Test
+	void testSnapshotIsRestoredIntoAnEmptyLibrary() throws Exception {
+		for (int i = 0; i < BOOKS; i++) {
+			Book book = new Book();
+			book.setIsbn(String.format("976%010d", i));
+			book.setTitle("Snapshot Title " + i);
+			book.setAuthor("Snapshot Author " + i);
+			CopyBitmap copies = new CopyBitmap(i + 1);
+			if (i % 2 == 1) {
+				copies.claim();
+			}
+			book.applyCopies(copies);
+			bookRepository.save(book);
+		}
+		for (int i = 0; i < BORROWERS; i++) {
+			Borrower borrower = new Borrower();
+			borrower.setName("Snapshot Borrower " + i);
+			borrower.setEmail("snapshot-" + i + "@example.com");
+			borrowerRepository.save(borrower);
+		}
+		List<Book> books = datasetRepository.findBooksAfter(0, Integer.MAX_VALUE);
+		List<Borrower> borrowers = datasetRepository.findBorrowersAfter(0, Integer.MAX_VALUE);
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		snapshotService.writeSnapshot(snapshot);
+
+		assertThrows(IllegalStateException.class,
+				() -> snapshotService.restore(new ByteArrayInputStream(snapshot.toByteArray())));
+
+		datasetRepository.truncate();
+		// A snapshot cut short fails the restore, which deletes the rows it inserted
+		byte[] truncated = Arrays.copyOf(snapshot.toByteArray(), snapshot.size() / 2);
+		assertThrows(IOException.class, () -> snapshotService.restore(new ByteArrayInputStream(truncated)));
+		assertTrue(datasetRepository.isEmpty());
+
+		DatasetRestored restored = snapshotService.restore(new ByteArrayInputStream(snapshot.toByteArray()));
+
+		assertEquals(BOOKS, restored.getBooks());
+		assertEquals(BORROWERS, restored.getBorrowers());
+		List<Book> restoredBooks = datasetRepository.findBooksAfter(0, Integer.MAX_VALUE);
+		for (int i = 0; i < BOOKS; i++) {
+			assertEquals(books.get(i).getId(), restoredBooks.get(i).getId());
+			assertEquals(books.get(i).getIsbn(), restoredBooks.get(i).getIsbn());
+			assertEquals(books.get(i).getNoOfCopies(), restoredBooks.get(i).getNoOfCopies());
+			assertEquals(books.get(i).getTotalCopies(), restoredBooks.get(i).getTotalCopies());
+			assertArrayEquals(books.get(i).getCopyBitmap(), restoredBooks.get(i).getCopyBitmap());
+			assertEquals(books.get(i).getChangeSeq(), restoredBooks.get(i).getChangeSeq());
+		}
+		assertEquals(borrowers.get(BORROWERS - 1).getEmail(),
+				borrowerRepository.findById(borrowers.get(BORROWERS - 1).getId()).orElseThrow().getEmail());
+		long restoredChangeSeq = datasetRepository.maxChangeSeq();
+		assertTrue(changeSequence.watermark() >= restoredChangeSeq);
+
+		// New rows continue after the restored ones
+		Book book = new Book();
+		book.setIsbn("9760000000099");
+		book.setTitle("After Restore");
+		book.setAuthor("Snapshot Author");
+		book.setStatus(BookStatus.AVAILABLE);
+		Book saved = bookRepository.save(book);
+		assertTrue(saved.getId() > books.get(BOOKS - 1).getId());
+		assertTrue(saved.getChangeSeq() > restoredChangeSeq);
+	}
+}
@@ -0,0 +1,95 @@
+package com.libraryportal.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.libraryportal.entity.Book;
+import com.libraryportal.entity.Borrower;
+import com.libraryportal.entity.ChangeSet;
+import com.libraryportal.repository.BookRepository;
+import com.libraryportal.repository.BorrowerRepository;
+import com.libraryportal.repository.ChangeSequence;
+import com.libraryportal.repository.DeletedRecordRepository;
+
+class SyncServiceTest {
+
+	@Mock
+	private BookRepository bookRepository;
+
+	@Mock
+	private BorrowerRepository borrowerRepository;
+
+	@Mock
+	private DeletedRecordRepository deletedRecordRepository;
+
+	@Mock
+	private ChangeSequence changeSequence;
+
+	@InjectMocks
+	private SyncServiceImpl syncService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		when(changeSequence.watermark()).thenReturn(10L);
+		when(bookRepository.findChangedBetween(anyLong(), anyLong(), any())).thenReturn(List.of());
+		when(borrowerRepository.findChangedBetween(anyLong(), anyLong(), any())).thenReturn(List.of());
+		when(deletedRecordRepository.findChangedBetween(anyLong(), anyLong(), any())).thenReturn(List.of());
+	}
+
+	@Test
+	void testGetChangesSince_AllChanges() {
+		when(bookRepository.findChangedBetween(anyLong(), anyLong(), any())).thenReturn(List.of(book(3L)));
+
+		ChangeSet changes = syncService.getChangesSince(0, 2);
+
+		assertEquals(10L, changes.getToken());
+		assertFalse(changes.isHasMore());
+		assertEquals(1, changes.getBooks().size());
+	}
+
+	@Test
+	void testGetChangesSince_FullPageStopsTheToken() {
+		when(bookRepository.findChangedBetween(anyLong(), anyLong(), any())).thenReturn(List.of(book(2L), book(4L)));
+		when(borrowerRepository.findChangedBetween(anyLong(), anyLong(), any()))
+				.thenReturn(List.of(borrower(3L), borrower(6L)));
+
+		ChangeSet changes = syncService.getChangesSince(0, 2);
+
+		assertEquals(4L, changes.getToken());
+		assertTrue(changes.isHasMore());
+		assertEquals(2, changes.getBooks().size());
+		assertEquals(1, changes.getBorrowers().size());
+	}
+
+	@Test
+	void testGetChangesSince_UnknownToken() {
+		assertThrows(IllegalArgumentException.class, () -> syncService.getChangesSince(11, 2));
+		assertThrows(IllegalArgumentException.class, () -> syncService.getChangesSince(-1, 2));
+	}
+
+	private static Book book(Long changeSeq) {
+		Book book = new Book();
+		book.setChangeSeq(changeSeq);
+		return book;
+	}
+
+	private static Borrower borrower(Long changeSeq) {
+		Borrower borrower = new Borrower();
+		borrower.setChangeSeq(changeSeq);
+		return borrower;
+	}
+}
@@ -0,0 +1,83 @@
+package com.libraryportal.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+class RotatingFileSpanHandlerTest {
+
+	private static final TraceContext CONTEXT = TraceContext.newBuilder().traceId(1).spanId(2).build();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void testSpansAreWrittenAsZipkinJsonLines() throws IOException {
+		RotatingFileSpanHandler handler = new RotatingFileSpanHandler(directory, 1 << 20, 3, 100);
+		handler.end(CONTEXT, span("BookServiceImpl.borrowBook", "0000000000000001"), SpanHandler.Cause.FINISHED);
+		handler.close();
+
+		List<String> lines = Files.readAllLines(directory.resolve(RotatingFileSpanHandler.FILE_NAME));
+		assertEquals(1, lines.size());
+		JsonNode json = new ObjectMapper().readTree(lines.get(0));
+		assertEquals("0000000000000001", json.get("traceId").asText());
+		assertEquals("0000000000000003", json.get("parentId").asText());
+		assertEquals("bookserviceimpl.borrowbook", json.get("name").asText().toLowerCase());
+		assertEquals(250, json.get("duration").asLong());
+		assertEquals("service", json.get("tags").get("layer").asText());
+		assertEquals(1, handler.getWritten());
+	}
+
+	@Test
+	void testFilesAreRotatedAndTheOldestDeleted() throws IOException {
+		// Every span fills a file, so each one is rotated out
+		RotatingFileSpanHandler handler = new RotatingFileSpanHandler(directory, 1, 3, 100);
+		for (int i = 1; i <= 5; i++) {
+			handler.end(CONTEXT, span("span-" + i, String.format("%016x", i)), SpanHandler.Cause.FINISHED);
+		}
+		handler.close();
+
+		assertFalse(Files.exists(directory.resolve(RotatingFileSpanHandler.FILE_NAME + ".3")));
+		assertTrue(Files.readString(directory.resolve(RotatingFileSpanHandler.FILE_NAME + ".1")).contains("span-5"));
+		assertTrue(Files.readString(directory.resolve(RotatingFileSpanHandler.FILE_NAME + ".2")).contains("span-4"));
+		assertEquals(5, handler.getWritten());
+	}
+
+	@Test
+	void testAbandonedSpansAreNotWritten() {
+		RotatingFileSpanHandler handler = new RotatingFileSpanHandler(directory, 1 << 20, 3, 100);
+		handler.end(CONTEXT, span("abandoned", "0000000000000001"), SpanHandler.Cause.ABANDONED);
+		handler.close();
+
+		assertEquals(0, handler.getWritten());
+		assertEquals(0, handler.getDropped());
+	}
+
+	private static MutableSpan span(String name, String traceId) {
+		MutableSpan span = new MutableSpan();
+		span.traceId(traceId);
+		span.parentId("0000000000000003");
+		span.id("0000000000000004");
+		span.name(name);
+		span.startTimestamp(1_000);
+		span.finishTimestamp(1_250);
+		span.localServiceName("libraryportal");
+		span.tag("layer", "service");
+		return span;
+	}
+}
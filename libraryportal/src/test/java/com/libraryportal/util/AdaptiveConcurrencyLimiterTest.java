@@ -0,0 +1,82 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+	private static final long FAST = 1_000_000L;
+	private static final long SLOW = 10_000_000L;
+
+	@Test
+	void testRequestsOverTheLimitAreRejected() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 1.5, 0.2);
+
+		assertTrue(limiter.tryAcquire());
+		assertTrue(limiter.tryAcquire());
+		assertFalse(limiter.tryAcquire());
+
+		limiter.releaseIgnored();
+
+		assertTrue(limiter.tryAcquire());
+		assertEquals(2, limiter.getInFlight());
+	}
+
+	@Test
+	void testLimitGrowsWhileLatencyIsSteady() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2);
+
+		saturate(limiter, FAST, 200);
+
+		assertEquals(100, limiter.getLimit());
+	}
+
+	@Test
+	void testLimitShrinksWhenLatencyRisesAndRecovers() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2);
+		saturate(limiter, FAST, 200);
+
+		saturate(limiter, SLOW, 50);
+		int degraded = limiter.getLimit();
+
+		assertTrue(degraded < 20, "limit should fall under load, was " + degraded);
+
+		saturate(limiter, FAST, 400);
+
+		assertEquals(100, limiter.getLimit());
+	}
+
+	@Test
+	void testIdleSamplesDoNotChangeTheLimit() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2);
+
+		for (int i = 0; i < 100; i++) {
+			limiter.tryAcquire();
+			limiter.release(i % 2 == 0 ? FAST : SLOW);
+		}
+
+		assertEquals(10, limiter.getLimit());
+	}
+
+	@Test
+	void testInvalidLimitsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(1, 2, 10, 1.5, 0.2));
+		assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimiter(5, 2, 10, 0.5, 0.2));
+	}
+
+	private static void saturate(AdaptiveConcurrencyLimiter limiter, long rttNanos, int rounds) {
+		for (int round = 0; round < rounds; round++) {
+			int admitted = 0;
+			while (limiter.tryAcquire()) {
+				admitted++;
+			}
+			for (int i = 0; i < admitted; i++) {
+				limiter.release(rttNanos);
+			}
+		}
+	}
+}
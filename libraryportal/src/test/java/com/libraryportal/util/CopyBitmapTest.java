@@ -0,0 +1,77 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CopyBitmapTest {
+
+	@Test
+	void testEveryCopyIsClaimedOnce() {
+		CopyBitmap copies = new CopyBitmap(70);
+
+		for (int i = 0; i < 70; i++) {
+			assertEquals(i, copies.claim());
+		}
+		assertEquals(CopyBitmap.NO_COPY, copies.claim());
+		assertEquals(0, copies.available());
+		assertTrue(copies.isOnLoan(69));
+		assertFalse(copies.isOnLoan(70));
+	}
+
+	@Test
+	void testReleasedCopiesAreClaimedAgain() {
+		CopyBitmap copies = new CopyBitmap(3);
+		copies.claim();
+		copies.claim();
+
+		assertTrue(copies.release(1));
+		assertFalse(copies.release(1));
+		assertFalse(copies.release(2));
+		assertFalse(copies.release(3));
+		assertEquals(2, copies.available());
+		assertEquals(1, copies.claim());
+		assertEquals(0, copies.releaseAny());
+		assertEquals(1, copies.releaseAny());
+		assertEquals(CopyBitmap.NO_COPY, copies.releaseAny());
+		assertEquals(3, copies.available());
+	}
+
+	@Test
+	void testBytesAreTrimmedAfterTheLastCopyOnLoan() {
+		CopyBitmap copies = new CopyBitmap(100);
+		assertNull(copies.toBytes());
+
+		copies.claim();
+		copies.claim();
+		assertArrayEquals(new byte[] { 3 }, copies.toBytes());
+
+		for (int i = 2; i < 73; i++) {
+			copies.claim();
+		}
+		copies.release(0);
+		byte[] bytes = copies.toBytes();
+		assertEquals(10, bytes.length);
+
+		CopyBitmap read = CopyBitmap.fromBytes(100, bytes);
+		assertEquals(copies.available(), read.available());
+		assertFalse(read.isOnLoan(0));
+		assertTrue(read.isOnLoan(72));
+		assertFalse(read.isOnLoan(73));
+		assertArrayEquals(bytes, read.toBytes());
+	}
+
+	@Test
+	void testBitsPastTheLastCopyAreIgnored() {
+		CopyBitmap copies = CopyBitmap.fromBytes(3, new byte[] { (byte) 0xFF, 1 });
+
+		assertEquals(0, copies.available());
+		assertArrayEquals(new byte[] { 7 }, copies.toBytes());
+		assertThrows(IllegalArgumentException.class, () -> new CopyBitmap(CopyBitmap.MAX_COPIES + 1));
+	}
+}
@@ -0,0 +1,54 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.libraryportal.entity.BookAvailability;
+
+class IsbnIndexTest {
+
+	private static final long ISBN = 9780306406157L;
+
+	@Test
+	void testLookupsSurviveGrowing() {
+		IsbnIndex index = new IsbnIndex(1);
+		for (long i = 0; i < 10_000; i++) {
+			index.put(ISBN + i, i, (int) (i % 3), BookStatus.AVAILABLE, i + 1);
+		}
+
+		BookAvailability availability = new BookAvailability();
+		for (long i = 0; i < 10_000; i++) {
+			assertTrue(index.get(ISBN + i, availability));
+			assertEquals(i, availability.getBookId());
+			assertEquals((int) (i % 3), availability.getNoOfCopies());
+		}
+		assertEquals(10_000, index.size());
+	}
+
+	@Test
+	void testOnlyANewerWriteReplaces() {
+		IsbnIndex index = new IsbnIndex(16);
+		assertTrue(index.put(ISBN, 1L, 1, BookStatus.AVAILABLE, 10));
+		assertTrue(index.put(ISBN, 1L, 0, BookStatus.BORROWED, 12));
+		// Applied late, after the write it preceded
+		assertFalse(index.put(ISBN, 1L, 1, BookStatus.AVAILABLE, 11));
+		assertFalse(index.put(ISBN, 2L, 5, BookStatus.AVAILABLE, 12));
+
+		BookAvailability availability = new BookAvailability();
+		assertTrue(index.get(ISBN, availability));
+		assertEquals(1L, availability.getBookId());
+		assertEquals(0, availability.getNoOfCopies());
+		assertEquals(BookStatus.BORROWED, availability.getStatus());
+	}
+
+	@Test
+	void testMissingIsbn() {
+		IsbnIndex index = new IsbnIndex(16);
+
+		assertEquals(IsbnIndex.NO_BOOK, index.bookId(ISBN));
+		assertFalse(index.get(ISBN, new BookAvailability()));
+	}
+}
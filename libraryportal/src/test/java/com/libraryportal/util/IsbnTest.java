@@ -0,0 +1,31 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class IsbnTest {
+
+	@Test
+	void testIsbn10AndIsbn13NormaliseToTheSameValue() {
+		assertEquals(9780306406157L, Isbn.parse("0-306-40615-2"));
+		assertEquals(9780306406157L, Isbn.parse("978-0-306-40615-7"));
+		assertEquals(9780804429573L, Isbn.parse("080442957X"));
+		assertEquals(9791090636071L, Isbn.parse("979 10 90636 07 1"));
+	}
+
+	@Test
+	void testInvalidIsbnsAreRejected() {
+		assertEquals(-1, Isbn.tryParse("1234567890"));
+		assertEquals(-1, Isbn.tryParse("9780306406158"));
+		assertEquals(-1, Isbn.tryParse("12345"));
+		assertEquals(-1, Isbn.tryParse(null));
+		assertThrows(IllegalArgumentException.class, () -> Isbn.parse("X80442957"));
+	}
+
+	@Test
+	void testFormat() {
+		assertEquals("9780306406157", Isbn.format(9780306406157L));
+	}
+}
@@ -0,0 +1,83 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class PartitionedCacheTest {
+
+	@Test
+	void testValuesAreCachedPerPartition() {
+		PartitionedCache<String, String> cache = new PartitionedCache<>("test", 4, 10, Duration.ofMinutes(1));
+		AtomicInteger loads = new AtomicInteger();
+
+		assertEquals("EAST:a", cache.get("EAST", "a", key -> {
+			loads.incrementAndGet();
+			return "EAST:" + key;
+		}));
+		assertEquals("EAST:a", cache.get("EAST", "a", key -> "reloaded"));
+		assertEquals("WEST:a", cache.get("WEST", "a", key -> "WEST:" + key));
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.size("EAST"));
+		assertEquals(1, cache.size("WEST"));
+	}
+
+	@Test
+	void testInvalidateOnlyClearsItsPartition() {
+		PartitionedCache<String, String> cache = new PartitionedCache<>("test", 4, 10, Duration.ofMinutes(1));
+		cache.get("EAST", "a", key -> "east");
+		cache.get("WEST", "a", key -> "west");
+
+		cache.invalidate("EAST");
+
+		assertEquals(0, cache.size("EAST"));
+		assertEquals("west", cache.get("WEST", "a", key -> "reloaded"));
+		assertEquals("reloaded", cache.get("EAST", "a", key -> "reloaded"));
+
+		cache.invalidateAll();
+		assertEquals(0, cache.size("EAST"));
+		assertEquals(0, cache.size("WEST"));
+	}
+
+	@Test
+	void testLoadRacingAnInvalidationIsNotKept() {
+		PartitionedCache<String, String> cache = new PartitionedCache<>("test", 4, 10, Duration.ofMinutes(1));
+		cache.get("EAST", "b", key -> "other");
+
+		String loaded = cache.get("EAST", "a", key -> {
+			cache.invalidate("EAST");
+			return "stale";
+		});
+
+		assertEquals("stale", loaded);
+		assertEquals(0, cache.size("EAST"));
+		assertEquals("fresh", cache.get("EAST", "a", key -> "fresh"));
+	}
+
+	@Test
+	void testPartitionsBeyondTheLimitAreNotCached() {
+		PartitionedCache<String, String> cache = new PartitionedCache<>("test", 1, 10, Duration.ofMinutes(1));
+		cache.get("EAST", "a", key -> "east");
+
+		assertEquals("west", cache.get("WEST", "a", key -> "west"));
+		assertEquals("reloaded", cache.get("WEST", "a", key -> "reloaded"));
+		assertEquals(0, cache.size("WEST"));
+		assertEquals("east", cache.get("EAST", "a", key -> "reloaded"));
+	}
+
+	@Test
+	void testEachPartitionIsBoundedOnItsOwn() {
+		PartitionedCache<Integer, Integer> cache = new PartitionedCache<>("test", 4, 10, Duration.ofMinutes(1));
+		cache.get("WEST", 0, key -> key);
+		for (int i = 0; i < 1000; i++) {
+			cache.get("EAST", i, key -> key);
+		}
+		cache.cleanUp();
+
+		assertEquals(10, cache.size("EAST"));
+		assertEquals(1, cache.size("WEST"));
+	}
+}
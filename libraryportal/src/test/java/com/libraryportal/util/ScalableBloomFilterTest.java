@@ -0,0 +1,54 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ScalableBloomFilterTest {
+
+	@Test
+	void testEveryKeyMightBeContainedUntilLoaded() {
+		ScalableBloomFilter filter = new ScalableBloomFilter("test", 100, 0.01);
+
+		assertTrue(filter.mightContain("never-added"));
+	}
+
+	@Test
+	void testAddedKeysAreNeverReportedAbsentAfterGrowing() {
+		ScalableBloomFilter filter = new ScalableBloomFilter("test", 100, 0.01);
+		filter.markLoaded();
+
+		for (int i = 0; i < 5_000; i++) {
+			filter.put("borrower" + i + "@libraryportal.com");
+		}
+
+		for (int i = 0; i < 5_000; i++) {
+			assertTrue(filter.mightContain("borrower" + i + "@libraryportal.com"));
+		}
+		assertEquals(5_000, filter.size());
+	}
+
+	@Test
+	void testFalsePositiveRateStaysBelowTheBound() {
+		ScalableBloomFilter filter = new ScalableBloomFilter("test", 1_000, 0.01);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		filter.bindTo(registry);
+		filter.markLoaded();
+		for (int i = 0; i < 5_000; i++) {
+			filter.put("added" + i);
+		}
+
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("absent" + i)) {
+				filter.recordLookup(false);
+			}
+		}
+
+		double rate = registry.get("libraryportal.bloom.false.positive.rate").gauge().value();
+		assertTrue(rate < 0.01, "false positive rate " + rate);
+		assertEquals(100_000 * (1 - rate), filter.getNegatives(), 1.0);
+	}
+}
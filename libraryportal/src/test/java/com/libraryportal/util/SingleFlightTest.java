@@ -0,0 +1,73 @@
+package com.libraryportal.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.libraryportal.exception.BorrowerNotFoundException;
+
+class SingleFlightTest {
+
+	@Test
+	void testConcurrentCallsShareOneLoad() throws Exception {
+		SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(executor.submit(() -> singleFlight.execute("key", () -> {
+					loads.incrementAndGet();
+					release.await();
+					return 42;
+				})));
+			}
+			while (singleFlight.getCalls() < 8) {
+				Thread.onSpinWait();
+			}
+			release.countDown();
+
+			for (Future<Integer> result : results) {
+				assertEquals(42, result.get(5, TimeUnit.SECONDS));
+			}
+			assertEquals(1, loads.get());
+			assertEquals(8, singleFlight.getCalls());
+			assertEquals(1, singleFlight.getLoads());
+			assertEquals(0.875, singleFlight.getCoalescingRatio());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void testSequentialCallsLoadAgain() {
+		SingleFlight<String, Integer> singleFlight = new SingleFlight<>("test");
+		AtomicInteger loads = new AtomicInteger();
+
+		singleFlight.execute("key", loads::incrementAndGet);
+		singleFlight.execute("key", loads::incrementAndGet);
+
+		assertEquals(2, loads.get());
+		assertEquals(0.0, singleFlight.getCoalescingRatio());
+	}
+
+	@Test
+	void testCheckedExceptionIsPropagated() {
+		SingleFlight<Long, String> singleFlight = new SingleFlight<>("test");
+
+		assertThrows(BorrowerNotFoundException.class, () -> singleFlight.execute(1L, () -> {
+			throw new BorrowerNotFoundException("Borrower not found with id: 1");
+		}));
+	}
+}